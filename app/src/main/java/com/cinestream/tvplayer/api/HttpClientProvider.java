@@ -0,0 +1,64 @@
+package com.cinestream.tvplayer.api;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Owns the app-wide OkHttp client.
+ * One connection pool and dispatcher are shared so that requests to the same
+ * host (TMDB, stream CDNs, subtitle hosts) reuse warm HTTP/2 and keep-alive connections.
+ */
+public class HttpClientProvider {
+    public static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+
+    private static final int TIMEOUT_MS = 10000;
+    private static final int READ_TIMEOUT_MS = 20000;
+
+    // Segment downloads open several parallel requests to the same CDN host
+    private static final int MAX_REQUESTS = 32;
+    private static final int MAX_REQUESTS_PER_HOST = 8;
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static HttpClientProvider instance;
+
+    private final OkHttpClient client;
+    private final NetworkMetrics metrics;
+
+    private HttpClientProvider() {
+        metrics = new NetworkMetrics();
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .connectTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .followRedirects(true)
+                .followSslRedirects(true)
+                .retryOnConnectionFailure(true)
+                .addInterceptor(metrics)
+                .build();
+    }
+
+    public static synchronized HttpClientProvider getInstance() {
+        if (instance == null) {
+            instance = new HttpClientProvider();
+        }
+        return instance;
+    }
+
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    public NetworkMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,106 @@
+package com.cinestream.tvplayer.api;
+
+import android.os.SystemClock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Per-host network counters recorded by an OkHttp interceptor.
+ * Every request sent through the shared client (API calls and media segments)
+ * is counted here so they can be compared side by side.
+ */
+public class NetworkMetrics implements Interceptor {
+
+    private final ConcurrentHashMap<String, HostStats> hostStats = new ConcurrentHashMap<>();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        HostStats stats = getOrCreate(request.url().host());
+        // Counted up front so failed requests are part of the total and errors never exceed it
+        stats.requests.incrementAndGet();
+        long startMs = SystemClock.elapsedRealtime();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            stats.errors.incrementAndGet();
+            throw e;
+        } finally {
+            stats.totalTimeMs.addAndGet(SystemClock.elapsedRealtime() - startMs);
+        }
+        if (!response.isSuccessful()) {
+            stats.errors.incrementAndGet();
+        }
+
+        ResponseBody body = response.body();
+        if (body != null && body.contentLength() > 0) {
+            stats.bytes.addAndGet(body.contentLength());
+        }
+        return response;
+    }
+
+    private HostStats getOrCreate(String host) {
+        HostStats stats = hostStats.get(host);
+        if (stats == null) {
+            stats = new HostStats(host);
+            HostStats existing = hostStats.putIfAbsent(host, stats);
+            if (existing != null) {
+                stats = existing;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Snapshot of all hosts seen so far
+     */
+    public List<HostStats> getHostStats() {
+        return new ArrayList<>(hostStats.values());
+    }
+
+    public void reset() {
+        hostStats.clear();
+    }
+
+    /**
+     * Counters for a single host
+     */
+    public static class HostStats {
+        private final String host;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong totalTimeMs = new AtomicLong();
+
+        HostStats(String host) {
+            this.host = host;
+        }
+
+        public String getHost() { return host; }
+        public long getRequests() { return requests.get(); }
+        public long getErrors() { return errors.get(); }
+        public long getBytes() { return bytes.get(); }
+
+        public long getAverageTimeMs() {
+            long count = requests.get();
+            return count > 0 ? totalTimeMs.get() / count : 0;
+        }
+
+        @Override
+        public String toString() {
+            return host + ": " + getRequests() + " req, " + getErrors() + " err, " +
+                    (getBytes() / 1024) + " KB, avg " + getAverageTimeMs() + " ms";
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.jsoup.Connection;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import com.cinestream.tvplayer.data.model.MediaItems;
 
@@ -54,9 +55,9 @@ public class TMDBApiClient {
         List<MediaItems> movies = new ArrayList<>();
 
         try {
-            String url2 = String.format("%s/movie/popular?language=en-US&page=%d",
+            String url = String.format(Locale.US,
+                    "%s/discover/movie?include_adult=false&include_video=false&language=en-US&page=%d&sort_by=popularity.desc",
                     BASE_URL, page);
-            String url ="https://api.themoviedb.org/3/discover/movie?include_adult=false&include_video=false&language=en-US&page=1&sort_by=popularity.desc";
             String response = makeRequest(url);
 
             if (response != null) {
@@ -0,0 +1,119 @@
+package com.cinestream.tvplayer.data.model;
+
+/**
+ * Quality-of-experience numbers collected for a single playback session
+ */
+public class PlaybackSession {
+    private String mediaId;
+    private String provider;
+    private long startedAt;
+    private long timeToFirstFrameMs = -1;
+    private int rebufferCount;
+    private long rebufferDurationMs;
+    private int droppedFrames;
+    private int bitrateSwitches;
+    private int averageBitrate;
+    private int errorCount;
+    private int failoverCount;
+    private long playTimeMs;
+
+    public PlaybackSession() {
+        // Default constructor
+    }
+
+    public String getMediaId() {
+        return mediaId;
+    }
+
+    public void setMediaId(String mediaId) {
+        this.mediaId = mediaId;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getTimeToFirstFrameMs() {
+        return timeToFirstFrameMs;
+    }
+
+    public void setTimeToFirstFrameMs(long timeToFirstFrameMs) {
+        this.timeToFirstFrameMs = timeToFirstFrameMs;
+    }
+
+    public int getRebufferCount() {
+        return rebufferCount;
+    }
+
+    public void setRebufferCount(int rebufferCount) {
+        this.rebufferCount = rebufferCount;
+    }
+
+    public long getRebufferDurationMs() {
+        return rebufferDurationMs;
+    }
+
+    public void setRebufferDurationMs(long rebufferDurationMs) {
+        this.rebufferDurationMs = rebufferDurationMs;
+    }
+
+    public int getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public void setDroppedFrames(int droppedFrames) {
+        this.droppedFrames = droppedFrames;
+    }
+
+    public int getBitrateSwitches() {
+        return bitrateSwitches;
+    }
+
+    public void setBitrateSwitches(int bitrateSwitches) {
+        this.bitrateSwitches = bitrateSwitches;
+    }
+
+    public int getAverageBitrate() {
+        return averageBitrate;
+    }
+
+    public void setAverageBitrate(int averageBitrate) {
+        this.averageBitrate = averageBitrate;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getFailoverCount() {
+        return failoverCount;
+    }
+
+    public void setFailoverCount(int failoverCount) {
+        this.failoverCount = failoverCount;
+    }
+
+    public long getPlayTimeMs() {
+        return playTimeMs;
+    }
+
+    public void setPlayTimeMs(long playTimeMs) {
+        this.playTimeMs = playTimeMs;
+    }
+}
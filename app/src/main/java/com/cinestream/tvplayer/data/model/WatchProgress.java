@@ -0,0 +1,111 @@
+package com.cinestream.tvplayer.data.model;
+
+/**
+ * Last known playback position for a movie or an episode
+ */
+public class WatchProgress {
+    private String mediaKey;
+    private String tmdbId;
+    private String mediaType;
+    private String title;
+    private String posterUrl;
+    private String season;
+    private String episode;
+    private long positionMs;
+    private long durationMs;
+    private long updatedAt;
+
+    public WatchProgress() {
+        // Default constructor
+    }
+
+    public String getMediaKey() {
+        return mediaKey;
+    }
+
+    public void setMediaKey(String mediaKey) {
+        this.mediaKey = mediaKey;
+    }
+
+    public String getTmdbId() {
+        return tmdbId;
+    }
+
+    public void setTmdbId(String tmdbId) {
+        this.tmdbId = tmdbId;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public void setMediaType(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getPosterUrl() {
+        return posterUrl;
+    }
+
+    public void setPosterUrl(String posterUrl) {
+        this.posterUrl = posterUrl;
+    }
+
+    public String getSeason() {
+        return season;
+    }
+
+    public void setSeason(String season) {
+        this.season = season;
+    }
+
+    public String getEpisode() {
+        return episode;
+    }
+
+    public void setEpisode(String episode) {
+        this.episode = episode;
+    }
+
+    public long getPositionMs() {
+        return positionMs;
+    }
+
+    public void setPositionMs(long positionMs) {
+        this.positionMs = positionMs;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Fraction watched between 0 and 1, or 0 when the duration is unknown
+     */
+    public float getProgressFraction() {
+        if (durationMs <= 0) {
+            return 0f;
+        }
+        return Math.min(1f, (float) positionMs / durationMs);
+    }
+}
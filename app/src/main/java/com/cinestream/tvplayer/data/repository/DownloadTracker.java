@@ -0,0 +1,483 @@
+package com.cinestream.tvplayer.data.repository;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.MimeTypes;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.database.DatabaseProvider;
+import androidx.media3.database.StandaloneDatabaseProvider;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.cache.Cache;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.NoOpCacheEvictor;
+import androidx.media3.datasource.cache.SimpleCache;
+import androidx.media3.exoplayer.DefaultRenderersFactory;
+import androidx.media3.exoplayer.offline.Download;
+import androidx.media3.exoplayer.offline.DownloadCursor;
+import androidx.media3.exoplayer.offline.DownloadHelper;
+import androidx.media3.exoplayer.offline.DownloadManager;
+import androidx.media3.exoplayer.offline.DownloadRequest;
+import androidx.media3.exoplayer.offline.DownloadService;
+import androidx.media3.exoplayer.scheduler.Requirements;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+
+import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.ui.player.MediaDownloadService;
+import com.cinestream.tvplayer.ui.player.PlayerHolder;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offline copies of movies and episodes, built on the Media3 DownloadManager.
+ * Downloads are keyed like watch progress (one per movie or episode), run at most
+ * MAX_PARALLEL_DOWNLOADS at a time, resume after restarts and stay within a storage quota.
+ * The cache and download index are opened in the background, so getInstance() is cheap; until
+ * isLoaded() no title counts as downloaded. Must be created and called on the main thread.
+ */
+@UnstableApi
+public class DownloadTracker {
+    private static final String TAG = "DownloadTracker";
+    private static DownloadTracker instance;
+
+    private static final String DOWNLOAD_DIRECTORY = "downloads";
+    private static final int MAX_PARALLEL_DOWNLOADS = 2;
+    private static final int SEGMENT_THREADS = 4;
+    // Offline copies are capped at 720p; a feature film stays around 1-2 GB
+    private static final int MAX_VIDEO_WIDTH = 1280;
+    private static final int MAX_VIDEO_HEIGHT = 720;
+    // Quota is the smaller of the hard cap and a share of the space left on the volume
+    private static final long MAX_QUOTA_BYTES = 8L * 1024 * 1024 * 1024;
+    private static final float QUOTA_SHARE_OF_FREE_SPACE = 0.5f;
+    private static final long QUOTA_CHECK_INTERVAL_MS = 10_000;
+    public static final int STOP_REASON_QUOTA = 1;
+
+    /**
+     * Notified on the main thread whenever a download is added, changes state or is removed
+     */
+    public interface Listener {
+        void onDownloadsChanged();
+    }
+
+    public interface DownloadCallback {
+        void onQueued();
+        void onError(String error);
+    }
+
+    private final Context appContext;
+    private final DataSource.Factory upstreamFactory;
+    private final ExecutorService executor;
+    private final Handler mainHandler;
+    private final Gson gson = new Gson();
+
+    // Opened on the executor; set before cacheOpened counts down
+    private final CountDownLatch cacheOpened = new CountDownLatch(1);
+    private volatile DatabaseProvider databaseProvider;
+    private volatile Cache downloadCache;
+    private volatile long quotaBytes;
+    // Created on the main thread once the cache has opened
+    private DownloadManager downloadManager;
+
+    private final Map<String, Download> downloads = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private boolean pausedForQuota = false;
+    // Saved downloads have been read; actions waiting for that run once it happens
+    private boolean loaded = false;
+    private final List<Runnable> whenLoadedActions = new ArrayList<>();
+
+    private final Runnable quotaCheckRunnable = this::checkQuota;
+
+    private DownloadTracker(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.executor = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        // Same OkHttp stack as playback, so downloads reuse pooled connections and the user agent
+        this.upstreamFactory = PlayerHolder.getInstance(appContext).getDataSourceFactory();
+
+        // Opening the cache waits for its database and a scan of the directory; keep that off
+        // the main thread, which only creates the manager once it is done
+        executor.execute(this::openCache);
+    }
+
+    private void openCache() {
+        File storageRoot = getStorageRoot(appContext);
+        File directory = new File(storageRoot, DOWNLOAD_DIRECTORY);
+        DatabaseProvider provider = new StandaloneDatabaseProvider(appContext);
+        // Downloaded media must never be evicted to make room for something else
+        Cache cache = new SimpleCache(directory, new NoOpCacheEvictor(), provider);
+        // Measured on the storage root: SimpleCache creates its directory on its own thread, and a
+        // directory that doesn't exist yet reports no usable space
+        quotaBytes = Math.min(MAX_QUOTA_BYTES,
+                (long) (storageRoot.getUsableSpace() * QUOTA_SHARE_OF_FREE_SPACE) + cache.getCacheSpace());
+        databaseProvider = provider;
+        downloadCache = cache;
+        cacheOpened.countDown();
+        mainHandler.post(this::getDownloadManager);
+    }
+
+    private void createDownloadManager() {
+        // Each download runs on its own manager thread; this pool only fetches segments within one
+        downloadManager = new DownloadManager(appContext, databaseProvider, downloadCache,
+                upstreamFactory, Executors.newFixedThreadPool(SEGMENT_THREADS));
+        downloadManager.setMaxParallelDownloads(MAX_PARALLEL_DOWNLOADS);
+        downloadManager.setRequirements(new Requirements(
+                Requirements.NETWORK | Requirements.DEVICE_STORAGE_NOT_LOW));
+        downloadManager.addListener(new DownloadManager.Listener() {
+            @Override
+            public void onDownloadChanged(DownloadManager manager, Download download,
+                                          @Nullable Exception finalException) {
+                downloads.put(download.request.id, download);
+                if (finalException != null) {
+                    Log.e(TAG, "Download failed: " + download.request.id, finalException);
+                }
+                scheduleQuotaCheck();
+                notifyChanged();
+            }
+
+            @Override
+            public void onDownloadRemoved(DownloadManager manager, Download download) {
+                downloads.remove(download.request.id);
+                scheduleQuotaCheck();
+                notifyChanged();
+            }
+
+            @Override
+            public void onIdle(DownloadManager manager) {
+                checkQuota();
+            }
+        });
+
+        loadDownloads();
+    }
+
+    private void awaitCacheOpened() {
+        boolean interrupted = false;
+        while (cacheOpened.getCount() > 0) {
+            try {
+                cacheOpened.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static synchronized DownloadTracker getInstance(Context context) {
+        if (instance == null) {
+            instance = new DownloadTracker(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Manager behind the download service. Only waits for the cache if called before it has
+     * opened, e.g. when the system restarts the service before anything else touched the tracker.
+     */
+    public DownloadManager getDownloadManager() {
+        if (downloadManager == null) {
+            awaitCacheOpened();
+            createDownloadManager();
+        }
+        return downloadManager;
+    }
+
+    /**
+     * Whether the downloads saved by earlier runs have been read
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Run an action once the saved downloads have been read, straight away if they have been
+     */
+    public void whenLoaded(Runnable action) {
+        if (loaded) {
+            action.run();
+        } else {
+            whenLoadedActions.add(action);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queue an offline copy of a title whose video sources have already been resolved.
+     * HLS playlists are inspected first so only one rendition (up to 720p) is stored.
+     */
+    public void download(MediaItems mediaItem, DownloadCallback callback) {
+        if (!loaded) {
+            whenLoaded(() -> download(mediaItem, callback));
+            return;
+        }
+        String id = WatchProgressStore.keyFor(mediaItem);
+        if (id == null || !mediaItem.hasValidVideoSources()) {
+            callback.onError("No video sources available");
+            return;
+        }
+        Download existing = downloads.get(id);
+        if (existing != null && existing.state != Download.STATE_FAILED) {
+            callback.onQueued();
+            return;
+        }
+        if (downloadCache.getCacheSpace() >= quotaBytes) {
+            callback.onError("Download storage is full");
+            return;
+        }
+
+        String url = mediaItem.getBestVideoUrl();
+        MediaItem.Builder builder = new MediaItem.Builder().setUri(Uri.parse(url));
+        if (url.toLowerCase().contains("m3u8")) {
+            builder.setMimeType(MimeTypes.APPLICATION_M3U8);
+        } else if (url.toLowerCase().contains("mpd")) {
+            builder.setMimeType(MimeTypes.APPLICATION_MPD);
+        }
+
+        DownloadHelper helper = DownloadHelper.forMediaItem(appContext, builder.build(),
+                new DefaultRenderersFactory(appContext), upstreamFactory);
+        helper.prepare(new DownloadHelper.Callback() {
+            @Override
+            public void onPrepared(DownloadHelper preparedHelper) {
+                DefaultTrackSelector.Parameters parameters =
+                        DownloadHelper.getDefaultTrackSelectorParameters(appContext)
+                                .buildUpon()
+                                .setMaxVideoSize(MAX_VIDEO_WIDTH, MAX_VIDEO_HEIGHT)
+                                .build();
+                // Zero periods for progressive files, which are stored whole
+                for (int period = 0; period < preparedHelper.getPeriodCount(); period++) {
+                    preparedHelper.clearTrackSelections(period);
+                    preparedHelper.addTrackSelection(period, parameters);
+                }
+                byte[] data = gson.toJson(mediaItem).getBytes(StandardCharsets.UTF_8);
+                DownloadRequest request = preparedHelper.getDownloadRequest(id, data);
+                preparedHelper.release();
+
+                DownloadService.sendAddDownload(appContext, MediaDownloadService.class,
+                        request, /* foreground= */ false);
+                Log.d(TAG, "Queued download " + id);
+                callback.onQueued();
+            }
+
+            @Override
+            public void onPrepareError(DownloadHelper failedHelper, IOException e) {
+                failedHelper.release();
+                Log.e(TAG, "Could not prepare download " + id, e);
+                callback.onError(e.getMessage() != null ? e.getMessage() : "Could not read stream");
+            }
+        });
+    }
+
+    public void remove(MediaItems mediaItem) {
+        String id = WatchProgressStore.keyFor(mediaItem);
+        if (id != null) {
+            DownloadService.sendRemoveDownload(appContext, MediaDownloadService.class,
+                    id, /* foreground= */ false);
+        }
+    }
+
+    /**
+     * Current download for a title, or null if it was never downloaded
+     */
+    @Nullable
+    public Download getDownload(MediaItems mediaItem) {
+        String id = WatchProgressStore.keyFor(mediaItem);
+        return id != null ? downloads.get(id) : null;
+    }
+
+    public boolean isDownloaded(MediaItems mediaItem) {
+        Download download = getDownload(mediaItem);
+        return download != null && download.state == Download.STATE_COMPLETED;
+    }
+
+    /**
+     * Percentage of a running download, or -1 when unknown
+     */
+    public float getPercentDownloaded(MediaItems mediaItem) {
+        String id = WatchProgressStore.keyFor(mediaItem);
+        if (downloadManager == null) {
+            return -1;
+        }
+        for (Download download : downloadManager.getCurrentDownloads()) {
+            if (download.request.id.equals(id)) {
+                return download.getPercentDownloaded();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Request of a completed download, used to play the local copy
+     */
+    @Nullable
+    public DownloadRequest getCompletedRequest(MediaItems mediaItem) {
+        Download download = getDownload(mediaItem);
+        return download != null && download.state == Download.STATE_COMPLETED ? download.request : null;
+    }
+
+    /**
+     * The title stored with a completed download, with its resolved sources and subtitles
+     */
+    @Nullable
+    public MediaItems getDownloadedItem(MediaItems mediaItem) {
+        DownloadRequest request = getCompletedRequest(mediaItem);
+        return request != null ? fromRequest(request) : null;
+    }
+
+    /**
+     * Completed downloads, most recently finished first
+     */
+    public List<MediaItems> getDownloadedItems() {
+        List<Download> completed = new ArrayList<>();
+        for (Download download : downloads.values()) {
+            if (download.state == Download.STATE_COMPLETED) {
+                completed.add(download);
+            }
+        }
+        Collections.sort(completed, (a, b) -> Long.compare(b.updateTimeMs, a.updateTimeMs));
+
+        List<MediaItems> items = new ArrayList<>();
+        for (Download download : completed) {
+            MediaItems item = fromRequest(download.request);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Data source for playback: segments that were downloaded are read from disk,
+     * anything else (e.g. side-loaded subtitles) still comes from the network.
+     * Only used for completed downloads, so the cache has opened by then.
+     */
+    public DataSource.Factory buildPlaybackDataSourceFactory(DataSource.Factory upstream) {
+        return new CacheDataSource.Factory()
+                .setCache(downloadCache)
+                .setUpstreamDataSourceFactory(upstream)
+                .setCacheWriteDataSinkFactory(null);
+    }
+
+    public long getQuotaBytes() {
+        return quotaBytes;
+    }
+
+    public long getUsedBytes() {
+        Cache cache = downloadCache;
+        return cache != null ? cache.getCacheSpace() : 0;
+    }
+
+    @Nullable
+    private MediaItems fromRequest(DownloadRequest request) {
+        if (request.data == null || request.data.length == 0) {
+            return null;
+        }
+        try {
+            return gson.fromJson(new String(request.data, StandardCharsets.UTF_8), MediaItems.class);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Unreadable download metadata: " + request.id, e);
+            return null;
+        }
+    }
+
+    private void loadDownloads() {
+        executor.execute(() -> {
+            boolean hasUnfinished = false;
+            try (DownloadCursor cursor = downloadManager.getDownloadIndex().getDownloads()) {
+                while (cursor.moveToNext()) {
+                    Download download = cursor.getDownload();
+                    // Anything reported by the manager in the meantime is newer
+                    downloads.putIfAbsent(download.request.id, download);
+                    hasUnfinished |= !download.isTerminalState();
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to load downloads", e);
+            }
+            boolean resume = hasUnfinished;
+            mainHandler.post(() -> {
+                loaded = true;
+                for (Runnable action : whenLoadedActions) {
+                    action.run();
+                }
+                whenLoadedActions.clear();
+                if (resume) {
+                    resumeDownloads();
+                }
+                notifyChanged();
+            });
+        });
+    }
+
+    /**
+     * Start the download service so downloads interrupted by a restart continue
+     */
+    private void resumeDownloads() {
+        try {
+            DownloadService.start(appContext, MediaDownloadService.class);
+        } catch (IllegalStateException e) {
+            // Background start restrictions; the scheduler restarts the service once allowed
+            Log.w(TAG, "Could not start download service", e);
+        }
+    }
+
+    private void scheduleQuotaCheck() {
+        mainHandler.removeCallbacks(quotaCheckRunnable);
+        if (!downloadManager.isIdle() || pausedForQuota) {
+            mainHandler.postDelayed(quotaCheckRunnable, QUOTA_CHECK_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * Pause everything once the quota is reached, and resume once removals free up space
+     */
+    private void checkQuota() {
+        mainHandler.removeCallbacks(quotaCheckRunnable);
+        boolean overQuota = downloadCache.getCacheSpace() >= quotaBytes;
+        if (overQuota && !pausedForQuota) {
+            Log.w(TAG, "Download quota of " + quotaBytes + " bytes reached, pausing downloads");
+            pausedForQuota = true;
+            downloadManager.setStopReason(null, STOP_REASON_QUOTA);
+        } else if (!overQuota && pausedForQuota) {
+            pausedForQuota = false;
+            downloadManager.setStopReason(null, Download.STOP_REASON_NONE);
+        }
+        if (!downloadManager.isIdle()) {
+            mainHandler.postDelayed(quotaCheckRunnable, QUOTA_CHECK_INTERVAL_MS);
+        }
+    }
+
+    private void notifyChanged() {
+        for (Listener listener : listeners) {
+            listener.onDownloadsChanged();
+        }
+    }
+
+    private static File getStorageRoot(Context context) {
+        File external = context.getExternalFilesDir(null);
+        return external != null ? external : context.getFilesDir();
+    }
+}
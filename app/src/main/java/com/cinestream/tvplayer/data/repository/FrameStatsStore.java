@@ -0,0 +1,253 @@
+package com.cinestream.tvplayer.data.repository;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local histograms of UI frame durations, per screen and per UI state.
+ * Frames are counted into fixed duration buckets, so the store stays the same size however long
+ * the app runs; nothing leaves the device unless exported.
+ */
+public class FrameStatsStore extends SQLiteOpenHelper {
+    private static final String TAG = "FrameStatsStore";
+    private static final String DATABASE_NAME = "frame_stats.db";
+    private static final int DATABASE_VERSION = 1;
+    private static final String EXPORT_FILE_NAME = "frame_stats.csv";
+
+    private static final String TABLE_FRAMES = "frames";
+    private static final String COL_SCREEN = "screen";
+    private static final String COL_STATE = "state";
+    private static final String COL_BUCKET = "bucket";
+    private static final String COL_COUNT = "frame_count";
+
+    // Upper bounds of the duration buckets in ms; the last bucket is open-ended
+    private static final int[] BUCKET_LIMITS_MS = {8, 17, 25, 34, 50, 100, 250, 700};
+    public static final int BUCKET_COUNT = BUCKET_LIMITS_MS.length + 1;
+    // Frames from this bucket on (17 ms or longer) missed a 60 Hz vsync
+    private static final int SLOW_BUCKET = 2;
+    // Frames from this bucket on count as frozen (700 ms or longer)
+    private static final int FROZEN_BUCKET = BUCKET_LIMITS_MS.length;
+
+    private static FrameStatsStore instance;
+    private final Context appContext;
+    private final ExecutorService executorService;
+    private final Handler mainHandler;
+
+    public interface StatsCallback<T> {
+        void onSuccess(T result);
+        void onError(String error);
+    }
+
+    /**
+     * Frame totals for one screen across all of its states
+     */
+    public static class ScreenSummary {
+        public String screen;
+        public long frames;
+        public long slowFrames;
+        public long frozenFrames;
+
+        @Override
+        public String toString() {
+            float slowPercent = frames > 0 ? slowFrames * 100f / frames : 0;
+            return String.format(Locale.US, "%s: %d frames, %d slow (%.1f%%), %d frozen",
+                    screen, frames, slowFrames, slowPercent, frozenFrames);
+        }
+    }
+
+    private FrameStatsStore(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+        this.appContext = context.getApplicationContext();
+        // Single thread keeps merges ordered
+        this.executorService = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static synchronized FrameStatsStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new FrameStatsStore(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Bucket a frame of the given duration falls into
+     */
+    public static int bucketFor(long durationMs) {
+        for (int i = 0; i < BUCKET_LIMITS_MS.length; i++) {
+            if (durationMs < BUCKET_LIMITS_MS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_LIMITS_MS.length;
+    }
+
+    public static boolean isSlow(int bucket) {
+        return bucket >= SLOW_BUCKET;
+    }
+
+    public static boolean isFrozen(int bucket) {
+        return bucket >= FROZEN_BUCKET;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_FRAMES + " (" +
+                COL_SCREEN + " TEXT NOT NULL, " +
+                COL_STATE + " TEXT NOT NULL, " +
+                COL_BUCKET + " INTEGER NOT NULL, " +
+                COL_COUNT + " INTEGER NOT NULL, " +
+                "PRIMARY KEY (" + COL_SCREEN + ", " + COL_STATE + ", " + COL_BUCKET + "))");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_FRAMES);
+        onCreate(db);
+    }
+
+    /**
+     * Add a screen's bucket counts, keyed by UI state, to the stored histograms
+     */
+    public void record(String screen, Map<String, long[]> histograms) {
+        executorService.execute(() -> {
+            SQLiteDatabase db = null;
+            try {
+                db = getWritableDatabase();
+                db.beginTransaction();
+                for (Map.Entry<String, long[]> entry : histograms.entrySet()) {
+                    long[] counts = entry.getValue();
+                    for (int bucket = 0; bucket < counts.length; bucket++) {
+                        if (counts[bucket] > 0) {
+                            addToBucket(db, screen, entry.getKey(), bucket, counts[bucket]);
+                        }
+                    }
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error recording frame stats", e);
+            } finally {
+                if (db != null && db.inTransaction()) {
+                    db.endTransaction();
+                }
+            }
+        });
+    }
+
+    private void addToBucket(SQLiteDatabase db, String screen, String state, int bucket, long count) {
+        ContentValues values = new ContentValues();
+        values.put(COL_SCREEN, screen);
+        values.put(COL_STATE, state);
+        values.put(COL_BUCKET, bucket);
+        values.put(COL_COUNT, 0);
+        db.insertWithOnConflict(TABLE_FRAMES, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+        db.execSQL("UPDATE " + TABLE_FRAMES + " SET " + COL_COUNT + " = " + COL_COUNT + " + ? WHERE " +
+                COL_SCREEN + " = ? AND " + COL_STATE + " = ? AND " + COL_BUCKET + " = ?",
+                new Object[]{count, screen, state, bucket});
+    }
+
+    /**
+     * Per-screen totals, busiest screen first
+     */
+    public void getScreenSummaries(StatsCallback<List<ScreenSummary>> callback) {
+        executorService.execute(() -> {
+            List<ScreenSummary> summaries = new ArrayList<>();
+            Cursor cursor = null;
+            try {
+                cursor = getReadableDatabase().rawQuery("SELECT " +
+                        COL_SCREEN + ", SUM(" + COL_COUNT + "), " +
+                        "SUM(CASE WHEN " + COL_BUCKET + " >= " + SLOW_BUCKET + " THEN " + COL_COUNT + " ELSE 0 END), " +
+                        "SUM(CASE WHEN " + COL_BUCKET + " >= " + FROZEN_BUCKET + " THEN " + COL_COUNT + " ELSE 0 END) " +
+                        "FROM " + TABLE_FRAMES + " GROUP BY " + COL_SCREEN +
+                        " ORDER BY SUM(" + COL_COUNT + ") DESC", null);
+                while (cursor.moveToNext()) {
+                    ScreenSummary summary = new ScreenSummary();
+                    summary.screen = cursor.getString(0);
+                    summary.frames = cursor.getLong(1);
+                    summary.slowFrames = cursor.getLong(2);
+                    summary.frozenFrames = cursor.getLong(3);
+                    summaries.add(summary);
+                }
+                mainHandler.post(() -> callback.onSuccess(summaries));
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading frame stats", e);
+                mainHandler.post(() -> callback.onError(e.getMessage()));
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Write every histogram to a CSV file in the app's external files directory
+     * (adb pull-able without extra permissions) and deliver the file
+     */
+    public void export(StatsCallback<File> callback) {
+        executorService.execute(() -> {
+            File directory = appContext.getExternalFilesDir(null);
+            if (directory == null) {
+                directory = appContext.getFilesDir();
+            }
+            File file = new File(directory, EXPORT_FILE_NAME);
+            Cursor cursor = null;
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                writer.write("screen,state,from_ms,to_ms,frames,slow,frozen\n");
+                cursor = getReadableDatabase().query(TABLE_FRAMES,
+                        new String[]{COL_SCREEN, COL_STATE, COL_BUCKET, COL_COUNT},
+                        null, null, null, null,
+                        COL_SCREEN + ", " + COL_STATE + ", " + COL_BUCKET);
+                while (cursor.moveToNext()) {
+                    int bucket = cursor.getInt(2);
+                    int from = bucket == 0 ? 0 : BUCKET_LIMITS_MS[bucket - 1];
+                    String to = bucket < BUCKET_LIMITS_MS.length ? String.valueOf(BUCKET_LIMITS_MS[bucket]) : "";
+                    writer.write(String.format(Locale.US, "%s,%s,%d,%s,%d,%b,%b\n",
+                            cursor.getString(0), cursor.getString(1), from, to, cursor.getLong(3),
+                            isSlow(bucket), isFrozen(bucket)));
+                }
+                Log.d(TAG, "Exported frame stats to " + file);
+                mainHandler.post(() -> callback.onSuccess(file));
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Error exporting frame stats", e);
+                mainHandler.post(() -> callback.onError(e.getMessage()));
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove all recorded frames
+     */
+    public void clear() {
+        executorService.execute(() -> {
+            try {
+                getWritableDatabase().delete(TABLE_FRAMES, null, null);
+            } catch (Exception e) {
+                Log.e(TAG, "Error clearing frame stats", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,174 @@
+package com.cinestream.tvplayer.data.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.cinestream.tvplayer.data.model.CategorySection;
+import com.cinestream.tvplayer.data.model.MediaItems;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The last home feed that loaded successfully, kept on disk so a cold start can render it
+ * straight away while the live feed refreshes behind it.
+ * The file is read as soon as the store is created and cached; writes replace it atomically.
+ */
+public class HomeFeedSnapshotStore {
+    private static final String TAG = "HomeFeedSnapshotStore";
+    private static final String FILE_NAME = "home_feed_snapshot.json";
+    private static final int SNAPSHOT_VERSION = 1;
+    // Older snapshots are stale enough that the spinner is the better answer
+    private static final long MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000;
+
+    private static HomeFeedSnapshotStore instance;
+    private final AtomicFile file;
+    private final Gson gson = new Gson();
+    private final ExecutorService executorService;
+    private final Handler mainHandler;
+    // Only touched on the executor thread
+    private Snapshot cached;
+
+    public interface SnapshotCallback {
+        void onLoaded(@Nullable Snapshot snapshot);
+    }
+
+    /**
+     * Rows and hero item as they were last rendered
+     */
+    public static class Snapshot {
+        int version;
+        long savedAt;
+        MediaItems hero;
+        List<Row> rows;
+
+        public long getSavedAt() {
+            return savedAt;
+        }
+
+        @Nullable
+        public MediaItems getHero() {
+            return hero;
+        }
+
+        public List<CategorySection> getSections() {
+            List<CategorySection> sections = new ArrayList<>();
+            if (rows != null) {
+                for (Row row : rows) {
+                    if (row.name != null && row.items != null && !row.items.isEmpty()) {
+                        sections.add(new CategorySection(row.name, row.items));
+                    }
+                }
+            }
+            return sections;
+        }
+    }
+
+    static class Row {
+        String name;
+        List<MediaItems> items;
+
+        Row(String name, List<MediaItems> items) {
+            this.name = name;
+            this.items = items;
+        }
+    }
+
+    private HomeFeedSnapshotStore(Context context) {
+        this.file = new AtomicFile(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+        // Single thread keeps the initial read ahead of any load or save
+        this.executorService = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        executorService.execute(() -> cached = read());
+    }
+
+    public static synchronized HomeFeedSnapshotStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new HomeFeedSnapshotStore(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Deliver the snapshot on the main thread, or null if there is none or it is too old
+     */
+    public void load(SnapshotCallback callback) {
+        executorService.execute(() -> {
+            Snapshot snapshot = cached;
+            if (snapshot != null && System.currentTimeMillis() - snapshot.savedAt > MAX_AGE_MS) {
+                snapshot = null;
+            }
+            Snapshot result = snapshot;
+            mainHandler.post(() -> callback.onLoaded(result));
+        });
+    }
+
+    /**
+     * Replace the snapshot with the feed as currently rendered
+     */
+    public void save(List<CategorySection> sections, @Nullable MediaItems hero) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.version = SNAPSHOT_VERSION;
+        snapshot.savedAt = System.currentTimeMillis();
+        snapshot.hero = hero;
+        snapshot.rows = new ArrayList<>();
+        for (CategorySection section : sections) {
+            // Rows are replaced rather than mutated, so holding the list is safe
+            snapshot.rows.add(new Row(section.getCategoryName(), section.getItems()));
+        }
+        executorService.execute(() -> {
+            cached = snapshot;
+            write(snapshot);
+        });
+    }
+
+    @Nullable
+    private Snapshot read() {
+        if (!file.getBaseFile().exists()) {
+            return null;
+        }
+        try (FileInputStream input = file.openRead();
+             Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            Snapshot snapshot = gson.fromJson(reader, Snapshot.class);
+            if (snapshot == null || snapshot.version != SNAPSHOT_VERSION) {
+                return null;
+            }
+            Log.d(TAG, "Read snapshot with " + snapshot.getSections().size() + " rows");
+            return snapshot;
+        } catch (IOException | JsonParseException e) {
+            Log.w(TAG, "Discarding unreadable snapshot", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void write(Snapshot snapshot) {
+        FileOutputStream output = null;
+        try {
+            output = file.startWrite();
+            output.write(gson.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+            file.finishWrite(output);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write snapshot", e);
+            if (output != null) {
+                file.failWrite(output);
+            }
+        }
+    }
+}
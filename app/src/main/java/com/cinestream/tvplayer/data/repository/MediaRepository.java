@@ -8,6 +8,7 @@ import com.cinestream.tvplayer.api.TMDBApiClient;
 import com.cinestream.tvplayer.data.model.Episode;
 import com.cinestream.tvplayer.data.model.MediaItems;
 import com.cinestream.tvplayer.data.model.Season;
+import com.cinestream.tvplayer.util.MemoryGovernor;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -20,7 +21,6 @@ import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class MediaRepository {
     private static final String TAG = "MediaRepository";
@@ -37,10 +37,19 @@ public class MediaRepository {
     private static MediaRepository instance;
 
     // Thread management
-    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    private final ExecutorService executorService = MemoryGovernor.newThreadPool(4);
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
-
+    /**
+     * Shared instance for callers that outlive a single screen (the player).
+     * Do not call cleanup() on it.
+     */
+    public static synchronized MediaRepository getInstance() {
+        if (instance == null) {
+            instance = new MediaRepository();
+        }
+        return instance;
+    }
 
     // Callback interface for async operations
     public interface TMDBCallback {
@@ -108,9 +117,16 @@ public class MediaRepository {
      * Async method to fetch featured/popular movies from TMDB API
      */
     public void getFeaturedMoviesAsync(TMDBCallback callback) {
+        getFeaturedMoviesAsync(1, callback);
+    }
+
+    /**
+     * Async method to fetch featured/popular movies from TMDB API, one page at a time (pages start at 1)
+     */
+    public void getFeaturedMoviesAsync(int page, TMDBCallback callback) {
         executorService.execute(() -> {
             try {
-                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=1&region=US&sort_by=popularity.desc";
+                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=" + page + "&region=US&sort_by=popularity.desc";
                 List<MediaItems> movies = fetchMoviesFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(movies));
             } catch (Exception e) {
@@ -124,9 +140,16 @@ public class MediaRepository {
      * Async method to fetch top rated movies from TMDB API
      */
     public void getTopRatedMoviesAsync(TMDBCallback callback) {
+        getTopRatedMoviesAsync(1, callback);
+    }
+
+    /**
+     * Async method to fetch top rated movies from TMDB API, one page at a time (pages start at 1)
+     */
+    public void getTopRatedMoviesAsync(int page, TMDBCallback callback) {
         executorService.execute(() -> {
             try {
-                String urlString = TMDB_BASE_URL + "/movie/top_rated?language=en-US&page=1&region=US";
+                String urlString = TMDB_BASE_URL + "/movie/top_rated?language=en-US&page=" + page + "&region=US";
                 List<MediaItems> movies = fetchMoviesFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(movies));
             } catch (Exception e) {
@@ -140,10 +163,17 @@ public class MediaRepository {
      * Async method to fetch comedy movies from TMDB API
      */
     public void getComedyMoviesAsync(TMDBCallback callback) {
+        getComedyMoviesAsync(1, callback);
+    }
+
+    /**
+     * Async method to fetch comedy movies from TMDB API, one page at a time (pages start at 1)
+     */
+    public void getComedyMoviesAsync(int page, TMDBCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 35 is Comedy
-                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=35";
+                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=35";
                 List<MediaItems> movies = fetchMoviesFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(movies));
             } catch (Exception e) {
@@ -157,10 +187,17 @@ public class MediaRepository {
      * Async method to fetch drama movies from TMDB API
      */
     public void getDramaMoviesAsync(TMDBCallback callback) {
+        getDramaMoviesAsync(1, callback);
+    }
+
+    /**
+     * Async method to fetch drama movies from TMDB API, one page at a time (pages start at 1)
+     */
+    public void getDramaMoviesAsync(int page, TMDBCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 18 is Drama
-                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=18";
+                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=18";
                 List<MediaItems> movies = fetchMoviesFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(movies));
             } catch (Exception e) {
@@ -174,10 +211,17 @@ public class MediaRepository {
      * Async method to fetch documentary movies from TMDB API
      */
     public void getDocumentariesAsync(TMDBCallback callback) {
+        getDocumentariesAsync(1, callback);
+    }
+
+    /**
+     * Async method to fetch documentary movies from TMDB API, one page at a time (pages start at 1)
+     */
+    public void getDocumentariesAsync(int page, TMDBCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 99 is Documentary
-                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=99";
+                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=99";
                 List<MediaItems> movies = fetchMoviesFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(movies));
             } catch (Exception e) {
@@ -191,10 +235,17 @@ public class MediaRepository {
      * Async method to fetch action movies from TMDB API
      */
     public void getActionMoviesAsync(TMDBCallback callback) {
+        getActionMoviesAsync(1, callback);
+    }
+
+    /**
+     * Async method to fetch action movies from TMDB API, one page at a time (pages start at 1)
+     */
+    public void getActionMoviesAsync(int page, TMDBCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 28 is Action
-                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=28";
+                String urlString = TMDB_BASE_URL + "/discover/movie?include_adult=false&include_video=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=28";
                 List<MediaItems> movies = fetchMoviesFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(movies));
             } catch (Exception e) {
@@ -208,9 +259,16 @@ public class MediaRepository {
      * Async method to fetch trending movies from TMDB API
      */
     public void getTrendingMoviesAsync(TMDBCallback callback) {
+        getTrendingMoviesAsync(1, callback);
+    }
+
+    /**
+     * Async method to fetch trending movies from TMDB API, one page at a time (pages start at 1)
+     */
+    public void getTrendingMoviesAsync(int page, TMDBCallback callback) {
         executorService.execute(() -> {
             try {
-                String urlString = TMDB_BASE_URL + "/trending/movie/week?language=en-US";
+                String urlString = TMDB_BASE_URL + "/trending/movie/week?language=en-US&page=" + page;
                 List<MediaItems> movies = fetchMoviesFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(movies));
             } catch (Exception e) {
@@ -240,7 +298,8 @@ public class MediaRepository {
             JSONObject jsonResponse = new JSONObject(response.body());
             JSONArray results = jsonResponse.getJSONArray("results");
 
-            for (int i = 0; i < results.length() && i < 20; i++) { // Limit to 20 items
+            // One TMDB page; rows load further pages on demand
+            for (int i = 0; i < results.length(); i++) {
                 JSONObject movieJson = results.getJSONObject(i);
                 MediaItems movie = createMediaItemFromTMDB(movieJson, TMDBApiClient.ContentType.MOVIE);
                 if (movie != null) {
@@ -6,11 +6,11 @@ import android.util.Log;
 
 import com.cinestream.tvplayer.api.TMDBApiClient;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.MemoryGovernor;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Combined repository that integrates TMDB API with VideasyAPI
@@ -27,7 +27,7 @@ public class MediaRepositoryCombined {
     private MediaRepositoryCombined() {
         this.tmdbRepository = TMDBRepository.getInstance();
         this.videasyRepository = MediaRepositoryVideasy.getInstance();
-        this.executorService = Executors.newFixedThreadPool(4);
+        this.executorService = MemoryGovernor.newThreadPool(4);
         this.mainHandler = new Handler(Looper.getMainLooper());
     }
 
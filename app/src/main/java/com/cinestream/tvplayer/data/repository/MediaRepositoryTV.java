@@ -6,6 +6,7 @@ import android.util.Log;
 
 import com.cinestream.tvplayer.api.TMDBApiClient;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.MemoryGovernor;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -17,7 +18,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class MediaRepositoryTV {
     private static final String TAG = "MediaRepositoryTV";
@@ -33,7 +33,7 @@ public class MediaRepositoryTV {
     private static final int TIMEOUT_MS = 10000; //
 
     // Thread management
-    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    private final ExecutorService executorService = MemoryGovernor.newThreadPool(4);
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     // Singleton instance
@@ -60,9 +60,16 @@ public class MediaRepositoryTV {
      * Fetch popular TV shows in the US
      */
     public void getPopularTVShowsAsync(TVShowCallback callback) {
+        getPopularTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch popular TV shows in the US, one page at a time (pages start at 1)
+     */
+    public void getPopularTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
-                String urlString = TMDB_BASE_URL + "/tv/popular?language=en-US&page=1&region=US";
+                String urlString = TMDB_BASE_URL + "/tv/popular?language=en-US&page=" + page + "&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -76,9 +83,16 @@ public class MediaRepositoryTV {
      * Fetch top rated TV shows in the US
      */
     public void getTopRatedTVShowsAsync(TVShowCallback callback) {
+        getTopRatedTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch top rated TV shows in the US, one page at a time (pages start at 1)
+     */
+    public void getTopRatedTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
-                String urlString = TMDB_BASE_URL + "/tv/top_rated?language=en-US&page=1&region=US";
+                String urlString = TMDB_BASE_URL + "/tv/top_rated?language=en-US&page=" + page + "&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -92,9 +106,16 @@ public class MediaRepositoryTV {
      * Fetch TV shows airing today in the US
      */
     public void getAiringTodayTVShowsAsync(TVShowCallback callback) {
+        getAiringTodayTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch TV shows airing today in the US, one page at a time (pages start at 1)
+     */
+    public void getAiringTodayTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
-                String urlString = TMDB_BASE_URL + "/tv/airing_today?language=en-US&page=1&region=US";
+                String urlString = TMDB_BASE_URL + "/tv/airing_today?language=en-US&page=" + page + "&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -108,9 +129,16 @@ public class MediaRepositoryTV {
      * Fetch TV shows on the air in the US
      */
     public void getOnTheAirTVShowsAsync(TVShowCallback callback) {
+        getOnTheAirTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch TV shows on the air in the US, one page at a time (pages start at 1)
+     */
+    public void getOnTheAirTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
-                String urlString = TMDB_BASE_URL + "/tv/on_the_air?language=en-US&page=1&region=US";
+                String urlString = TMDB_BASE_URL + "/tv/on_the_air?language=en-US&page=" + page + "&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -124,9 +152,16 @@ public class MediaRepositoryTV {
      * Fetch trending TV shows (weekly)
      */
     public void getTrendingTVShowsAsync(TVShowCallback callback) {
+        getTrendingTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch trending TV shows (weekly), one page at a time (pages start at 1)
+     */
+    public void getTrendingTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
-                String urlString = TMDB_BASE_URL + "/trending/tv/week?language=en-US";
+                String urlString = TMDB_BASE_URL + "/trending/tv/week?language=en-US&page=" + page;
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -140,10 +175,17 @@ public class MediaRepositoryTV {
      * Fetch action & adventure TV shows
      */
     public void getActionAdventureTVShowsAsync(TVShowCallback callback) {
+        getActionAdventureTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch action & adventure TV shows, one page at a time (pages start at 1)
+     */
+    public void getActionAdventureTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 10759 is Action & Adventure
-                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=10759&region=US";
+                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=10759&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -157,10 +199,17 @@ public class MediaRepositoryTV {
      * Fetch comedy TV shows
      */
     public void getComedyTVShowsAsync(TVShowCallback callback) {
+        getComedyTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch comedy TV shows, one page at a time (pages start at 1)
+     */
+    public void getComedyTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 35 is Comedy
-                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=35&region=US";
+                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=35&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -174,10 +223,17 @@ public class MediaRepositoryTV {
      * Fetch drama TV shows
      */
     public void getDramaTVShowsAsync(TVShowCallback callback) {
+        getDramaTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch drama TV shows, one page at a time (pages start at 1)
+     */
+    public void getDramaTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 18 is Drama
-                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=18&region=US";
+                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=18&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -191,10 +247,17 @@ public class MediaRepositoryTV {
      * Fetch sci-fi & fantasy TV shows
      */
     public void getSciFiFantasyTVShowsAsync(TVShowCallback callback) {
+        getSciFiFantasyTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch sci-fi & fantasy TV shows, one page at a time (pages start at 1)
+     */
+    public void getSciFiFantasyTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 10765 is Sci-Fi & Fantasy
-                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=10765&region=US";
+                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=10765&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -208,10 +271,17 @@ public class MediaRepositoryTV {
      * Fetch documentary TV shows
      */
     public void getDocumentaryTVShowsAsync(TVShowCallback callback) {
+        getDocumentaryTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch documentary TV shows, one page at a time (pages start at 1)
+     */
+    public void getDocumentaryTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 99 is Documentary
-                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=99&region=US";
+                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=99&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -225,10 +295,17 @@ public class MediaRepositoryTV {
      * Fetch crime TV shows
      */
     public void getCrimeTVShowsAsync(TVShowCallback callback) {
+        getCrimeTVShowsAsync(1, callback);
+    }
+
+    /**
+     * Fetch crime TV shows, one page at a time (pages start at 1)
+     */
+    public void getCrimeTVShowsAsync(int page, TVShowCallback callback) {
         executorService.execute(() -> {
             try {
                 // Genre ID 80 is Crime
-                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=1&sort_by=popularity.desc&with_genres=80&region=US";
+                String urlString = TMDB_BASE_URL + "/discover/tv?include_adult=false&include_null_first_air_dates=false&language=en-US&page=" + page + "&sort_by=popularity.desc&with_genres=80&region=US";
                 List<MediaItems> tvShows = fetchTVShowsFromTMDB(urlString);
                 mainHandler.post(() -> callback.onSuccess(tvShows));
             } catch (Exception e) {
@@ -258,7 +335,8 @@ public class MediaRepositoryTV {
             JSONObject jsonResponse = new JSONObject(response.body());
             JSONArray results = jsonResponse.getJSONArray("results");
 
-            for (int i = 0; i < results.length() && i < 20; i++) { // Limit to 20 items
+            // One TMDB page; rows load further pages on demand
+            for (int i = 0; i < results.length(); i++) {
                 JSONObject tvShowJson = results.getJSONObject(i);
                 MediaItems tvShow = createMediaItemFromTMDB(tvShowJson);
                 if (tvShow != null) {
@@ -6,11 +6,11 @@ import android.util.Log;
 
 import com.cinestream.tvplayer.api.VideasyAPI;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.MemoryGovernor;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class MediaRepositoryVideasy {
     private static final String TAG = "MediaRepositoryVideasy";
@@ -19,7 +19,7 @@ public class MediaRepositoryVideasy {
     private Handler mainHandler;
 
     private MediaRepositoryVideasy() {
-        executorService = Executors.newFixedThreadPool(3);
+        executorService = MemoryGovernor.newThreadPool(3);
         mainHandler = new Handler(Looper.getMainLooper());
     }
 
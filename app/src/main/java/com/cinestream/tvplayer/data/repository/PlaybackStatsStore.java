@@ -0,0 +1,206 @@
+package com.cinestream.tvplayer.data.repository;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.cinestream.tvplayer.data.model.PlaybackSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local ring buffer of playback QoE sessions.
+ * Only the most recent MAX_SESSIONS rows are kept; nothing leaves the device.
+ */
+public class PlaybackStatsStore extends SQLiteOpenHelper {
+    private static final String TAG = "PlaybackStatsStore";
+    private static final String DATABASE_NAME = "playback_stats.db";
+    private static final int DATABASE_VERSION = 1;
+    private static final int MAX_SESSIONS = 200;
+
+    private static final String TABLE_SESSIONS = "sessions";
+    private static final String COL_ID = "_id";
+    private static final String COL_MEDIA_ID = "media_id";
+    private static final String COL_PROVIDER = "provider";
+    private static final String COL_STARTED_AT = "started_at";
+    private static final String COL_TTFF = "ttff_ms";
+    private static final String COL_REBUFFER_COUNT = "rebuffer_count";
+    private static final String COL_REBUFFER_MS = "rebuffer_ms";
+    private static final String COL_DROPPED_FRAMES = "dropped_frames";
+    private static final String COL_BITRATE_SWITCHES = "bitrate_switches";
+    private static final String COL_AVG_BITRATE = "avg_bitrate";
+    private static final String COL_ERRORS = "errors";
+    private static final String COL_FAILOVERS = "failovers";
+    private static final String COL_PLAY_TIME_MS = "play_time_ms";
+
+    private static PlaybackStatsStore instance;
+    private final ExecutorService executorService;
+    private final Handler mainHandler;
+
+    public interface StatsCallback<T> {
+        void onSuccess(T result);
+        void onError(String error);
+    }
+
+    /**
+     * Aggregated QoE numbers for one provider
+     */
+    public static class ProviderSummary {
+        public String provider;
+        public int sessions;
+        public long averageTtffMs;
+        public int rebuffers;
+        public long rebufferMs;
+        public long droppedFrames;
+        public int bitrateSwitches;
+        public int averageBitrate;
+        public int errors;
+        public int failovers;
+        public long playTimeMs;
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: %d sessions, TTFF %d ms, %d rebuffers (%.1f s), %d dropped, %d switches, %.1f Mbps, %d errors, %d failovers",
+                    provider, sessions, averageTtffMs, rebuffers, rebufferMs / 1000f, droppedFrames,
+                    bitrateSwitches, averageBitrate / 1000000f, errors, failovers);
+        }
+    }
+
+    private PlaybackStatsStore(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+        // Single thread keeps inserts and trims ordered
+        this.executorService = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static synchronized PlaybackStatsStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new PlaybackStatsStore(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_SESSIONS + " (" +
+                COL_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                COL_MEDIA_ID + " TEXT, " +
+                COL_PROVIDER + " TEXT, " +
+                COL_STARTED_AT + " INTEGER, " +
+                COL_TTFF + " INTEGER, " +
+                COL_REBUFFER_COUNT + " INTEGER, " +
+                COL_REBUFFER_MS + " INTEGER, " +
+                COL_DROPPED_FRAMES + " INTEGER, " +
+                COL_BITRATE_SWITCHES + " INTEGER, " +
+                COL_AVG_BITRATE + " INTEGER, " +
+                COL_ERRORS + " INTEGER, " +
+                COL_FAILOVERS + " INTEGER, " +
+                COL_PLAY_TIME_MS + " INTEGER)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SESSIONS);
+        onCreate(db);
+    }
+
+    /**
+     * Store a finished session and drop the oldest rows beyond MAX_SESSIONS
+     */
+    public void recordSession(PlaybackSession session) {
+        executorService.execute(() -> {
+            try {
+                ContentValues values = new ContentValues();
+                values.put(COL_MEDIA_ID, session.getMediaId());
+                values.put(COL_PROVIDER, session.getProvider());
+                values.put(COL_STARTED_AT, session.getStartedAt());
+                values.put(COL_TTFF, session.getTimeToFirstFrameMs());
+                values.put(COL_REBUFFER_COUNT, session.getRebufferCount());
+                values.put(COL_REBUFFER_MS, session.getRebufferDurationMs());
+                values.put(COL_DROPPED_FRAMES, session.getDroppedFrames());
+                values.put(COL_BITRATE_SWITCHES, session.getBitrateSwitches());
+                values.put(COL_AVG_BITRATE, session.getAverageBitrate());
+                values.put(COL_ERRORS, session.getErrorCount());
+                values.put(COL_FAILOVERS, session.getFailoverCount());
+                values.put(COL_PLAY_TIME_MS, session.getPlayTimeMs());
+
+                SQLiteDatabase db = getWritableDatabase();
+                long id = db.insert(TABLE_SESSIONS, null, values);
+                if (id > MAX_SESSIONS) {
+                    db.delete(TABLE_SESSIONS, COL_ID + " <= ?",
+                            new String[]{String.valueOf(id - MAX_SESSIONS)});
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error recording playback session", e);
+            }
+        });
+    }
+
+    /**
+     * Per-provider summary of the stored sessions, busiest provider first
+     */
+    public void getProviderSummaries(StatsCallback<List<ProviderSummary>> callback) {
+        executorService.execute(() -> {
+            List<ProviderSummary> summaries = new ArrayList<>();
+            Cursor cursor = null;
+            try {
+                // TTFF of -1 means the first frame never arrived, so it is left out of the average
+                cursor = getReadableDatabase().rawQuery("SELECT " +
+                        COL_PROVIDER + ", COUNT(*), " +
+                        "AVG(CASE WHEN " + COL_TTFF + " >= 0 THEN " + COL_TTFF + " END), " +
+                        "SUM(" + COL_REBUFFER_COUNT + "), SUM(" + COL_REBUFFER_MS + "), " +
+                        "SUM(" + COL_DROPPED_FRAMES + "), SUM(" + COL_BITRATE_SWITCHES + "), " +
+                        "AVG(CASE WHEN " + COL_AVG_BITRATE + " > 0 THEN " + COL_AVG_BITRATE + " END), " +
+                        "SUM(" + COL_ERRORS + "), SUM(" + COL_FAILOVERS + "), SUM(" + COL_PLAY_TIME_MS + ") " +
+                        "FROM " + TABLE_SESSIONS + " GROUP BY " + COL_PROVIDER +
+                        " ORDER BY COUNT(*) DESC", null);
+                while (cursor.moveToNext()) {
+                    ProviderSummary summary = new ProviderSummary();
+                    summary.provider = cursor.isNull(0) ? "Unknown" : cursor.getString(0);
+                    summary.sessions = cursor.getInt(1);
+                    summary.averageTtffMs = cursor.isNull(2) ? 0 : cursor.getLong(2);
+                    summary.rebuffers = cursor.getInt(3);
+                    summary.rebufferMs = cursor.getLong(4);
+                    summary.droppedFrames = cursor.getLong(5);
+                    summary.bitrateSwitches = cursor.getInt(6);
+                    summary.averageBitrate = cursor.isNull(7) ? 0 : cursor.getInt(7);
+                    summary.errors = cursor.getInt(8);
+                    summary.failovers = cursor.getInt(9);
+                    summary.playTimeMs = cursor.getLong(10);
+                    summaries.add(summary);
+                }
+                mainHandler.post(() -> callback.onSuccess(summaries));
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading playback stats", e);
+                mainHandler.post(() -> callback.onError(e.getMessage()));
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove all recorded sessions
+     */
+    public void clear() {
+        executorService.execute(() -> {
+            try {
+                getWritableDatabase().delete(TABLE_SESSIONS, null, null);
+            } catch (Exception e) {
+                Log.e(TAG, "Error clearing playback stats", e);
+            }
+        });
+    }
+}
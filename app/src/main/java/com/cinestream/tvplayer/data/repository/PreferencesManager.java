@@ -1,47 +1,26 @@
 package com.cinestream.tvplayer.data.repository;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.util.Log;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
- * Manages app-wide preferences and settings
+ * Manages app-wide preferences and settings.
+ * Thin facade over SettingsStore: reads come from the in-memory snapshot, writes are batched there.
  */
 public class PreferencesManager {
     private static final String TAG = "PreferencesManager";
-    private static final String PREF_NAME = "CineStreamTV_Preferences";
-    
-    // Preference keys
-    private static final String KEY_VIDEO_QUALITY = "video_quality";
-    private static final String KEY_SUBTITLE_LANGUAGE = "subtitle_language";
-    private static final String KEY_DARK_THEME = "dark_theme";
-    private static final String KEY_AUTO_QUALITY = "auto_quality";
-    private static final String KEY_SEARCH_HISTORY = "search_history";
-    private static final String KEY_CACHE_SIZE = "cache_size";
-    private static final String KEY_FIRST_LAUNCH = "first_launch";
-    private static final String KEY_VOICE_SEARCH_ENABLED = "voice_search_enabled";
-    private static final String KEY_PLAYBACK_BUFFER_SIZE = "playback_buffer_size";
-    
-    // Default values
-    private static final String DEFAULT_VIDEO_QUALITY = "Auto";
-    private static final String DEFAULT_SUBTITLE_LANGUAGE = "en";
-    private static final boolean DEFAULT_DARK_THEME = true;
-    private static final boolean DEFAULT_AUTO_QUALITY = true;
-    private static final boolean DEFAULT_VOICE_SEARCH_ENABLED = true;
-    private static final int DEFAULT_BUFFER_SIZE = 10; // 10MB
-    
+    private static final int MAX_SEARCH_HISTORY = 10;
+
     private static PreferencesManager instance;
-    private final SharedPreferences preferences;
+    private final SettingsStore settingsStore;
     private final Context context;
     
     private PreferencesManager(Context context) {
         this.context = context.getApplicationContext();
-        this.preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.settingsStore = SettingsStore.getInstance(context);
     }
     
     public static synchronized PreferencesManager getInstance(Context context) {
@@ -50,50 +29,60 @@ public class PreferencesManager {
         }
         return instance;
     }
+
+    /**
+     * Snapshot of every setting, for screens that read several values at once
+     */
+    public SettingsStore.Settings getSettings() {
+        return settingsStore.get();
+    }
+
+    public SettingsStore getSettingsStore() {
+        return settingsStore;
+    }
     
     // Video Quality Settings
     public String getVideoQuality() {
-        return preferences.getString(KEY_VIDEO_QUALITY, DEFAULT_VIDEO_QUALITY);
+        return settingsStore.get().getVideoQuality();
     }
     
     public void setVideoQuality(String quality) {
-        preferences.edit().putString(KEY_VIDEO_QUALITY, quality).apply();
+        settingsStore.edit().setVideoQuality(quality).apply();
         Log.d(TAG, "Video quality set to: " + quality);
     }
     
     public boolean isAutoQualityEnabled() {
-        return preferences.getBoolean(KEY_AUTO_QUALITY, DEFAULT_AUTO_QUALITY);
+        return settingsStore.get().isAutoQualityEnabled();
     }
     
     public void setAutoQualityEnabled(boolean enabled) {
-        preferences.edit().putBoolean(KEY_AUTO_QUALITY, enabled).apply();
+        settingsStore.edit().setAutoQualityEnabled(enabled).apply();
         Log.d(TAG, "Auto quality " + (enabled ? "enabled" : "disabled"));
     }
     
     // Subtitle Settings
     public String getSubtitleLanguage() {
-        return preferences.getString(KEY_SUBTITLE_LANGUAGE, DEFAULT_SUBTITLE_LANGUAGE);
+        return settingsStore.get().getSubtitleLanguage();
     }
     
     public void setSubtitleLanguage(String languageCode) {
-        preferences.edit().putString(KEY_SUBTITLE_LANGUAGE, languageCode).apply();
+        settingsStore.edit().setSubtitleLanguage(languageCode).apply();
         Log.d(TAG, "Subtitle language set to: " + languageCode);
     }
     
     // Theme Settings
     public boolean isDarkThemeEnabled() {
-        return preferences.getBoolean(KEY_DARK_THEME, DEFAULT_DARK_THEME);
+        return settingsStore.get().isDarkThemeEnabled();
     }
     
     public void setDarkThemeEnabled(boolean enabled) {
-        preferences.edit().putBoolean(KEY_DARK_THEME, enabled).apply();
+        settingsStore.edit().setDarkThemeEnabled(enabled).apply();
         Log.d(TAG, "Dark theme " + (enabled ? "enabled" : "disabled"));
     }
     
     // Search History
     public List<String> getSearchHistory() {
-        Set<String> historySet = preferences.getStringSet(KEY_SEARCH_HISTORY, new HashSet<>());
-        return new ArrayList<>(historySet);
+        return new ArrayList<>(settingsStore.get().getSearchHistory());
     }
     
     public void addToSearchHistory(String query) {
@@ -101,100 +90,80 @@ public class PreferencesManager {
             return;
         }
         
-        Set<String> historySet = new HashSet<>(getSearchHistory());
-        
-        // Remove if already exists (to move to front)
-        historySet.remove(query);
-        
-        // Add to front
-        historySet.add(query);
-        
-        // Keep only last 10 items
-        List<String> historyList = new ArrayList<>(historySet);
-        if (historyList.size() > 10) {
-            historyList = historyList.subList(0, 10);
-        }
-        
-        preferences.edit().putStringSet(KEY_SEARCH_HISTORY, new HashSet<>(historyList)).apply();
+        settingsStore.edit().addToSearchHistory(query, MAX_SEARCH_HISTORY).apply();
         Log.d(TAG, "Added to search history: " + query);
     }
     
     public void clearSearchHistory() {
-        preferences.edit().remove(KEY_SEARCH_HISTORY).apply();
+        settingsStore.edit().clearSearchHistory().apply();
         Log.d(TAG, "Search history cleared");
     }
     
     public int getSearchHistoryCount() {
-        return getSearchHistory().size();
+        return settingsStore.get().getSearchHistory().size();
     }
     
     // Voice Search Settings
     public boolean isVoiceSearchEnabled() {
-        return preferences.getBoolean(KEY_VOICE_SEARCH_ENABLED, DEFAULT_VOICE_SEARCH_ENABLED);
+        return settingsStore.get().isVoiceSearchEnabled();
     }
     
     public void setVoiceSearchEnabled(boolean enabled) {
-        preferences.edit().putBoolean(KEY_VOICE_SEARCH_ENABLED, enabled).apply();
+        settingsStore.edit().setVoiceSearchEnabled(enabled).apply();
         Log.d(TAG, "Voice search " + (enabled ? "enabled" : "disabled"));
     }
     
     // Playback Buffer Settings
     public int getPlaybackBufferSize() {
-        return preferences.getInt(KEY_PLAYBACK_BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
+        return settingsStore.get().getPlaybackBufferSize();
     }
     
     public void setPlaybackBufferSize(int sizeMB) {
-        preferences.edit().putInt(KEY_PLAYBACK_BUFFER_SIZE, sizeMB).apply();
+        settingsStore.edit().setPlaybackBufferSize(sizeMB).apply();
         Log.d(TAG, "Playback buffer size set to: " + sizeMB + "MB");
     }
     
     // Cache Management
     public void setCacheSize(String size) {
-        preferences.edit().putString(KEY_CACHE_SIZE, size).apply();
+        settingsStore.edit().setCacheSize(size).apply();
     }
     
     public String getCacheSize() {
-        return preferences.getString(KEY_CACHE_SIZE, "0 MB");
+        return settingsStore.get().getCacheSize();
     }
     
     public void clearAllPreferences() {
-        preferences.edit().clear().apply();
+        settingsStore.edit().clear().apply();
         Log.d(TAG, "All preferences cleared");
     }
     
     // First Launch Check
     public boolean isFirstLaunch() {
-        return preferences.getBoolean(KEY_FIRST_LAUNCH, true);
+        return settingsStore.get().isFirstLaunch();
     }
     
     public void setFirstLaunchComplete() {
-        preferences.edit().putBoolean(KEY_FIRST_LAUNCH, false).apply();
+        settingsStore.edit().setFirstLaunch(false).apply();
     }
     
     // Get all settings as a readable string (for About screen)
     public String getAllSettingsInfo() {
+        SettingsStore.Settings settings = settingsStore.get();
         StringBuilder info = new StringBuilder();
-        info.append("Video Quality: ").append(getVideoQuality()).append("\n");
-        info.append("Auto Quality: ").append(isAutoQualityEnabled() ? "On" : "Off").append("\n");
-        info.append("Subtitle Language: ").append(getSubtitleLanguage()).append("\n");
-        info.append("Dark Theme: ").append(isDarkThemeEnabled() ? "On" : "Off").append("\n");
-        info.append("Voice Search: ").append(isVoiceSearchEnabled() ? "On" : "Off").append("\n");
-        info.append("Playback Buffer: ").append(getPlaybackBufferSize()).append("MB\n");
-        info.append("Search History: ").append(getSearchHistoryCount()).append(" items\n");
-        info.append("Cache Size: ").append(getCacheSize()).append("\n");
+        info.append("Video Quality: ").append(settings.getVideoQuality()).append("\n");
+        info.append("Auto Quality: ").append(settings.isAutoQualityEnabled() ? "On" : "Off").append("\n");
+        info.append("Subtitle Language: ").append(settings.getSubtitleLanguage()).append("\n");
+        info.append("Dark Theme: ").append(settings.isDarkThemeEnabled() ? "On" : "Off").append("\n");
+        info.append("Voice Search: ").append(settings.isVoiceSearchEnabled() ? "On" : "Off").append("\n");
+        info.append("Playback Buffer: ").append(settings.getPlaybackBufferSize()).append("MB\n");
+        info.append("Search History: ").append(settings.getSearchHistory().size()).append(" items\n");
+        info.append("Cache Size: ").append(settings.getCacheSize()).append("\n");
         return info.toString();
     }
     
     // Reset to defaults
     public void resetToDefaults() {
-        preferences.edit()
-            .putString(KEY_VIDEO_QUALITY, DEFAULT_VIDEO_QUALITY)
-            .putString(KEY_SUBTITLE_LANGUAGE, DEFAULT_SUBTITLE_LANGUAGE)
-            .putBoolean(KEY_DARK_THEME, DEFAULT_DARK_THEME)
-            .putBoolean(KEY_AUTO_QUALITY, DEFAULT_AUTO_QUALITY)
-            .putBoolean(KEY_VOICE_SEARCH_ENABLED, DEFAULT_VOICE_SEARCH_ENABLED)
-            .putInt(KEY_PLAYBACK_BUFFER_SIZE, DEFAULT_BUFFER_SIZE)
-            .apply();
+        settingsStore.edit().resetToDefaults().apply();
         Log.d(TAG, "Preferences reset to defaults");
     }
 }
\ No newline at end of file
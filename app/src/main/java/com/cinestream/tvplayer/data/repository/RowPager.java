@@ -0,0 +1,154 @@
+package com.cinestream.tvplayer.data.repository;
+
+import android.util.Log;
+
+import com.cinestream.tvplayer.data.model.MediaItems;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Grows a category row page by page as focus approaches its end.
+ * Titles already in the row are dropped from new pages, and every append produces a new list
+ * (rows are diffed by list identity). A row stops growing at MAX_ITEMS.
+ * All methods run on the main thread; the repositories deliver pages there.
+ */
+public class RowPager {
+    private static final String TAG = "RowPager";
+
+    // Load the next page once focus is this many items from the end of the row
+    public static final int PREFETCH_DISTANCE = 6;
+    // Upper bound on a row's length, so long browsing sessions don't hold unbounded lists
+    private static final int MAX_ITEMS = 200;
+    // TMDB serves at most this many pages of any list
+    private static final int MAX_PAGE = 500;
+
+    /**
+     * Fetches one page of the row from its repository
+     */
+    public interface PageFetcher {
+        void fetchPage(int page, PageCallback callback);
+    }
+
+    public interface Listener {
+        void onRowGrown(String categoryName, List<MediaItems> items);
+    }
+
+    /**
+     * Accepted by both the movie and TV repositories' paged fetchers
+     */
+    public abstract static class PageCallback
+            implements MediaRepository.TMDBCallback, MediaRepositoryTV.TVShowCallback {
+    }
+
+    private final String categoryName;
+    private final PageFetcher fetcher;
+    private final Listener listener;
+    private final Set<String> seenKeys = new HashSet<>();
+    private List<MediaItems> items;
+    private int nextPage = 2;
+    private boolean loading = false;
+    private boolean exhausted = false;
+    // Bumped on refresh so a page requested for the old list is ignored
+    private int generation = 0;
+
+    public RowPager(String categoryName, PageFetcher fetcher, Listener listener) {
+        this.categoryName = categoryName;
+        this.fetcher = fetcher;
+        this.listener = listener;
+    }
+
+    /**
+     * Take a freshly loaded first page. Items paged in before a refresh are kept after it,
+     * so a reload doesn't pull the row out from under the focused card.
+     *
+     * @return the row's items to show
+     */
+    public List<MediaItems> setFirstPage(List<MediaItems> firstPage) {
+        List<MediaItems> previous = items;
+        seenKeys.clear();
+        List<MediaItems> merged = new ArrayList<>();
+        appendNew(merged, firstPage);
+        if (previous != null) {
+            appendNew(merged, previous);
+        } else {
+            nextPage = 2;
+        }
+        generation++;
+        loading = false;
+        exhausted = firstPage.isEmpty() || merged.size() >= MAX_ITEMS;
+        items = merged;
+        return merged;
+    }
+
+    /**
+     * Focus moved to a card in this row
+     */
+    public void onItemFocused(int position) {
+        if (loading || exhausted || items == null || position < items.size() - PREFETCH_DISTANCE) {
+            return;
+        }
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        loading = true;
+        int page = nextPage;
+        int requestGeneration = generation;
+        Log.d(TAG, categoryName + ": loading page " + page);
+        fetcher.fetchPage(page, new PageCallback() {
+            @Override
+            public void onSuccess(List<MediaItems> pageItems) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                nextPage = page + 1;
+                if (pageItems.isEmpty() || nextPage > MAX_PAGE) {
+                    exhausted = true;
+                }
+                List<MediaItems> grown = new ArrayList<>(items);
+                int added = appendNew(grown, pageItems);
+                exhausted |= grown.size() >= MAX_ITEMS;
+                if (added > 0) {
+                    items = grown;
+                    listener.onRowGrown(categoryName, grown);
+                } else if (!exhausted) {
+                    // The whole page was already in the row; focus is still at the end, so go on
+                    loadNextPage();
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                if (requestGeneration == generation) {
+                    // Retried on the next focus change
+                    loading = false;
+                }
+                Log.w(TAG, categoryName + ": page " + page + " failed: " + error);
+            }
+        });
+    }
+
+    /**
+     * Append the items whose title isn't in the row yet, up to MAX_ITEMS
+     *
+     * @return how many were appended
+     */
+    private int appendNew(List<MediaItems> target, List<MediaItems> source) {
+        int added = 0;
+        for (MediaItems item : source) {
+            if (target.size() >= MAX_ITEMS) {
+                break;
+            }
+            String key = WatchProgressStore.keyFor(item);
+            if (key == null || seenKeys.add(key)) {
+                target.add(item);
+                added++;
+            }
+        }
+        return added;
+    }
+}
@@ -0,0 +1,519 @@
+package com.cinestream.tvplayer.data.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Single source of truth for every user setting.
+ * Values are read once in the background into an immutable Settings snapshot; readers get the
+ * snapshot from memory and writers batch changes through an Editor, which swaps the snapshot
+ * and persists it with one SharedPreferences commit.
+ * Nothing here waits on disk: until the load lands readers see the defaults, and the loaded
+ * snapshot is then published to every OnSettingsChangedListener.
+ */
+public class SettingsStore {
+    private static final String TAG = "SettingsStore";
+    private static final String PREF_NAME = "CineStreamTV_Preferences";
+    // Files merged into PREF_NAME on first load
+    private static final String LEGACY_SUBTITLE_PREFS = "subtitle_preferences";
+    private static final String LEGACY_PLAYER_PREFS = "player_preferences";
+
+    private static final String KEY_VIDEO_QUALITY = "video_quality";
+    private static final String KEY_AUTO_QUALITY = "auto_quality";
+    private static final String KEY_DARK_THEME = "dark_theme";
+    private static final String KEY_VOICE_SEARCH_ENABLED = "voice_search_enabled";
+    private static final String KEY_PLAYBACK_BUFFER_SIZE = "playback_buffer_size";
+    private static final String KEY_SEARCH_HISTORY = "search_history";
+    private static final String KEY_CACHE_SIZE = "cache_size";
+    private static final String KEY_FIRST_LAUNCH = "first_launch";
+    private static final String KEY_SUBTITLE_ENABLED = "subtitle_enabled";
+    private static final String KEY_SUBTITLE_LANGUAGE = "subtitle_language";
+    private static final String KEY_SUBTITLE_SIZE = "subtitle_size";
+    private static final String KEY_SUBTITLE_COLOR = "subtitle_color";
+    private static final String KEY_SUBTITLE_BG_COLOR = "subtitle_bg_color";
+    private static final String KEY_PLAYBACK_SPEED = "playback_speed";
+
+    public static final String DEFAULT_VIDEO_QUALITY = "Auto";
+    public static final boolean DEFAULT_AUTO_QUALITY = true;
+    public static final boolean DEFAULT_DARK_THEME = true;
+    public static final boolean DEFAULT_VOICE_SEARCH_ENABLED = true;
+    public static final int DEFAULT_BUFFER_SIZE = 10; // 10MB
+    public static final String DEFAULT_CACHE_SIZE = "0 MB";
+    public static final boolean DEFAULT_SUBTITLE_ENABLED = true;
+    public static final String DEFAULT_SUBTITLE_LANGUAGE = "en";
+    public static final int DEFAULT_SUBTITLE_SIZE = 16;
+    public static final int DEFAULT_SUBTITLE_COLOR = Color.WHITE;
+    public static final int DEFAULT_SUBTITLE_BG_COLOR = Color.TRANSPARENT;
+    public static final float DEFAULT_PLAYBACK_SPEED = 1.0f;
+
+    private static SettingsStore instance;
+    private final Context context;
+    private final ExecutorService executorService;
+    private final Handler mainHandler;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final List<OnSettingsChangedListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object writeLock = new Object();
+    private volatile Settings settings = new Builder().build();
+    private SharedPreferences preferences;
+    // Last snapshot written to disk; only touched on the executor
+    private Settings persisted = new Builder().build();
+
+    public interface OnSettingsChangedListener {
+        void onSettingsChanged(Settings settings);
+    }
+
+    private SettingsStore(Context context) {
+        this.context = context.getApplicationContext();
+        this.executorService = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        executorService.execute(this::load);
+    }
+
+    /**
+     * Returns the store and starts loading it in the background on first use
+     */
+    public static synchronized SettingsStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new SettingsStore(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Current snapshot; defaults until the initial load has finished. Screens that can open
+     * before that should also listen for the loaded snapshot.
+     */
+    public Settings get() {
+        return settings;
+    }
+
+    public boolean isLoaded() {
+        return loaded.getCount() == 0;
+    }
+
+    /**
+     * Start a batch of changes; nothing is visible or written until Editor.apply().
+     * A batch applied before the initial load is replayed on top of the loaded values.
+     */
+    public Editor edit() {
+        return new Editor();
+    }
+
+    public void addListener(OnSettingsChangedListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(OnSettingsChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void load() {
+        try {
+            preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+            migrateLegacyFiles();
+            settings = read(preferences);
+            persisted = settings;
+            Log.d(TAG, "Settings loaded");
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading settings, using defaults", e);
+        } finally {
+            loaded.countDown();
+        }
+        notifyListeners(settings);
+    }
+
+    private static Settings read(SharedPreferences prefs) {
+        Builder builder = new Builder();
+        builder.videoQuality = prefs.getString(KEY_VIDEO_QUALITY, DEFAULT_VIDEO_QUALITY);
+        builder.autoQuality = prefs.getBoolean(KEY_AUTO_QUALITY, DEFAULT_AUTO_QUALITY);
+        builder.darkTheme = prefs.getBoolean(KEY_DARK_THEME, DEFAULT_DARK_THEME);
+        builder.voiceSearchEnabled = prefs.getBoolean(KEY_VOICE_SEARCH_ENABLED, DEFAULT_VOICE_SEARCH_ENABLED);
+        builder.playbackBufferSize = prefs.getInt(KEY_PLAYBACK_BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
+        builder.searchHistory = new ArrayList<>(prefs.getStringSet(KEY_SEARCH_HISTORY, new HashSet<>()));
+        builder.cacheSize = prefs.getString(KEY_CACHE_SIZE, DEFAULT_CACHE_SIZE);
+        builder.firstLaunch = prefs.getBoolean(KEY_FIRST_LAUNCH, true);
+        builder.subtitlesEnabled = prefs.getBoolean(KEY_SUBTITLE_ENABLED, DEFAULT_SUBTITLE_ENABLED);
+        builder.subtitleLanguage = prefs.getString(KEY_SUBTITLE_LANGUAGE, DEFAULT_SUBTITLE_LANGUAGE);
+        builder.subtitleSize = prefs.getInt(KEY_SUBTITLE_SIZE, DEFAULT_SUBTITLE_SIZE);
+        builder.subtitleColor = prefs.getInt(KEY_SUBTITLE_COLOR, DEFAULT_SUBTITLE_COLOR);
+        builder.subtitleBackgroundColor = prefs.getInt(KEY_SUBTITLE_BG_COLOR, DEFAULT_SUBTITLE_BG_COLOR);
+        builder.playbackSpeed = prefs.getFloat(KEY_PLAYBACK_SPEED, DEFAULT_PLAYBACK_SPEED);
+        return builder.build();
+    }
+
+    /**
+     * Copy values from the old per-component files, keeping anything already in the main file
+     */
+    private void migrateLegacyFiles() {
+        SharedPreferences subtitlePrefs = context.getSharedPreferences(LEGACY_SUBTITLE_PREFS, Context.MODE_PRIVATE);
+        SharedPreferences playerPrefs = context.getSharedPreferences(LEGACY_PLAYER_PREFS, Context.MODE_PRIVATE);
+        SharedPreferences.Editor editor = preferences.edit();
+        boolean changed = false;
+
+        if (!subtitlePrefs.getAll().isEmpty()) {
+            if (subtitlePrefs.contains(KEY_SUBTITLE_ENABLED) && !preferences.contains(KEY_SUBTITLE_ENABLED)) {
+                editor.putBoolean(KEY_SUBTITLE_ENABLED, subtitlePrefs.getBoolean(KEY_SUBTITLE_ENABLED, DEFAULT_SUBTITLE_ENABLED));
+            }
+            if (subtitlePrefs.contains(KEY_SUBTITLE_LANGUAGE) && !preferences.contains(KEY_SUBTITLE_LANGUAGE)) {
+                editor.putString(KEY_SUBTITLE_LANGUAGE, subtitlePrefs.getString(KEY_SUBTITLE_LANGUAGE, DEFAULT_SUBTITLE_LANGUAGE));
+            }
+            if (subtitlePrefs.contains(KEY_SUBTITLE_SIZE) && !preferences.contains(KEY_SUBTITLE_SIZE)) {
+                editor.putInt(KEY_SUBTITLE_SIZE, subtitlePrefs.getInt(KEY_SUBTITLE_SIZE, DEFAULT_SUBTITLE_SIZE));
+            }
+            if (subtitlePrefs.contains(KEY_SUBTITLE_COLOR) && !preferences.contains(KEY_SUBTITLE_COLOR)) {
+                editor.putInt(KEY_SUBTITLE_COLOR, subtitlePrefs.getInt(KEY_SUBTITLE_COLOR, DEFAULT_SUBTITLE_COLOR));
+            }
+            if (subtitlePrefs.contains(KEY_SUBTITLE_BG_COLOR) && !preferences.contains(KEY_SUBTITLE_BG_COLOR)) {
+                editor.putInt(KEY_SUBTITLE_BG_COLOR, subtitlePrefs.getInt(KEY_SUBTITLE_BG_COLOR, DEFAULT_SUBTITLE_BG_COLOR));
+            }
+            subtitlePrefs.edit().clear().apply();
+            changed = true;
+        }
+
+        if (playerPrefs.contains(KEY_PLAYBACK_SPEED)) {
+            if (!preferences.contains(KEY_PLAYBACK_SPEED)) {
+                editor.putFloat(KEY_PLAYBACK_SPEED, playerPrefs.getFloat(KEY_PLAYBACK_SPEED, DEFAULT_PLAYBACK_SPEED));
+            }
+            // Positions in this file are migrated separately by WatchProgressStore
+            playerPrefs.edit().remove(KEY_PLAYBACK_SPEED).apply();
+            changed = true;
+        }
+
+        if (changed) {
+            editor.apply();
+            Log.d(TAG, "Migrated legacy subtitle and player preferences");
+        }
+    }
+
+    private void commit(List<Mutation> mutations) {
+        if (!isLoaded()) {
+            // The executor runs the load first, so this replays the batch on the loaded values
+            executorService.execute(() -> commit(mutations));
+            return;
+        }
+        Settings updated;
+        synchronized (writeLock) {
+            Builder builder = new Builder(settings);
+            for (Mutation mutation : mutations) {
+                mutation.apply(builder);
+            }
+            updated = builder.build();
+            settings = updated;
+            // Queued under the lock so snapshots reach the disk in the order they were published
+            executorService.execute(() -> persist(updated));
+        }
+        notifyListeners(updated);
+    }
+
+    private void notifyListeners(Settings updated) {
+        for (OnSettingsChangedListener listener : listeners) {
+            mainHandler.post(() -> listener.onSettingsChanged(updated));
+        }
+    }
+
+    /**
+     * Write only the keys that changed, in a single apply()
+     */
+    private void persist(Settings updated) {
+        if (preferences == null) {
+            return;
+        }
+        Settings previous = persisted;
+        persisted = updated;
+        SharedPreferences.Editor editor = preferences.edit();
+        if (!updated.videoQuality.equals(previous.videoQuality)) {
+            editor.putString(KEY_VIDEO_QUALITY, updated.videoQuality);
+        }
+        if (updated.autoQuality != previous.autoQuality) {
+            editor.putBoolean(KEY_AUTO_QUALITY, updated.autoQuality);
+        }
+        if (updated.darkTheme != previous.darkTheme) {
+            editor.putBoolean(KEY_DARK_THEME, updated.darkTheme);
+        }
+        if (updated.voiceSearchEnabled != previous.voiceSearchEnabled) {
+            editor.putBoolean(KEY_VOICE_SEARCH_ENABLED, updated.voiceSearchEnabled);
+        }
+        if (updated.playbackBufferSize != previous.playbackBufferSize) {
+            editor.putInt(KEY_PLAYBACK_BUFFER_SIZE, updated.playbackBufferSize);
+        }
+        if (!updated.searchHistory.equals(previous.searchHistory)) {
+            editor.putStringSet(KEY_SEARCH_HISTORY, new HashSet<>(updated.searchHistory));
+        }
+        if (!updated.cacheSize.equals(previous.cacheSize)) {
+            editor.putString(KEY_CACHE_SIZE, updated.cacheSize);
+        }
+        if (updated.firstLaunch != previous.firstLaunch) {
+            editor.putBoolean(KEY_FIRST_LAUNCH, updated.firstLaunch);
+        }
+        if (updated.subtitlesEnabled != previous.subtitlesEnabled) {
+            editor.putBoolean(KEY_SUBTITLE_ENABLED, updated.subtitlesEnabled);
+        }
+        if (!updated.subtitleLanguage.equals(previous.subtitleLanguage)) {
+            editor.putString(KEY_SUBTITLE_LANGUAGE, updated.subtitleLanguage);
+        }
+        if (updated.subtitleSize != previous.subtitleSize) {
+            editor.putInt(KEY_SUBTITLE_SIZE, updated.subtitleSize);
+        }
+        if (updated.subtitleColor != previous.subtitleColor) {
+            editor.putInt(KEY_SUBTITLE_COLOR, updated.subtitleColor);
+        }
+        if (updated.subtitleBackgroundColor != previous.subtitleBackgroundColor) {
+            editor.putInt(KEY_SUBTITLE_BG_COLOR, updated.subtitleBackgroundColor);
+        }
+        if (updated.playbackSpeed != previous.playbackSpeed) {
+            editor.putFloat(KEY_PLAYBACK_SPEED, updated.playbackSpeed);
+        }
+        editor.apply();
+    }
+
+    /**
+     * Immutable view of all settings at one point in time
+     */
+    public static final class Settings {
+        private final String videoQuality;
+        private final boolean autoQuality;
+        private final boolean darkTheme;
+        private final boolean voiceSearchEnabled;
+        private final int playbackBufferSize;
+        private final List<String> searchHistory;
+        private final String cacheSize;
+        private final boolean firstLaunch;
+        private final boolean subtitlesEnabled;
+        private final String subtitleLanguage;
+        private final int subtitleSize;
+        private final int subtitleColor;
+        private final int subtitleBackgroundColor;
+        private final float playbackSpeed;
+
+        private Settings(Builder builder) {
+            this.videoQuality = builder.videoQuality;
+            this.autoQuality = builder.autoQuality;
+            this.darkTheme = builder.darkTheme;
+            this.voiceSearchEnabled = builder.voiceSearchEnabled;
+            this.playbackBufferSize = builder.playbackBufferSize;
+            this.searchHistory = Collections.unmodifiableList(new ArrayList<>(builder.searchHistory));
+            this.cacheSize = builder.cacheSize;
+            this.firstLaunch = builder.firstLaunch;
+            this.subtitlesEnabled = builder.subtitlesEnabled;
+            this.subtitleLanguage = builder.subtitleLanguage;
+            this.subtitleSize = builder.subtitleSize;
+            this.subtitleColor = builder.subtitleColor;
+            this.subtitleBackgroundColor = builder.subtitleBackgroundColor;
+            this.playbackSpeed = builder.playbackSpeed;
+        }
+
+        public String getVideoQuality() { return videoQuality; }
+        public boolean isAutoQualityEnabled() { return autoQuality; }
+        public boolean isDarkThemeEnabled() { return darkTheme; }
+        public boolean isVoiceSearchEnabled() { return voiceSearchEnabled; }
+        public int getPlaybackBufferSize() { return playbackBufferSize; }
+        public List<String> getSearchHistory() { return searchHistory; }
+        public String getCacheSize() { return cacheSize; }
+        public boolean isFirstLaunch() { return firstLaunch; }
+        public boolean isSubtitlesEnabled() { return subtitlesEnabled; }
+        public String getSubtitleLanguage() { return subtitleLanguage; }
+        public int getSubtitleSize() { return subtitleSize; }
+        public int getSubtitleColor() { return subtitleColor; }
+        public int getSubtitleBackgroundColor() { return subtitleBackgroundColor; }
+        public float getPlaybackSpeed() { return playbackSpeed; }
+    }
+
+    private static final class Builder {
+        private String videoQuality = DEFAULT_VIDEO_QUALITY;
+        private boolean autoQuality = DEFAULT_AUTO_QUALITY;
+        private boolean darkTheme = DEFAULT_DARK_THEME;
+        private boolean voiceSearchEnabled = DEFAULT_VOICE_SEARCH_ENABLED;
+        private int playbackBufferSize = DEFAULT_BUFFER_SIZE;
+        private List<String> searchHistory = new ArrayList<>();
+        private String cacheSize = DEFAULT_CACHE_SIZE;
+        private boolean firstLaunch = true;
+        private boolean subtitlesEnabled = DEFAULT_SUBTITLE_ENABLED;
+        private String subtitleLanguage = DEFAULT_SUBTITLE_LANGUAGE;
+        private int subtitleSize = DEFAULT_SUBTITLE_SIZE;
+        private int subtitleColor = DEFAULT_SUBTITLE_COLOR;
+        private int subtitleBackgroundColor = DEFAULT_SUBTITLE_BG_COLOR;
+        private float playbackSpeed = DEFAULT_PLAYBACK_SPEED;
+
+        Builder() {
+        }
+
+        Builder(Settings from) {
+            videoQuality = from.videoQuality;
+            autoQuality = from.autoQuality;
+            darkTheme = from.darkTheme;
+            voiceSearchEnabled = from.voiceSearchEnabled;
+            playbackBufferSize = from.playbackBufferSize;
+            searchHistory = new ArrayList<>(from.searchHistory);
+            cacheSize = from.cacheSize;
+            firstLaunch = from.firstLaunch;
+            subtitlesEnabled = from.subtitlesEnabled;
+            subtitleLanguage = from.subtitleLanguage;
+            subtitleSize = from.subtitleSize;
+            subtitleColor = from.subtitleColor;
+            subtitleBackgroundColor = from.subtitleBackgroundColor;
+            playbackSpeed = from.playbackSpeed;
+        }
+
+        Settings build() {
+            return new Settings(this);
+        }
+
+        void copyFrom(Builder other) {
+            videoQuality = other.videoQuality;
+            autoQuality = other.autoQuality;
+            darkTheme = other.darkTheme;
+            voiceSearchEnabled = other.voiceSearchEnabled;
+            playbackBufferSize = other.playbackBufferSize;
+            searchHistory = new ArrayList<>(other.searchHistory);
+            cacheSize = other.cacheSize;
+            firstLaunch = other.firstLaunch;
+            subtitlesEnabled = other.subtitlesEnabled;
+            subtitleLanguage = other.subtitleLanguage;
+            subtitleSize = other.subtitleSize;
+            subtitleColor = other.subtitleColor;
+            subtitleBackgroundColor = other.subtitleBackgroundColor;
+            playbackSpeed = other.playbackSpeed;
+        }
+    }
+
+    /**
+     * Batched change set. Setters chain; apply() replays them on the latest snapshot
+     * under one lock, so concurrent editors never drop each other's changes.
+     */
+    public final class Editor {
+        private final List<Mutation> mutations = new ArrayList<>();
+
+        private Editor() {
+        }
+
+        public Editor setVideoQuality(String quality) {
+            mutations.add(b -> b.videoQuality = quality != null ? quality : DEFAULT_VIDEO_QUALITY);
+            return this;
+        }
+
+        public Editor setAutoQualityEnabled(boolean enabled) {
+            mutations.add(b -> b.autoQuality = enabled);
+            return this;
+        }
+
+        public Editor setDarkThemeEnabled(boolean enabled) {
+            mutations.add(b -> b.darkTheme = enabled);
+            return this;
+        }
+
+        public Editor setVoiceSearchEnabled(boolean enabled) {
+            mutations.add(b -> b.voiceSearchEnabled = enabled);
+            return this;
+        }
+
+        public Editor setPlaybackBufferSize(int sizeMB) {
+            mutations.add(b -> b.playbackBufferSize = sizeMB);
+            return this;
+        }
+
+        /**
+         * Move the query to the front of the history, keeping the most recent limit entries
+         */
+        public Editor addToSearchHistory(String query, int limit) {
+            mutations.add(b -> {
+                b.searchHistory.remove(query);
+                b.searchHistory.add(0, query);
+                while (b.searchHistory.size() > limit) {
+                    b.searchHistory.remove(b.searchHistory.size() - 1);
+                }
+            });
+            return this;
+        }
+
+        public Editor clearSearchHistory() {
+            mutations.add(b -> b.searchHistory = new ArrayList<>());
+            return this;
+        }
+
+        public Editor setCacheSize(String size) {
+            mutations.add(b -> b.cacheSize = size != null ? size : DEFAULT_CACHE_SIZE);
+            return this;
+        }
+
+        public Editor setFirstLaunch(boolean firstLaunch) {
+            mutations.add(b -> b.firstLaunch = firstLaunch);
+            return this;
+        }
+
+        public Editor setSubtitlesEnabled(boolean enabled) {
+            mutations.add(b -> b.subtitlesEnabled = enabled);
+            return this;
+        }
+
+        public Editor setSubtitleLanguage(String language) {
+            mutations.add(b -> b.subtitleLanguage = language != null ? language : DEFAULT_SUBTITLE_LANGUAGE);
+            return this;
+        }
+
+        public Editor setSubtitleSize(int size) {
+            mutations.add(b -> b.subtitleSize = size);
+            return this;
+        }
+
+        public Editor setSubtitleColor(int color) {
+            mutations.add(b -> b.subtitleColor = color);
+            return this;
+        }
+
+        public Editor setSubtitleBackgroundColor(int color) {
+            mutations.add(b -> b.subtitleBackgroundColor = color);
+            return this;
+        }
+
+        public Editor setPlaybackSpeed(float speed) {
+            mutations.add(b -> b.playbackSpeed = speed);
+            return this;
+        }
+
+        /**
+         * Every user-facing setting back to its default; history and first-launch state are kept
+         */
+        public Editor resetToDefaults() {
+            mutations.add(b -> {
+                Builder defaults = new Builder();
+                defaults.searchHistory = b.searchHistory;
+                defaults.cacheSize = b.cacheSize;
+                defaults.firstLaunch = b.firstLaunch;
+                b.copyFrom(defaults);
+            });
+            return this;
+        }
+
+        /**
+         * Everything back to its default, including history and first-launch state
+         */
+        public Editor clear() {
+            mutations.add(b -> b.copyFrom(new Builder()));
+            return this;
+        }
+
+        /**
+         * Publish the whole batch as one snapshot and one disk write
+         */
+        public void apply() {
+            commit(mutations);
+        }
+    }
+
+    private interface Mutation {
+        void apply(Builder builder);
+    }
+}
@@ -9,11 +9,11 @@ import androidx.annotation.RequiresApi;
 
 import com.cinestream.tvplayer.api.TMDBApiClient;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.MemoryGovernor;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Repository for TMDB API data with caching and async operations
@@ -28,6 +28,8 @@ public class TMDBRepository {
     // Cache for API responses (1 hour cache)
     private static final long CACHE_DURATION = 60 * 60 * 1000; // 1 hour in milliseconds
     private final List<CachedResponse> cache = new ArrayList<>();
+    // Sized by MemoryGovernor
+    private int maxCacheEntries = 20;
     
     public interface TMDBCallback<T> {
         void onSuccess(T result);
@@ -52,7 +54,7 @@ public class TMDBRepository {
     
     private TMDBRepository() {
         this.tmdbApiClient = new TMDBApiClient();
-        this.executorService = Executors.newCachedThreadPool();
+        this.executorService = MemoryGovernor.newThreadPool(4);
         this.mainHandler = new Handler(Looper.getMainLooper());
     }
     
@@ -325,9 +327,11 @@ public class TMDBRepository {
      * Get cached response by key
      */
     private CachedResponse getCachedResponse(String key) {
-        for (CachedResponse cached : cache) {
-            if (cached.endpoint.equals(key) && cached.isValid()) {
-                return cached;
+        synchronized (cache) {
+            for (CachedResponse cached : cache) {
+                if (cached.endpoint.equals(key) && cached.isValid()) {
+                    return cached;
+                }
             }
         }
         return null;
@@ -338,15 +342,17 @@ public class TMDBRepository {
      */
     @RequiresApi(api = Build.VERSION_CODES.N)
     private void cacheResponse(String key, List<MediaItems> data) {
-        // Remove old cache entry if exists
-        cache.removeIf(cached -> cached.endpoint.equals(key));
-        
-        // Add new cache entry
-        cache.add(new CachedResponse(key, data));
-        
-        // Limit cache size (keep last 20 entries)
-        if (cache.size() > 20) {
-            cache.remove(0);
+        synchronized (cache) {
+            // Remove old cache entry if exists
+            cache.removeIf(cached -> cached.endpoint.equals(key));
+
+            // Add new cache entry
+            cache.add(new CachedResponse(key, data));
+
+            // Limit cache size (keep the most recent entries)
+            while (cache.size() > maxCacheEntries) {
+                cache.remove(0);
+            }
         }
         
         Log.d(TAG, "Cached response for: " + key + " (" + data.size() + " items)");
@@ -358,14 +364,17 @@ public class TMDBRepository {
     public void getCacheStats(TMDBCallback<String> callback) {
         mainHandler.post(() -> {
             int validEntries = 0;
-            int totalEntries = cache.size();
+            int totalEntries;
             long oldestEntry = Long.MAX_VALUE;
-            
-            for (CachedResponse cached : cache) {
-                if (cached.isValid()) {
-                    validEntries++;
+
+            synchronized (cache) {
+                totalEntries = cache.size();
+                for (CachedResponse cached : cache) {
+                    if (cached.isValid()) {
+                        validEntries++;
+                    }
+                    oldestEntry = Math.min(oldestEntry, cached.timestamp);
                 }
-                oldestEntry = Math.min(oldestEntry, cached.timestamp);
             }
             
             String stats = String.format("Cache: %d/%d entries valid, oldest: %d", 
@@ -378,7 +387,31 @@ public class TMDBRepository {
      * Clear all cached data
      */
     public void clearCache() {
-        cache.clear();
+        synchronized (cache) {
+            cache.clear();
+        }
         Log.d(TAG, "Cache cleared");
     }
+
+    /**
+     * Set how many responses are kept
+     */
+    public void setMaxCacheEntries(int maxEntries) {
+        synchronized (cache) {
+            maxCacheEntries = maxEntries;
+        }
+        trimCache(maxEntries);
+    }
+
+    /**
+     * Drop the oldest responses until at most maxEntries remain
+     */
+    public void trimCache(int maxEntries) {
+        synchronized (cache) {
+            while (cache.size() > maxEntries) {
+                cache.remove(0);
+            }
+        }
+        Log.d(TAG, "Cache trimmed to " + maxEntries + " entries");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,395 @@
+package com.cinestream.tvplayer.data.repository;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.data.model.WatchProgress;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Watch progress backed by SQLite.
+ * Position updates are coalesced in memory (latest value per title wins) and written
+ * in one transaction every FLUSH_INTERVAL_MS, or immediately via flush() when playback pauses.
+ */
+public class WatchProgressStore extends SQLiteOpenHelper {
+    private static final String TAG = "WatchProgressStore";
+    private static final String DATABASE_NAME = "watch_progress.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final long FLUSH_INTERVAL_MS = 30 * 1000;
+    // Positions below this are not worth resuming from
+    private static final long MIN_RESUME_MS = 10 * 1000;
+    // Titles watched past this fraction count as finished
+    private static final float FINISHED_FRACTION = 0.95f;
+
+    private static final String LEGACY_PREFS_NAME = "player_preferences";
+    private static final String LEGACY_KEY_PREFIX = "playback_position_";
+
+    private static final String TABLE_PROGRESS = "watch_progress";
+    private static final String COL_MEDIA_KEY = "media_key";
+    private static final String COL_TMDB_ID = "tmdb_id";
+    private static final String COL_MEDIA_TYPE = "media_type";
+    private static final String COL_TITLE = "title";
+    private static final String COL_POSTER_URL = "poster_url";
+    private static final String COL_SEASON = "season";
+    private static final String COL_EPISODE = "episode";
+    private static final String COL_POSITION_MS = "position_ms";
+    private static final String COL_DURATION_MS = "duration_ms";
+    private static final String COL_UPDATED_AT = "updated_at";
+
+    private static WatchProgressStore instance;
+    private final ExecutorService executorService;
+    private final Handler mainHandler;
+    private final Map<String, WatchProgress> pendingUpdates = new LinkedHashMap<>();
+    private final Runnable flushRunnable = this::flush;
+    private boolean flushScheduled = false;
+
+    public interface ProgressCallback<T> {
+        void onSuccess(T result);
+        void onError(String error);
+    }
+
+    private WatchProgressStore(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+        // Single thread keeps flushes and reads ordered
+        this.executorService = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+
+        Context appContext = context.getApplicationContext();
+        executorService.execute(() -> migrateLegacyPositions(appContext));
+    }
+
+    public static synchronized WatchProgressStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new WatchProgressStore(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_PROGRESS + " (" +
+                COL_MEDIA_KEY + " TEXT PRIMARY KEY, " +
+                COL_TMDB_ID + " TEXT, " +
+                COL_MEDIA_TYPE + " TEXT, " +
+                COL_TITLE + " TEXT, " +
+                COL_POSTER_URL + " TEXT, " +
+                COL_SEASON + " TEXT, " +
+                COL_EPISODE + " TEXT, " +
+                COL_POSITION_MS + " INTEGER, " +
+                COL_DURATION_MS + " INTEGER, " +
+                COL_UPDATED_AT + " INTEGER)");
+        db.execSQL("CREATE INDEX idx_progress_updated ON " + TABLE_PROGRESS + " (" + COL_UPDATED_AT + " DESC)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_PROGRESS);
+        onCreate(db);
+    }
+
+    /**
+     * Stable key for a movie or a single episode
+     */
+    public static String keyFor(MediaItems mediaItem) {
+        if (mediaItem.getTmdbId() == null || mediaItem.getTmdbId().isEmpty()) {
+            return mediaItem.getId();
+        }
+        if ("tv".equals(mediaItem.getMediaType())) {
+            return "tv:" + mediaItem.getTmdbId() + ":" + mediaItem.getSeason() + ":" + mediaItem.getEpisode();
+        }
+        return "movie:" + mediaItem.getTmdbId();
+    }
+
+    /**
+     * Record the current position; only kept in memory until the next flush
+     */
+    public void updateProgress(MediaItems mediaItem, long positionMs, long durationMs) {
+        String key = keyFor(mediaItem);
+        if (key == null) {
+            return;
+        }
+        WatchProgress progress = progressOf(mediaItem, key, positionMs, durationMs);
+
+        synchronized (pendingUpdates) {
+            pendingUpdates.put(key, progress);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                mainHandler.postDelayed(flushRunnable, FLUSH_INTERVAL_MS);
+            }
+        }
+    }
+
+    /**
+     * Write all pending updates in a single transaction
+     */
+    public void flush() {
+        final List<WatchProgress> batch;
+        synchronized (pendingUpdates) {
+            mainHandler.removeCallbacks(flushRunnable);
+            flushScheduled = false;
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pendingUpdates.values());
+            pendingUpdates.clear();
+        }
+
+        executorService.execute(() -> {
+            SQLiteDatabase db = null;
+            try {
+                db = getWritableDatabase();
+                db.beginTransaction();
+                for (WatchProgress progress : batch) {
+                    if (isFinished(progress.getPositionMs(), progress.getDurationMs())) {
+                        db.delete(TABLE_PROGRESS, COL_MEDIA_KEY + " = ?", new String[]{progress.getMediaKey()});
+                    } else {
+                        db.insertWithOnConflict(TABLE_PROGRESS, null, toContentValues(progress),
+                                SQLiteDatabase.CONFLICT_REPLACE);
+                    }
+                }
+                db.setTransactionSuccessful();
+                Log.d(TAG, "Flushed " + batch.size() + " progress updates");
+            } catch (Exception e) {
+                Log.e(TAG, "Error flushing watch progress", e);
+            } finally {
+                if (db != null && db.inTransaction()) {
+                    db.endTransaction();
+                }
+            }
+        });
+    }
+
+    /**
+     * Forget the position of a title that was watched to the end
+     */
+    public void markFinished(MediaItems mediaItem) {
+        String key = keyFor(mediaItem);
+        if (key == null) {
+            return;
+        }
+        synchronized (pendingUpdates) {
+            pendingUpdates.remove(key);
+        }
+        executorService.execute(() -> {
+            try {
+                getWritableDatabase().delete(TABLE_PROGRESS, COL_MEDIA_KEY + " = ?", new String[]{key});
+            } catch (Exception e) {
+                Log.e(TAG, "Error clearing watch progress", e);
+            }
+        });
+    }
+
+    /**
+     * Position to resume from, or 0 when the title should start from the beginning
+     */
+    public void getResumePosition(MediaItems mediaItem, ProgressCallback<Long> callback) {
+        String key = keyFor(mediaItem);
+        if (key == null) {
+            mainHandler.post(() -> callback.onSuccess(0L));
+            return;
+        }
+
+        WatchProgress pending;
+        synchronized (pendingUpdates) {
+            pending = pendingUpdates.get(key);
+        }
+        if (pending != null) {
+            long position = resumePositionOf(pending.getPositionMs(), pending.getDurationMs());
+            mainHandler.post(() -> callback.onSuccess(position));
+            return;
+        }
+
+        executorService.execute(() -> {
+            Cursor cursor = null;
+            try {
+                cursor = getReadableDatabase().query(TABLE_PROGRESS,
+                        new String[]{COL_POSITION_MS, COL_DURATION_MS},
+                        COL_MEDIA_KEY + " = ?", new String[]{key}, null, null, null);
+                long position = 0;
+                if (cursor.moveToFirst()) {
+                    position = resumePositionOf(cursor.getLong(0), cursor.getLong(1));
+                } else if (mediaItem.getId() != null && !mediaItem.getId().equals(key)) {
+                    position = adoptLegacyPosition(mediaItem, key);
+                }
+                final long result = position;
+                mainHandler.post(() -> callback.onSuccess(result));
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading resume position", e);
+                mainHandler.post(() -> callback.onError(e.getMessage()));
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Most recently watched unfinished titles, newest first
+     */
+    public void getContinueWatching(int limit, ProgressCallback<List<WatchProgress>> callback) {
+        // Queued behind the flush on the same executor, so pending updates are included
+        flush();
+        executorService.execute(() -> {
+            List<WatchProgress> results = new ArrayList<>();
+            Cursor cursor = null;
+            try {
+                cursor = getReadableDatabase().query(TABLE_PROGRESS, null,
+                        COL_POSITION_MS + " >= ? AND " + COL_TMDB_ID + " IS NOT NULL",
+                        new String[]{String.valueOf(MIN_RESUME_MS)},
+                        null, null, COL_UPDATED_AT + " DESC", String.valueOf(limit));
+                while (cursor.moveToNext()) {
+                    results.add(fromCursor(cursor));
+                }
+                mainHandler.post(() -> callback.onSuccess(results));
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading continue watching", e);
+                mainHandler.post(() -> callback.onError(e.getMessage()));
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        });
+    }
+
+    private static boolean isFinished(long positionMs, long durationMs) {
+        return durationMs > 0 && positionMs >= durationMs * FINISHED_FRACTION;
+    }
+
+    private static long resumePositionOf(long positionMs, long durationMs) {
+        if (positionMs < MIN_RESUME_MS || isFinished(positionMs, durationMs)) {
+            return 0;
+        }
+        return positionMs;
+    }
+
+    private static WatchProgress progressOf(MediaItems mediaItem, String key, long positionMs, long durationMs) {
+        WatchProgress progress = new WatchProgress();
+        progress.setMediaKey(key);
+        progress.setTmdbId(mediaItem.getTmdbId());
+        progress.setMediaType(mediaItem.getMediaType());
+        progress.setTitle(mediaItem.getTitle());
+        progress.setPosterUrl(mediaItem.getPosterUrl());
+        progress.setSeason(mediaItem.getSeason());
+        progress.setEpisode(mediaItem.getEpisode());
+        progress.setPositionMs(positionMs);
+        progress.setDurationMs(durationMs);
+        progress.setUpdatedAt(System.currentTimeMillis());
+        return progress;
+    }
+
+    private ContentValues toContentValues(WatchProgress progress) {
+        ContentValues values = new ContentValues();
+        values.put(COL_MEDIA_KEY, progress.getMediaKey());
+        values.put(COL_TMDB_ID, progress.getTmdbId());
+        values.put(COL_MEDIA_TYPE, progress.getMediaType());
+        values.put(COL_TITLE, progress.getTitle());
+        values.put(COL_POSTER_URL, progress.getPosterUrl());
+        values.put(COL_SEASON, progress.getSeason());
+        values.put(COL_EPISODE, progress.getEpisode());
+        values.put(COL_POSITION_MS, progress.getPositionMs());
+        values.put(COL_DURATION_MS, progress.getDurationMs());
+        values.put(COL_UPDATED_AT, progress.getUpdatedAt());
+        return values;
+    }
+
+    private WatchProgress fromCursor(Cursor cursor) {
+        WatchProgress progress = new WatchProgress();
+        progress.setMediaKey(cursor.getString(cursor.getColumnIndexOrThrow(COL_MEDIA_KEY)));
+        progress.setTmdbId(cursor.getString(cursor.getColumnIndexOrThrow(COL_TMDB_ID)));
+        progress.setMediaType(cursor.getString(cursor.getColumnIndexOrThrow(COL_MEDIA_TYPE)));
+        progress.setTitle(cursor.getString(cursor.getColumnIndexOrThrow(COL_TITLE)));
+        progress.setPosterUrl(cursor.getString(cursor.getColumnIndexOrThrow(COL_POSTER_URL)));
+        progress.setSeason(cursor.getString(cursor.getColumnIndexOrThrow(COL_SEASON)));
+        progress.setEpisode(cursor.getString(cursor.getColumnIndexOrThrow(COL_EPISODE)));
+        progress.setPositionMs(cursor.getLong(cursor.getColumnIndexOrThrow(COL_POSITION_MS)));
+        progress.setDurationMs(cursor.getLong(cursor.getColumnIndexOrThrow(COL_DURATION_MS)));
+        progress.setUpdatedAt(cursor.getLong(cursor.getColumnIndexOrThrow(COL_UPDATED_AT)));
+        return progress;
+    }
+
+    /**
+     * Re-key a migrated legacy row once the title it belongs to is opened. Legacy positions were
+     * saved under the item's own id with no type, season or episode, so they can only be mapped
+     * onto keyFor() keys when the full item is known. Runs on the executor.
+     */
+    private long adoptLegacyPosition(MediaItems mediaItem, String key) {
+        SQLiteDatabase db = getWritableDatabase();
+        long positionMs;
+        try (Cursor cursor = db.query(TABLE_PROGRESS, new String[]{COL_POSITION_MS},
+                COL_MEDIA_KEY + " = ? AND " + COL_TMDB_ID + " IS NULL",
+                new String[]{mediaItem.getId()}, null, null, null)) {
+            if (!cursor.moveToFirst()) {
+                return 0;
+            }
+            positionMs = cursor.getLong(0);
+        }
+        db.beginTransaction();
+        try {
+            db.insertWithOnConflict(TABLE_PROGRESS, null,
+                    toContentValues(progressOf(mediaItem, key, positionMs, 0)), SQLiteDatabase.CONFLICT_IGNORE);
+            db.delete(TABLE_PROGRESS, COL_MEDIA_KEY + " = ?", new String[]{mediaItem.getId()});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        Log.d(TAG, "Mapped legacy playback position of " + mediaItem.getId() + " to " + key);
+        return resumePositionOf(positionMs, 0);
+    }
+
+    /**
+     * Move positions saved by the old PlayerController (one preference key per title) into the table.
+     * They keep the old media id and no tmdb id until adoptLegacyPosition() maps them.
+     */
+    private void migrateLegacyPositions(Context context) {
+        SharedPreferences legacyPrefs = context.getSharedPreferences(LEGACY_PREFS_NAME, Context.MODE_PRIVATE);
+        SharedPreferences.Editor editor = legacyPrefs.edit();
+        int migrated = 0;
+        SQLiteDatabase db = null;
+        try {
+            db = getWritableDatabase();
+            db.beginTransaction();
+            for (Map.Entry<String, ?> entry : legacyPrefs.getAll().entrySet()) {
+                if (!entry.getKey().startsWith(LEGACY_KEY_PREFIX) || !(entry.getValue() instanceof Long)) {
+                    continue;
+                }
+                ContentValues values = new ContentValues();
+                values.put(COL_MEDIA_KEY, entry.getKey().substring(LEGACY_KEY_PREFIX.length()));
+                values.put(COL_POSITION_MS, (Long) entry.getValue());
+                values.put(COL_DURATION_MS, 0L);
+                values.put(COL_UPDATED_AT, 0L);
+                db.insertWithOnConflict(TABLE_PROGRESS, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+                editor.remove(entry.getKey());
+                migrated++;
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            Log.e(TAG, "Error migrating legacy playback positions", e);
+            return;
+        } finally {
+            if (db != null && db.inTransaction()) {
+                db.endTransaction();
+            }
+        }
+        if (migrated > 0) {
+            editor.apply();
+            Log.d(TAG, "Migrated " + migrated + " legacy playback positions");
+        }
+    }
+}
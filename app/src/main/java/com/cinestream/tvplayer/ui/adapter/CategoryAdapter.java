@@ -1,11 +1,14 @@
 package com.cinestream.tvplayer.ui.adapter;
 
+import android.os.Parcelable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -13,12 +16,41 @@ import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.CategorySection;
 import com.cinestream.tvplayer.data.model.MediaItems;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+
+/**
+ * Vertical list of category rows, each a horizontal carousel.
+ * All carousels share one card pool, keep their adapter across binds and
+ * remember their horizontal scroll position by category.
+ * Rows are diffed by category name in the background; a section is treated as changed when
+ * its item list is a different instance, so replace a section rather than mutating it.
+ */
 public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.CategoryViewHolder> {
+    // A screenful of cards for a few rows; enough that vertical scrolling never inflates
+    private static final int MAX_POOLED_CARDS = 30;
+    // Cards laid out ahead of time when a row is about to scroll into view
+    private static final int ROW_PREFETCH_ITEMS = 6;
 
-    private List<CategorySection> categories;
+    private final AsyncListDiffer<CategorySection> differ =
+            new AsyncListDiffer<>(this, new DiffUtil.ItemCallback<CategorySection>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull CategorySection oldItem, @NonNull CategorySection newItem) {
+                    return oldItem.getCategoryName().equals(newItem.getCategoryName());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull CategorySection oldItem, @NonNull CategorySection newItem) {
+                    return oldItem.getItems() == newItem.getItems();
+                }
+            });
     private OnItemClickListener listener;
+    private ViewPreloader viewPreloader;
+    private RecyclerView.OnScrollListener rowScrollListener;
+    private final RecyclerView.RecycledViewPool cardPool = new RecyclerView.RecycledViewPool();
+    private final Map<String, Parcelable> rowScrollStates = new HashMap<>();
 
     public interface OnItemClickListener {
         void onItemClick(MediaItems mediaItems, int categoryPosition, int itemPosition);
@@ -26,36 +58,85 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.Catego
     }
 
     public CategoryAdapter(List<CategorySection> categories) {
-        this.categories = categories;
+        setHasStableIds(true);
+        submitCategories(categories);
+        cardPool.setMaxRecycledViews(ContentCarouselAdapter.VIEW_TYPE_CARD, MAX_POOLED_CARDS);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.listener = listener;
     }
 
+    /**
+     * Rows and their cards are taken from this pool before inflating on the main thread
+     */
+    public void setViewPreloader(ViewPreloader viewPreloader) {
+        this.viewPreloader = viewPreloader;
+    }
+
+    /**
+     * Added to every row's horizontal list as it is created
+     */
+    public void setRowScrollListener(RecyclerView.OnScrollListener rowScrollListener) {
+        this.rowScrollListener = rowScrollListener;
+    }
+
+    /**
+     * Show the current rows; only rows that were added, moved or replaced are rebound
+     */
+    public void submitCategories(List<CategorySection> categories) {
+        differ.submitList(new ArrayList<>(categories));
+    }
+
+    public CategorySection getCategory(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getCategory(position).getCategoryName().hashCode();
+    }
+
     @NonNull
     @Override
     public CategoryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_category_row, parent, false);
+        View view = viewPreloader != null
+                ? viewPreloader.inflate(R.layout.item_category_row, parent)
+                : LayoutInflater.from(parent.getContext()).inflate(R.layout.item_category_row, parent, false);
         return new CategoryViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull CategoryViewHolder holder, int position) {
-        CategorySection category = categories.get(position);
-        holder.bind(category, position);
+        CategorySection category = getCategory(position);
+        holder.bind(category);
+    }
+
+    // Rows give their cards back to the pool when detached, so the scroll position is
+    // captured just before that and re-applied when the row comes back
+    @Override
+    public void onViewDetachedFromWindow(@NonNull CategoryViewHolder holder) {
+        holder.saveScrollState();
+        super.onViewDetachedFromWindow(holder);
+    }
+
+    @Override
+    public void onViewAttachedToWindow(@NonNull CategoryViewHolder holder) {
+        super.onViewAttachedToWindow(holder);
+        holder.restoreScrollState();
     }
 
     @Override
     public int getItemCount() {
-        return categories != null ? categories.size() : 0;
+        return differ.getCurrentList().size();
     }
 
     public class CategoryViewHolder extends RecyclerView.ViewHolder {
         private TextView categoryTitle;
         private RecyclerView itemsRecyclerView;
-        private ContentCarouselAdapter contentAdapter;
+        private final LinearLayoutManager layoutManager;
+        private final ContentCarouselAdapter contentAdapter;
+        private String boundCategory;
 
         public CategoryViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -63,38 +144,74 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.Catego
             itemsRecyclerView = itemView.findViewById(R.id.itemsRecyclerView);
 
             // Setup horizontal RecyclerView
-            LinearLayoutManager layoutManager = new LinearLayoutManager(
+            layoutManager = new LinearLayoutManager(
                     itemView.getContext(),
                     LinearLayoutManager.HORIZONTAL,
                     false
             );
+            layoutManager.setInitialPrefetchItemCount(ROW_PREFETCH_ITEMS);
+            // Return cards to the shared pool when the row leaves the screen
+            layoutManager.setRecycleChildrenOnDetach(true);
             itemsRecyclerView.setLayoutManager(layoutManager);
             itemsRecyclerView.setHasFixedSize(true);
-        }
+            itemsRecyclerView.setRecycledViewPool(cardPool);
 
-        public void bind(CategorySection category, int categoryPosition) {
-            categoryTitle.setText(category.getCategoryName());
-
-            // Setup content adapter for this category
-            contentAdapter = new ContentCarouselAdapter(category.getItems());
-            itemsRecyclerView.setAdapter(contentAdapter);
-
-            // Set click listener
+            // One adapter per row view; binding a category only swaps its data
+            contentAdapter = new ContentCarouselAdapter(null);
+            contentAdapter.setViewPreloader(viewPreloader);
             contentAdapter.setOnItemClickListener(new ContentCarouselAdapter.OnItemClickListener() {
                 @Override
                 public void onItemClick(MediaItems mediaItems, int position) {
-                    if (listener != null) {
+                    int categoryPosition = getAdapterPosition();
+                    if (listener != null && categoryPosition != RecyclerView.NO_POSITION) {
                         listener.onItemClick(mediaItems, categoryPosition, position);
                     }
                 }
 
                 @Override
                 public void onFocusChanged(MediaItems mediaItems, int position, boolean hasFocus) {
-                    if (listener != null) {
+                    int categoryPosition = getAdapterPosition();
+                    if (listener != null && categoryPosition != RecyclerView.NO_POSITION) {
                         listener.onItemFocusChanged(mediaItems, categoryPosition, position, hasFocus);
                     }
                 }
             });
+            itemsRecyclerView.setAdapter(contentAdapter);
+            ImagePreloader.attach(itemsRecyclerView, contentAdapter);
+            if (rowScrollListener != null) {
+                itemsRecyclerView.addOnScrollListener(rowScrollListener);
+            }
+        }
+
+        public void bind(CategorySection category) {
+            String categoryName = category.getCategoryName();
+            categoryTitle.setText(categoryName);
+            if (categoryName.equals(boundCategory)) {
+                // Same row refreshed: only the cards that changed are touched
+                contentAdapter.setItems(category.getItems());
+                return;
+            }
+
+            // Another category moved into this row; keep the old one's position if it is laid out
+            saveScrollState();
+            boundCategory = categoryName;
+            contentAdapter.replaceItems(category.getItems());
+            restoreScrollState();
+        }
+
+        void saveScrollState() {
+            if (boundCategory != null && layoutManager.getChildCount() > 0) {
+                rowScrollStates.put(boundCategory, layoutManager.onSaveInstanceState());
+            }
+        }
+
+        void restoreScrollState() {
+            Parcelable scrollState = boundCategory != null ? rowScrollStates.get(boundCategory) : null;
+            if (scrollState != null) {
+                layoutManager.onRestoreInstanceState(scrollState);
+            } else {
+                layoutManager.scrollToPosition(0);
+            }
         }
     }
 }
\ No newline at end of file
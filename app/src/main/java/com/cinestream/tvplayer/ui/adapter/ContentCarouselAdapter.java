@@ -2,22 +2,34 @@ package com.cinestream.tvplayer.ui.adapter;
 
 import android.view.LayoutInflater;
 import android.view.View;
+import android.graphics.drawable.Drawable;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.TmdbImages;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public class ContentCarouselAdapter extends RecyclerView.Adapter<ContentCarouselAdapter.ContentViewHolder> {
+public class ContentCarouselAdapter extends RecyclerView.Adapter<ContentCarouselAdapter.ContentViewHolder>
+        implements ImagePreloader.Provider {
+    // Shared with the card pool of CategoryAdapter
+    public static final int VIEW_TYPE_CARD = 0;
 
-    private List<MediaItems> contentList;
+    private final AsyncListDiffer<MediaItems> differ =
+            new AsyncListDiffer<>(this, new MediaItemDiffCallback());
     private OnItemClickListener onItemClickListener;
+    private ViewPreloader viewPreloader;
     private int selectedPosition = 0;
 
     public interface OnItemClickListener {
@@ -26,13 +38,41 @@ public class ContentCarouselAdapter extends RecyclerView.Adapter<ContentCarousel
     }
 
     public ContentCarouselAdapter(List<MediaItems> contentList) {
-        this.contentList = contentList;
+        setHasStableIds(true);
+        if (contentList != null) {
+            differ.submitList(new ArrayList<>(contentList));
+        }
+    }
+
+    /**
+     * Update the row's items; the diff runs in the background and only changed cards rebind
+     */
+    public void setItems(List<MediaItems> items) {
+        differ.submitList(items != null ? new ArrayList<>(items) : null);
+    }
+
+    /**
+     * Show a different list outright, e.g. when the row now holds another category.
+     * Skips the diff so the scroll position can be restored against the new items.
+     */
+    public void replaceItems(List<MediaItems> items) {
+        selectedPosition = 0;
+        differ.submitList(null);
+        setItems(items);
+    }
+
+    public MediaItems getItem(int position) {
+        return differ.getCurrentList().get(position);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.onItemClickListener = listener;
     }
 
+    public void setViewPreloader(ViewPreloader viewPreloader) {
+        this.viewPreloader = viewPreloader;
+    }
+
     public void setSelectedPosition(int position) {
         int previousPosition = selectedPosition;
         selectedPosition = position;
@@ -40,23 +80,55 @@ public class ContentCarouselAdapter extends RecyclerView.Adapter<ContentCarousel
         notifyItemChanged(selectedPosition);
     }
 
+    @Override
+    public long getItemId(int position) {
+        return MediaItemDiffCallback.stableId(getItem(position));
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<Drawable> getPreloadRequest(@NonNull RequestManager requestManager, int position) {
+        return loadPoster(requestManager, getItem(position));
+    }
+
+    @Nullable
+    @Override
+    public ImageView getPreloadImageView(@NonNull RecyclerView.ViewHolder holder) {
+        return holder instanceof ContentViewHolder ? ((ContentViewHolder) holder).contentImage : null;
+    }
+
+    /**
+     * The card's image request; shared by bind and the preloader so both hit the same cache entry
+     */
+    private static RequestBuilder<Drawable> loadPoster(RequestManager requestManager, MediaItems mediaItems) {
+        return requestManager
+                .load(TmdbImages.poster(mediaItems.getPosterUrl()))
+                .centerCrop();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_CARD;
+    }
+
     @NonNull
     @Override
     public ContentViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_content_card, parent, false);
+        View view = viewPreloader != null
+                ? viewPreloader.inflate(R.layout.item_content_card, parent)
+                : LayoutInflater.from(parent.getContext()).inflate(R.layout.item_content_card, parent, false);
         return new ContentViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ContentViewHolder holder, int position) {
-        MediaItems mediaItems = contentList.get(position);
+        MediaItems mediaItems = getItem(position);
         holder.bind(mediaItems, position);
     }
 
     @Override
     public int getItemCount() {
-        return contentList != null ? contentList.size() : 0;
+        return differ.getCurrentList().size();
     }
 
     public class ContentViewHolder extends RecyclerView.ViewHolder {
@@ -71,22 +143,20 @@ public class ContentCarouselAdapter extends RecyclerView.Adapter<ContentCarousel
 
             itemView.setOnFocusChangeListener((v, hasFocus) -> {
                 if (onItemClickListener != null && getAdapterPosition() != RecyclerView.NO_POSITION) {
-                    onItemClickListener.onFocusChanged(contentList.get(getAdapterPosition()), getAdapterPosition(), hasFocus);
+                    onItemClickListener.onFocusChanged(getItem(getAdapterPosition()), getAdapterPosition(), hasFocus);
                 }
                 updateFocusState(hasFocus);
             });
 
             itemView.setOnClickListener(v -> {
                 if (onItemClickListener != null && getAdapterPosition() != RecyclerView.NO_POSITION) {
-                    onItemClickListener.onItemClick(contentList.get(getAdapterPosition()), getAdapterPosition());
+                    onItemClickListener.onItemClick(getItem(getAdapterPosition()), getAdapterPosition());
                 }
             });
         }
 
         public void bind(MediaItems mediaItems, int position) {
-            Glide.with(itemView.getContext())
-                    .load(mediaItems.getPosterUrl())
-                    .centerCrop()
+            loadPoster(Glide.with(itemView.getContext()), mediaItems)
                     .into(contentImage);
 
             updateFocusState(position == selectedPosition);
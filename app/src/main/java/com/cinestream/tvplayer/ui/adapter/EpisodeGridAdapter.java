@@ -1,5 +1,6 @@
 package com.cinestream.tvplayer.ui.adapter;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,48 +8,132 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.Episode;
+import com.cinestream.tvplayer.util.TmdbImages;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public class EpisodeGridAdapter extends RecyclerView.Adapter<EpisodeGridAdapter.EpisodeGridViewHolder> {
+public class EpisodeGridAdapter extends RecyclerView.Adapter<EpisodeGridAdapter.EpisodeGridViewHolder>
+        implements ImagePreloader.Provider {
 
-    private List<Episode> episodes;
+    private final AsyncListDiffer<Episode> differ =
+            new AsyncListDiffer<>(this, new DiffUtil.ItemCallback<Episode>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Episode oldItem, @NonNull Episode newItem) {
+                    return stableId(oldItem) == stableId(newItem);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Episode oldItem, @NonNull Episode newItem) {
+                    return ObjectsCompat.equals(oldItem.getName(), newItem.getName())
+                            && ObjectsCompat.equals(oldItem.getStillPath(), newItem.getStillPath())
+                            && ObjectsCompat.equals(oldItem.getAirDate(), newItem.getAirDate())
+                            && oldItem.getVoteAverage() == newItem.getVoteAverage();
+                }
+            });
     private OnEpisodeClickListener listener;
+    private OnEpisodeLongClickListener longClickListener;
+    private ViewPreloader viewPreloader;
 
     public interface OnEpisodeClickListener {
         void onEpisodeClick(Episode episode);
     }
 
+    public interface OnEpisodeLongClickListener {
+        void onEpisodeLongClick(Episode episode);
+    }
+
     public EpisodeGridAdapter(List<Episode> episodes) {
-        this.episodes = episodes;
+        setHasStableIds(true);
+        setEpisodes(episodes);
+    }
+
+    /**
+     * Diffed in the background; reloading a season only rebinds episodes that changed
+     */
+    public void setEpisodes(List<Episode> episodes) {
+        differ.submitList(new ArrayList<>(episodes));
+    }
+
+    /**
+     * TMDB episode id, or season and episode number for episodes without one
+     */
+    private static long stableId(Episode episode) {
+        if (episode.getId() > 0) {
+            return episode.getId();
+        }
+        return -(episode.getSeasonNumber() * 10_000L + episode.getEpisodeNumber()) - 1;
     }
 
     public void setOnEpisodeClickListener(OnEpisodeClickListener listener) {
         this.listener = listener;
     }
 
+    public void setOnEpisodeLongClickListener(OnEpisodeLongClickListener longClickListener) {
+        this.longClickListener = longClickListener;
+    }
+
+    public void setViewPreloader(ViewPreloader viewPreloader) {
+        this.viewPreloader = viewPreloader;
+    }
+
     @NonNull
     @Override
     public EpisodeGridViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_episode_grid, parent, false);
+        View view = viewPreloader != null
+                ? viewPreloader.inflate(R.layout.item_episode_grid, parent)
+                : LayoutInflater.from(parent.getContext()).inflate(R.layout.item_episode_grid, parent, false);
         return new EpisodeGridViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull EpisodeGridViewHolder holder, int position) {
-        Episode episode = episodes.get(position);
+        Episode episode = differ.getCurrentList().get(position);
         holder.bind(episode);
     }
 
+    @Nullable
+    @Override
+    public RequestBuilder<Drawable> getPreloadRequest(@NonNull RequestManager requestManager, int position) {
+        Episode episode = differ.getCurrentList().get(position);
+        if (episode.getStillPath() == null || episode.getStillPath().isEmpty()) {
+            return null;
+        }
+        return loadStill(requestManager, episode);
+    }
+
+    @Nullable
+    @Override
+    public ImageView getPreloadImageView(@NonNull RecyclerView.ViewHolder holder) {
+        return holder instanceof EpisodeGridViewHolder ? ((EpisodeGridViewHolder) holder).episodeThumbnail : null;
+    }
+
+    private static RequestBuilder<Drawable> loadStill(RequestManager requestManager, Episode episode) {
+        return requestManager
+                .load(TmdbImages.still(episode.getStillPath()))
+                .centerCrop()
+                .placeholder(R.drawable.placeholder_episode);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableId(differ.getCurrentList().get(position));
+    }
+
     @Override
     public int getItemCount() {
-        return episodes.size();
+        return differ.getCurrentList().size();
     }
 
     class EpisodeGridViewHolder extends RecyclerView.ViewHolder {
@@ -67,8 +152,17 @@ public class EpisodeGridAdapter extends RecyclerView.Adapter<EpisodeGridAdapter.
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onEpisodeClick(episodes.get(position));
+                    listener.onEpisodeClick(differ.getCurrentList().get(position));
+                }
+            });
+
+            itemView.setOnLongClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && longClickListener != null) {
+                    longClickListener.onEpisodeLongClick(differ.getCurrentList().get(position));
+                    return true;
                 }
+                return false;
             });
 
             itemView.setFocusable(true);
@@ -91,10 +185,7 @@ public class EpisodeGridAdapter extends RecyclerView.Adapter<EpisodeGridAdapter.
 
             // Load thumbnail
             if (episode.getStillPath() != null && !episode.getStillPath().isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(episode.getStillPath())
-                        .centerCrop()
-                        .placeholder(R.drawable.placeholder_episode)
+                loadStill(Glide.with(itemView.getContext()), episode)
                         .into(episodeThumbnail);
             }
 
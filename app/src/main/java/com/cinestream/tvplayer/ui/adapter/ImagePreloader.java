@@ -0,0 +1,293 @@
+package com.cinestream.tvplayer.ui.adapter;
+
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.view.View;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the images a list is about to show into Glide's memory cache, ahead of the scroll direction.
+ * The lookahead grows with how fast the D-pad is moving through items, requests are made at the
+ * exact size the cards display so the bind is a memory-cache hit, and prefetches behind the
+ * window or for a list that left the screen are cancelled.
+ */
+public class ImagePreloader extends RecyclerView.OnScrollListener {
+    private static final String TAG = "ImagePreloader";
+
+    // Items (or grid rows) fetched ahead while idle or moving slowly
+    private static final int BASE_LOOKAHEAD = 3;
+    private static final int MAX_LOOKAHEAD = 12;
+    // How far ahead of a held D-pad to stay, in seconds of movement
+    private static final float LOOKAHEAD_SECONDS = 0.75f;
+    // Without a new item scrolled in for this long the list is treated as stopped
+    private static final long VELOCITY_TIMEOUT_MS = 400;
+    // Prefetches in flight across all lists, so they never crowd out the cards being bound
+    private static final int MAX_IN_FLIGHT = 6;
+
+    // Only touched on the main thread
+    private static int inFlightTotal = 0;
+
+    /**
+     * Supplies the request a position binds with, so the prefetch and the bind share a cache key
+     */
+    public interface Provider {
+        /**
+         * The image request for a position without its target, or null if it shows no image
+         */
+        @Nullable
+        RequestBuilder<Drawable> getPreloadRequest(@NonNull RequestManager requestManager, int position);
+
+        /**
+         * The view the image is bound into, used to measure the target size
+         */
+        @Nullable
+        ImageView getPreloadImageView(@NonNull RecyclerView.ViewHolder holder);
+    }
+
+    private final RecyclerView recyclerView;
+    private final Provider provider;
+    private final RequestManager requestManager;
+    private final Map<Integer, Target<Drawable>> inFlight = new HashMap<>();
+    private final Set<Integer> preloaded = new HashSet<>();
+
+    private int targetWidth = 0;
+    private int targetHeight = 0;
+    private int direction = 1;
+    private int lastFirstVisible = RecyclerView.NO_POSITION;
+    private long lastPositionChangeMs = 0;
+    private float rowsPerSecond = 0f;
+
+    private ImagePreloader(RecyclerView recyclerView, Provider provider) {
+        this.recyclerView = recyclerView;
+        this.provider = provider;
+        this.requestManager = Glide.with(recyclerView);
+    }
+
+    /**
+     * Start preloading for a list; its adapter must already be set
+     */
+    public static ImagePreloader attach(@NonNull RecyclerView recyclerView, @NonNull Provider provider) {
+        ImagePreloader preloader = new ImagePreloader(recyclerView, provider);
+        recyclerView.addOnScrollListener(preloader);
+        recyclerView.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                // The row scrolled off screen (or the screen closed): its prefetches are no longer useful
+                preloader.cancelAll();
+            }
+        });
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        if (adapter != null) {
+            adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+                @Override
+                public void onChanged() {
+                    preloader.reset();
+                }
+
+                @Override
+                public void onItemRangeChanged(int positionStart, int itemCount) {
+                    // Positions hold; only the changed items may now show another image
+                    for (int i = positionStart; i < positionStart + itemCount; i++) {
+                        preloader.preloaded.remove(i);
+                    }
+                }
+
+                @Override
+                public void onItemRangeInserted(int positionStart, int itemCount) {
+                    preloader.reset();
+                }
+
+                @Override
+                public void onItemRangeRemoved(int positionStart, int itemCount) {
+                    preloader.reset();
+                }
+
+                @Override
+                public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                    preloader.reset();
+                }
+            });
+        }
+        return preloader;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        // Also called with 0, 0 after every layout, which covers new data and the first frame
+        int delta = dx != 0 ? dx : dy;
+        if (delta != 0) {
+            direction = delta > 0 ? 1 : -1;
+        }
+        update();
+    }
+
+    /**
+     * Positions are no longer meaningful once the list changes; start over from the new layout
+     */
+    public void reset() {
+        cancelAll();
+        preloaded.clear();
+        lastFirstVisible = RecyclerView.NO_POSITION;
+        rowsPerSecond = 0f;
+    }
+
+    public void cancelAll() {
+        for (Target<Drawable> target : inFlight.values()) {
+            requestManager.clear(target);
+            inFlightTotal--;
+        }
+        inFlight.clear();
+    }
+
+    private void update() {
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        if (first == RecyclerView.NO_POSITION || adapter == null || !measureTarget()) {
+            return;
+        }
+        int spanCount = layoutManager instanceof GridLayoutManager
+                ? ((GridLayoutManager) layoutManager).getSpanCount() : 1;
+        trackVelocity(first, spanCount);
+
+        int lookaheadRows = Math.min(MAX_LOOKAHEAD,
+                BASE_LOOKAHEAD + Math.round(rowsPerSecond * LOOKAHEAD_SECONDS));
+        int lookahead = lookaheadRows * spanCount;
+        int from;
+        int to;
+        if (direction > 0) {
+            from = last + 1;
+            to = Math.min(adapter.getItemCount() - 1, last + lookahead);
+        } else {
+            from = Math.max(0, first - lookahead);
+            to = first - 1;
+        }
+
+        // Anything outside the window has scrolled past or is no longer ahead of the user
+        Iterator<Map.Entry<Integer, Target<Drawable>>> iterator = inFlight.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Target<Drawable>> entry = iterator.next();
+            if (entry.getKey() < from || entry.getKey() > to) {
+                requestManager.clear(entry.getValue());
+                inFlightTotal--;
+                iterator.remove();
+            }
+        }
+
+        // Nearest first, so a capped window still covers what comes into view next
+        for (int i = 0; i <= to - from && inFlightTotal < MAX_IN_FLIGHT; i++) {
+            int position = direction > 0 ? from + i : to - i;
+            if (!preloaded.contains(position) && !inFlight.containsKey(position)) {
+                preload(position);
+            }
+        }
+    }
+
+    private void preload(int position) {
+        RequestBuilder<Drawable> request = provider.getPreloadRequest(requestManager, position);
+        if (request == null) {
+            preloaded.add(position);
+            return;
+        }
+        Target<Drawable> preloadTarget = request
+                .listener(new RequestListener<Drawable>() {
+                    @Override
+                    public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                                                @NonNull Target<Drawable> target, boolean isFirstResource) {
+                        finished(position, target);
+                        return false;
+                    }
+
+                    @Override
+                    public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model,
+                                                   Target<Drawable> target, @NonNull DataSource dataSource,
+                                                   boolean isFirstResource) {
+                        finished(position, target);
+                        return false;
+                    }
+                })
+                .preload(targetWidth, targetHeight);
+        // Memory-cache hits finish inside preload(), before the target could be registered
+        if (!preloaded.contains(position)) {
+            inFlight.put(position, preloadTarget);
+            inFlightTotal++;
+        }
+    }
+
+    private void finished(int position, Target<Drawable> target) {
+        if (inFlight.get(position) == target) {
+            inFlight.remove(position);
+            inFlightTotal--;
+        }
+        preloaded.add(position);
+        // A slot freed up; keep filling the window if the list is still moving
+        recyclerView.post(this::update);
+    }
+
+    private void trackVelocity(int first, int spanCount) {
+        long now = SystemClock.uptimeMillis();
+        if (first != lastFirstVisible) {
+            if (lastFirstVisible != RecyclerView.NO_POSITION && now > lastPositionChangeMs) {
+                float rows = Math.abs(first - lastFirstVisible) / (float) spanCount;
+                float instant = rows * 1000f / (now - lastPositionChangeMs);
+                // Smoothed, as a held D-pad moves in steps
+                rowsPerSecond = rowsPerSecond * 0.5f + instant * 0.5f;
+            }
+            lastFirstVisible = first;
+            lastPositionChangeMs = now;
+        } else if (now - lastPositionChangeMs > VELOCITY_TIMEOUT_MS) {
+            rowsPerSecond = 0f;
+        }
+    }
+
+    /**
+     * Size of the bound image as Glide's view target would compute it
+     */
+    private boolean measureTarget() {
+        if (targetWidth > 0 && targetHeight > 0) {
+            return true;
+        }
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            RecyclerView.ViewHolder holder = recyclerView.getChildViewHolder(recyclerView.getChildAt(i));
+            ImageView imageView = provider.getPreloadImageView(holder);
+            if (imageView != null) {
+                int width = imageView.getWidth() - imageView.getPaddingLeft() - imageView.getPaddingRight();
+                int height = imageView.getHeight() - imageView.getPaddingTop() - imageView.getPaddingBottom();
+                if (width > 0 && height > 0) {
+                    targetWidth = width;
+                    targetHeight = height;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.cinestream.tvplayer.ui.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.ObjectsCompat;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.data.repository.WatchProgressStore;
+
+/**
+ * Identity and content comparison for MediaItems lists, used by the adapters' AsyncListDiffers.
+ * Items are the same title when their TMDB id and media type match (plus season and episode for
+ * episodes); the contents only cover what the cards actually display.
+ */
+public class MediaItemDiffCallback extends DiffUtil.ItemCallback<MediaItems> {
+
+    @Override
+    public boolean areItemsTheSame(@NonNull MediaItems oldItem, @NonNull MediaItems newItem) {
+        return stableId(oldItem) == stableId(newItem);
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull MediaItems oldItem, @NonNull MediaItems newItem) {
+        return ObjectsCompat.equals(oldItem.getTitle(), newItem.getTitle())
+                && ObjectsCompat.equals(oldItem.getPosterUrl(), newItem.getPosterUrl())
+                && ObjectsCompat.equals(oldItem.getBackgroundImageUrl(), newItem.getBackgroundImageUrl())
+                && oldItem.getYear() == newItem.getYear()
+                && oldItem.getRating() == newItem.getRating();
+    }
+
+    /**
+     * Stable id from the TMDB id; movies and shows share the id space, so the media type
+     * is folded in. Episodes carry their show's TMDB id and items without one have none, so
+     * both fall back to a hash: of the episode's watch-progress key, or of their own id or title.
+     */
+    public static long stableId(MediaItems item) {
+        String tmdbId = item.getTmdbId();
+        boolean isTv = "tv".equalsIgnoreCase(item.getMediaType());
+        if (isTv && item.getEpisode() != null && !item.getEpisode().isEmpty()) {
+            return hashedId(WatchProgressStore.keyFor(item), true);
+        }
+        if (tmdbId != null) {
+            try {
+                return Long.parseLong(tmdbId) * 2 + (isTv ? 1 : 0);
+            } catch (NumberFormatException ignored) {
+                // Fall through to the hash
+            }
+        }
+        String key = tmdbId != null ? tmdbId : item.getId() != null ? item.getId() : item.getTitle();
+        return hashedId(key, isTv);
+    }
+
+    private static long hashedId(String key, boolean isTv) {
+        // Negative so hashed ids never collide with TMDB-derived ones
+        return -1L - ((String.valueOf(key).hashCode() & 0xffffffffL) * 2 + (isTv ? 1 : 0));
+    }
+}
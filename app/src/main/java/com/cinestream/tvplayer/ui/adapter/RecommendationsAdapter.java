@@ -1,6 +1,7 @@
 package com.cinestream.tvplayer.ui.adapter;
 
 import android.content.Context;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,19 +9,26 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.TmdbImages;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class RecommendationsAdapter extends RecyclerView.Adapter<RecommendationsAdapter.ViewHolder> {
+public class RecommendationsAdapter extends RecyclerView.Adapter<RecommendationsAdapter.ViewHolder>
+        implements ImagePreloader.Provider {
 
     private Context context;
-    private List<MediaItems> items;
+    private final AsyncListDiffer<MediaItems> differ =
+            new AsyncListDiffer<>(this, new MediaItemDiffCallback());
     private OnItemClickListener listener;
 
     public interface OnItemClickListener {
@@ -29,13 +37,12 @@ public class RecommendationsAdapter extends RecyclerView.Adapter<Recommendations
 
     public RecommendationsAdapter(Context context, OnItemClickListener listener) {
         this.context = context;
-        this.items = new ArrayList<>();
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     public void setItems(List<MediaItems> items) {
-        this.items = items;
-        notifyDataSetChanged();
+        differ.submitList(new ArrayList<>(items));
     }
 
     @NonNull
@@ -48,13 +55,37 @@ public class RecommendationsAdapter extends RecyclerView.Adapter<Recommendations
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        MediaItems item = items.get(position);
+        MediaItems item = differ.getCurrentList().get(position);
         holder.bind(item, listener);
     }
 
+    @Override
+    public long getItemId(int position) {
+        return MediaItemDiffCallback.stableId(differ.getCurrentList().get(position));
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<Drawable> getPreloadRequest(@NonNull RequestManager requestManager, int position) {
+        return loadPoster(requestManager, differ.getCurrentList().get(position));
+    }
+
+    @Nullable
+    @Override
+    public ImageView getPreloadImageView(@NonNull RecyclerView.ViewHolder holder) {
+        return holder instanceof ViewHolder ? ((ViewHolder) holder).posterImageView : null;
+    }
+
+    private static RequestBuilder<Drawable> loadPoster(RequestManager requestManager, MediaItems item) {
+        return requestManager
+                .load(TmdbImages.poster(item.getPosterUrl()))
+                .centerCrop()
+                .placeholder(R.drawable.placeholder_movie);
+    }
+
     @Override
     public int getItemCount() {
-        return items.size();
+        return differ.getCurrentList().size();
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -71,10 +102,7 @@ public class RecommendationsAdapter extends RecyclerView.Adapter<Recommendations
 
         void bind(MediaItems item, OnItemClickListener listener) {
             // Load poster
-            Glide.with(itemView.getContext())
-                    .load(item.getPosterUrl())
-                    .centerCrop()
-                    .placeholder(R.drawable.placeholder_movie)
+            loadPoster(Glide.with(itemView.getContext()), item)
                     .into(posterImageView);
 
             // Set title
@@ -1,5 +1,6 @@
 package com.cinestream.tvplayer.ui.adapter;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,11 +8,16 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.TmdbImages;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,23 +25,32 @@ import java.util.List;
 /**
  * Adapter for search results display
  */
-public class SearchResultsAdapter extends RecyclerView.Adapter<SearchResultsAdapter.SearchResultViewHolder> {
+public class SearchResultsAdapter extends RecyclerView.Adapter<SearchResultsAdapter.SearchResultViewHolder>
+        implements ImagePreloader.Provider {
     
-    private List<MediaItems> results = new ArrayList<>();
+    private final AsyncListDiffer<MediaItems> differ =
+            new AsyncListDiffer<>(this, new MediaItemDiffCallback());
     private OnItemClickListener clickListener;
+    private ViewPreloader viewPreloader;
     
     public interface OnItemClickListener {
         void onItemClick(MediaItems mediaItems, int position);
     }
     
+    public void setViewPreloader(ViewPreloader viewPreloader) {
+        this.viewPreloader = viewPreloader;
+    }
+    
     public SearchResultsAdapter(List<MediaItems> results) {
-        this.results = results;
+        setHasStableIds(true);
+        differ.submitList(new ArrayList<>(results));
     }
     
+    /**
+     * Diffed in the background, so refining a query only rebinds results that changed
+     */
     public void updateResults(List<MediaItems> newResults) {
-        this.results.clear();
-        this.results.addAll(newResults);
-        notifyDataSetChanged();
+        differ.submitList(new ArrayList<>(newResults));
     }
     
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -45,20 +60,48 @@ public class SearchResultsAdapter extends RecyclerView.Adapter<SearchResultsAdap
     @NonNull
     @Override
     public SearchResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext())
-            .inflate(R.layout.item_search_result, parent, false);
+        View view = viewPreloader != null
+            ? viewPreloader.inflate(R.layout.item_search_result, parent)
+            : LayoutInflater.from(parent.getContext()).inflate(R.layout.item_search_result, parent, false);
         return new SearchResultViewHolder(view);
     }
     
     @Override
     public void onBindViewHolder(@NonNull SearchResultViewHolder holder, int position) {
-        MediaItems item = results.get(position);
+        MediaItems item = differ.getCurrentList().get(position);
         holder.bind(item, position);
     }
     
+    @Override
+    public long getItemId(int position) {
+        return MediaItemDiffCallback.stableId(differ.getCurrentList().get(position));
+    }
+    
+    @Nullable
+    @Override
+    public RequestBuilder<Drawable> getPreloadRequest(@NonNull RequestManager requestManager, int position) {
+        String imageUrl = differ.getCurrentList().get(position).getPrimaryImageUrl();
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return null;
+        }
+        return loadPoster(requestManager, imageUrl);
+    }
+    
+    @Nullable
+    @Override
+    public ImageView getPreloadImageView(@NonNull RecyclerView.ViewHolder holder) {
+        return holder instanceof SearchResultViewHolder ? ((SearchResultViewHolder) holder).posterImageView : null;
+    }
+    
+    private static RequestBuilder<Drawable> loadPoster(RequestManager requestManager, String imageUrl) {
+        return requestManager
+                .load(TmdbImages.backdrop(imageUrl))
+                .centerCrop();
+    }
+    
     @Override
     public int getItemCount() {
-        return results.size();
+        return differ.getCurrentList().size();
     }
     
     class SearchResultViewHolder extends RecyclerView.ViewHolder {
@@ -78,7 +121,7 @@ public class SearchResultsAdapter extends RecyclerView.Adapter<SearchResultsAdap
             
             itemView.setOnClickListener(v -> {
                 if (clickListener != null && getAdapterPosition() != RecyclerView.NO_POSITION) {
-                    clickListener.onItemClick(results.get(getAdapterPosition()), getAdapterPosition());
+                    clickListener.onItemClick(differ.getCurrentList().get(getAdapterPosition()), getAdapterPosition());
                 }
             });
 
@@ -99,9 +142,7 @@ public class SearchResultsAdapter extends RecyclerView.Adapter<SearchResultsAdap
             // Load poster image
             String imageUrl = item.getPrimaryImageUrl();
             if (imageUrl != null && !imageUrl.isEmpty()) {
-                Glide.with(itemView.getContext())
-                    .load(imageUrl)
-                    .centerCrop()
+                loadPoster(Glide.with(itemView.getContext()), imageUrl)
                     .into(posterImageView);
             } else {
                 posterImageView.setImageResource(R.drawable.placeholder_movie);
@@ -0,0 +1,145 @@
+package com.cinestream.tvplayer.ui.adapter;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayDeque;
+
+/**
+ * Warm pool of item views inflated off the main thread.
+ * Screens ask for a number of views per layout once their first screenful is on display;
+ * adapters take from the pool in onCreateViewHolder and only inflate synchronously when it is empty.
+ * Views are inflated one at a time, so the background work never queues up behind itself.
+ */
+public class ViewPreloader {
+    private static final String TAG = "ViewPreloader";
+
+    // Ceiling per layout, however large a screenful a screen asks for
+    private static final int MAX_POOLED_PER_LAYOUT = 40;
+
+    private final AsyncLayoutInflater asyncInflater;
+    private final LayoutInflater inflater;
+    // Only used to give inflated views margin-aware layout params; RecyclerView converts them
+    private final ViewGroup layoutParent;
+    private final SparseArray<ArrayDeque<View>> pools = new SparseArray<>();
+    private final ArrayDeque<Integer> queue = new ArrayDeque<>();
+    private int inflatingLayout = 0;
+    private boolean released = false;
+
+    public ViewPreloader(@NonNull Context context) {
+        this.asyncInflater = new AsyncLayoutInflater(context);
+        this.inflater = LayoutInflater.from(context);
+        this.layoutParent = new FrameLayout(context);
+    }
+
+    /**
+     * Keep up to count views of a layout ready, counting ones already pooled or on their way
+     */
+    public void preload(@LayoutRes int layout, int count) {
+        if (released) {
+            return;
+        }
+        int missing = Math.min(count, MAX_POOLED_PER_LAYOUT) - pool(layout).size() - pending(layout);
+        if (missing <= 0) {
+            return;
+        }
+        Log.d(TAG, "Preloading " + missing + " views of layout " + layout);
+        for (int i = 0; i < missing; i++) {
+            queue.add(layout);
+        }
+        inflateNext();
+    }
+
+    /**
+     * Run once the list has laid out its first items, i.e. after first render
+     */
+    public void whenFirstLaidOut(@NonNull RecyclerView list, @NonNull Runnable action) {
+        list.addOnLayoutChangeListener(new View.OnLayoutChangeListener() {
+            @Override
+            public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                       int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                if (list.getChildCount() == 0) {
+                    return;
+                }
+                list.removeOnLayoutChangeListener(this);
+                // Let nested lists finish their own layout pass first
+                list.post(() -> {
+                    if (!released) {
+                        action.run();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Once the list shows its first screenful, keep another screenful of its item layout ready
+     */
+    public void preloadScreenful(@NonNull RecyclerView list, @LayoutRes int layout) {
+        whenFirstLaidOut(list, () -> preload(layout, list.getChildCount()));
+    }
+
+    /**
+     * A pooled view of the layout, or a synchronously inflated one if none is ready
+     */
+    @NonNull
+    public View inflate(@LayoutRes int layout, @NonNull ViewGroup parent) {
+        View view = pool(layout).poll();
+        if (view != null) {
+            return view;
+        }
+        return inflater.inflate(layout, parent, false);
+    }
+
+    /**
+     * Drop pooled views and pending work, e.g. when the screen is destroyed
+     */
+    public void release() {
+        released = true;
+        queue.clear();
+        pools.clear();
+    }
+
+    private void inflateNext() {
+        if (inflatingLayout != 0 || released || queue.isEmpty()) {
+            return;
+        }
+        inflatingLayout = queue.poll();
+        asyncInflater.inflate(inflatingLayout, layoutParent, (view, resid, parent) -> {
+            inflatingLayout = 0;
+            if (!released) {
+                pool(resid).add(view);
+            }
+            inflateNext();
+        });
+    }
+
+    private int pending(@LayoutRes int layout) {
+        int count = inflatingLayout == layout ? 1 : 0;
+        for (int queued : queue) {
+            if (queued == layout) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private ArrayDeque<View> pool(@LayoutRes int layout) {
+        ArrayDeque<View> pool = pools.get(layout);
+        if (pool == null) {
+            pool = new ArrayDeque<>();
+            pools.put(layout, pool);
+        }
+        return pool;
+    }
+}
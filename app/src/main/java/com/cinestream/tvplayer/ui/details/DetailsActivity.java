@@ -10,18 +10,27 @@ import android.widget.RelativeLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.AppCompatButton;
 import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.offline.Download;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.data.repository.DownloadTracker;
 import com.cinestream.tvplayer.data.repository.MediaRepository;
+import com.cinestream.tvplayer.ui.adapter.ImagePreloader;
 import com.cinestream.tvplayer.ui.adapter.RecommendationsAdapter;
+import com.cinestream.tvplayer.ui.player.PlaybackStartupTrace;
 import com.cinestream.tvplayer.ui.player.PlayerActivity;
+import com.cinestream.tvplayer.ui.player.PlayerHolder;
+import com.cinestream.tvplayer.util.SubtitleCache;
+import com.cinestream.tvplayer.util.SubtitleManager;
+import com.cinestream.tvplayer.util.TmdbImages;
 
 import java.util.List;
 
@@ -41,6 +50,7 @@ public class DetailsActivity extends AppCompatActivity {
     private TextView starsTextView;
     private AppCompatButton playButton;
     private AppCompatButton favoriteButton;
+    private AppCompatButton downloadButton;
     private ProgressBar loadingProgressBar;
     private RelativeLayout loadingOverlay;
     private RecyclerView recommendationsRecyclerView;
@@ -49,6 +59,8 @@ public class DetailsActivity extends AppCompatActivity {
 
     private MediaRepository mediaRepository;
     private RecommendationsAdapter recommendationsAdapter;
+    private DownloadTracker downloadTracker;
+    private final DownloadTracker.Listener downloadListener = this::updateDownloadButton;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -63,10 +75,16 @@ public class DetailsActivity extends AppCompatActivity {
         }
 
         mediaRepository = new MediaRepository();
+        downloadTracker = DownloadTracker.getInstance(this);
+
+        // Build the shared player while the user reads the details
+        PlayerHolder.getInstance(this).prewarm();
 
         initializeViews();
         setupViews();
         setupClickListeners();
+        updateDownloadButton();
+        downloadTracker.addListener(downloadListener);
         setupRecommendations();
         loadRecommendations();
     }
@@ -84,6 +102,7 @@ public class DetailsActivity extends AppCompatActivity {
         starsTextView = findViewById(R.id.starsTextView);
         playButton = findViewById(R.id.playButton);
         favoriteButton = findViewById(R.id.favoriteButton);
+        downloadButton = findViewById(R.id.downloadButton);
         loadingProgressBar = findViewById(R.id.loadingProgressBar);
         loadingOverlay = findViewById(R.id.loadingOverlay);
         recommendationsRecyclerView = findViewById(R.id.recommendationsRecyclerView);
@@ -94,7 +113,7 @@ public class DetailsActivity extends AppCompatActivity {
     private void setupViews() {
         if (mediaItems.getBackgroundImageUrl() != null) {
             Glide.with(this)
-                    .load(mediaItems.getBackgroundImageUrl())
+                    .load(TmdbImages.backdrop(mediaItems.getBackgroundImageUrl()))
                     .centerCrop()
                     .into(backdropImageView);
         }
@@ -147,6 +166,7 @@ public class DetailsActivity extends AppCompatActivity {
             startActivity(intent);
         });
         recommendationsRecyclerView.setAdapter(recommendationsAdapter);
+        ImagePreloader.attach(recommendationsRecyclerView, recommendationsAdapter);
     }
 
     private void loadRecommendations() {
@@ -196,8 +216,15 @@ public class DetailsActivity extends AppCompatActivity {
         };
 
         playButton.setOnClickListener(v -> {
+            // A downloaded copy already has its sources and plays from disk
+            MediaItems downloaded = downloadTracker.getDownloadedItem(mediaItems);
+            if (downloaded != null) {
+                mediaItems = downloaded;
+                launchPlayer();
+                return;
+            }
             // Check if we need to fetch video sources
-            fetchVideoSources();
+            fetchVideoSources(false);
         });
         playButton.setOnFocusChangeListener(focusChangeListener);
 
@@ -207,9 +234,76 @@ public class DetailsActivity extends AppCompatActivity {
                     Toast.LENGTH_SHORT).show();
         });
         favoriteButton.setOnFocusChangeListener(focusChangeListener);
+
+        downloadButton.setOnClickListener(v -> onDownloadClicked());
+        downloadButton.setOnFocusChangeListener(focusChangeListener);
     }
 
-    private void fetchVideoSources() {
+    private void onDownloadClicked() {
+        Download download = downloadTracker.getDownload(mediaItems);
+        if (download == null || download.state == Download.STATE_FAILED) {
+            fetchVideoSources(true);
+        } else if (download.state == Download.STATE_COMPLETED) {
+            new AlertDialog.Builder(this)
+                    .setTitle("Remove download")
+                    .setMessage("Delete the downloaded copy of " + mediaItems.getTitle() + "?")
+                    .setPositiveButton("Remove", (dialog, which) -> downloadTracker.remove(mediaItems))
+                    .setNegativeButton("Cancel", null)
+                    .show();
+        } else {
+            float percent = downloadTracker.getPercentDownloaded(mediaItems);
+            String progress = percent >= 0 ? Math.round(percent) + "% downloaded" : "Download queued";
+            Toast.makeText(this, progress, Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private void updateDownloadButton() {
+        Download download = downloadTracker.getDownload(mediaItems);
+        if (download == null) {
+            downloadButton.setText("Download");
+            return;
+        }
+        switch (download.state) {
+            case Download.STATE_COMPLETED:
+                downloadButton.setText("Downloaded");
+                break;
+            case Download.STATE_DOWNLOADING:
+                downloadButton.setText("Downloading");
+                break;
+            case Download.STATE_QUEUED:
+            case Download.STATE_RESTARTING:
+                downloadButton.setText("Queued");
+                break;
+            case Download.STATE_STOPPED:
+                downloadButton.setText(download.stopReason == DownloadTracker.STOP_REASON_QUOTA
+                        ? "Storage full" : "Paused");
+                break;
+            case Download.STATE_REMOVING:
+                downloadButton.setText("Removing");
+                break;
+            default:
+                downloadButton.setText("Download");
+                break;
+        }
+    }
+
+    private void startDownload() {
+        downloadTracker.download(mediaItems, new DownloadTracker.DownloadCallback() {
+            @Override
+            public void onQueued() {
+                Toast.makeText(DetailsActivity.this,
+                        "Download started", Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(String error) {
+                Toast.makeText(DetailsActivity.this,
+                        "Download failed: " + error, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void fetchVideoSources(boolean forDownload) {
         loadingOverlay.setVisibility(View.VISIBLE);
         playButton.setEnabled(false);
 
@@ -233,11 +327,17 @@ public class DetailsActivity extends AppCompatActivity {
                         // Update current media item with video sources
                         mediaItems.setVideoSources(updatedItem.getVideoSources());
                         mediaItems.setSubtitles(updatedItem.getSubtitles());
+                        SubtitleCache.getInstance(getApplicationContext()).prefetch(
+                                new SubtitleManager(getApplicationContext()).selectInitialSubtitles(updatedItem.getSubtitles()));
 
                         Log.d(TAG, "Video sources fetched: " +
                                 mediaItems.getVideoSources().size());
 
-                        launchPlayer();
+                        if (forDownload) {
+                            startDownload();
+                        } else {
+                            launchPlayer();
+                        }
                     }
 
                     @Override
@@ -263,12 +363,15 @@ public class DetailsActivity extends AppCompatActivity {
 
         Intent intent = new Intent(this, PlayerActivity.class);
         intent.putExtra("media_item", mediaItems);
-        startActivity(intent);
+        startActivity(PlaybackStartupTrace.stamp(intent));
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (downloadTracker != null) {
+            downloadTracker.removeListener(downloadListener);
+        }
         if (mediaRepository != null) {
             mediaRepository.cleanup();
         }
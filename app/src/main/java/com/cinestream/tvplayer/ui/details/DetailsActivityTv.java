@@ -12,8 +12,10 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.OptIn;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.offline.Download;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -23,10 +25,19 @@ import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.Episode;
 import com.cinestream.tvplayer.data.model.MediaItems;
 import com.cinestream.tvplayer.data.model.Season;
+import com.cinestream.tvplayer.data.repository.DownloadTracker;
 import com.cinestream.tvplayer.data.repository.MediaRepository;
 import com.cinestream.tvplayer.ui.adapter.EpisodeGridAdapter;
+import com.cinestream.tvplayer.ui.adapter.ImagePreloader;
 import com.cinestream.tvplayer.ui.adapter.SeasonTabAdapter;
+import com.cinestream.tvplayer.ui.adapter.ViewPreloader;
+import com.cinestream.tvplayer.ui.player.PlaybackStartupTrace;
 import com.cinestream.tvplayer.ui.player.PlayerActivity;
+import com.cinestream.tvplayer.ui.player.PlayerHolder;
+import com.cinestream.tvplayer.util.FrameMonitor;
+import com.cinestream.tvplayer.util.SubtitleCache;
+import com.cinestream.tvplayer.util.SubtitleManager;
+import com.cinestream.tvplayer.util.TmdbImages;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -63,16 +74,23 @@ public class DetailsActivityTv extends AppCompatActivity {
     private List<Episode> currentEpisodes = new ArrayList<>();
     private SeasonTabAdapter seasonTabAdapter;
     private EpisodeGridAdapter episodeGridAdapter;
+    private ViewPreloader viewPreloader;
+    private FrameMonitor frameMonitor;
     private MediaRepository mediaRepository;
     private int selectedSeasonNumber = 1;
 
+    @OptIn(markerClass = UnstableApi.class)
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_details_tv);
+        frameMonitor = new FrameMonitor(this, TAG);
 
         mediaRepository = new MediaRepository();
 
+        // Build the shared player while the user browses episodes
+        PlayerHolder.getInstance(this).prewarm();
+
         // Get TV show from intent
         tvShow = getIntent().getParcelableExtra("media_item");
         if (tvShow == null) {
@@ -116,7 +134,7 @@ public class DetailsActivityTv extends AppCompatActivity {
         String bgUrl = tvShow.getPrimaryImageUrl();
         if (bgUrl != null && !bgUrl.isEmpty()) {
             Glide.with(this)
-                    .load(bgUrl)
+                    .load(TmdbImages.backdrop(bgUrl))
                     .centerCrop()
                     .into(backgroundImage);
         }
@@ -124,7 +142,7 @@ public class DetailsActivityTv extends AppCompatActivity {
         String posterUrl = tvShow.getPosterUrl();
         if (posterUrl != null && !posterUrl.isEmpty()) {
             Glide.with(this)
-                    .load(posterUrl)
+                    .load(TmdbImages.poster(posterUrl))
                     .centerCrop()
                     .into(posterImage);
         }
@@ -158,6 +176,7 @@ public class DetailsActivityTv extends AppCompatActivity {
 
         seasonTabAdapter = new SeasonTabAdapter(seasons);
         seasonTabsRecyclerView.setAdapter(seasonTabAdapter);
+        seasonTabsRecyclerView.addOnScrollListener(frameMonitor.getScrollTracker());
 
         seasonTabAdapter.setOnSeasonClickListener((season, position) -> {
             selectedSeasonNumber = season.getSeasonNumber();
@@ -170,9 +189,16 @@ public class DetailsActivityTv extends AppCompatActivity {
         episodesGridRecyclerView.setLayoutManager(gridLayoutManager);
 
         episodeGridAdapter = new EpisodeGridAdapter(currentEpisodes);
+        viewPreloader = new ViewPreloader(this);
+        episodeGridAdapter.setViewPreloader(viewPreloader);
+        viewPreloader.preloadScreenful(episodesGridRecyclerView, R.layout.item_episode_grid);
         episodesGridRecyclerView.setAdapter(episodeGridAdapter);
+        episodesGridRecyclerView.addOnScrollListener(frameMonitor.getScrollTracker());
+        ImagePreloader.attach(episodesGridRecyclerView, episodeGridAdapter);
 
         episodeGridAdapter.setOnEpisodeClickListener(this::playEpisode);
+        // Long press downloads the episode, or offers to remove an existing download
+        episodeGridAdapter.setOnEpisodeLongClickListener(this::onEpisodeLongClick);
     }
 
     private void loadTvShowDetails() {
@@ -251,7 +277,7 @@ public class DetailsActivityTv extends AppCompatActivity {
     private void loadEpisodes(int seasonNumber) {
         loadingProgress.setVisibility(View.VISIBLE);
         currentEpisodes.clear();
-        episodeGridAdapter.notifyDataSetChanged();
+        episodeGridAdapter.setEpisodes(currentEpisodes);
 
         mediaRepository.getSeasonEpisodes(tvShow.getTmdbId(), seasonNumber, new MediaRepository.EpisodesCallback() {
             @Override
@@ -260,7 +286,7 @@ public class DetailsActivityTv extends AppCompatActivity {
 
                 currentEpisodes.clear();
                 currentEpisodes.addAll(episodes);
-                episodeGridAdapter.notifyDataSetChanged();
+                episodeGridAdapter.setEpisodes(currentEpisodes);
             }
 
             @Override
@@ -272,7 +298,7 @@ public class DetailsActivityTv extends AppCompatActivity {
         });
     }
 
-    private void playEpisode(Episode episode) {
+    private MediaItems buildEpisodeMedia(Episode episode) {
         MediaItems episodeMedia = new MediaItems();
         episodeMedia.setTitle(tvShow.getTitle());
         episodeMedia.setDescription(episode.getOverview());
@@ -283,7 +309,21 @@ public class DetailsActivityTv extends AppCompatActivity {
         episodeMedia.setYear(tvShow.getYear());
         episodeMedia.setPosterUrl(episode.getStillPath());
         episodeMedia.setFromTMDB(true);
+        return episodeMedia;
+    }
 
+    @OptIn(markerClass = UnstableApi.class)
+    private void playEpisode(Episode episode) {
+        MediaItems episodeMedia = buildEpisodeMedia(episode);
+
+        // A downloaded episode already has its sources and plays from disk
+        MediaItems downloaded = DownloadTracker.getInstance(this).getDownloadedItem(episodeMedia);
+        if (downloaded != null) {
+            Intent intent = new Intent(DetailsActivityTv.this, PlayerActivity.class);
+            intent.putExtra("media_item", downloaded);
+            startActivity(PlaybackStartupTrace.stamp(intent));
+            return;
+        }
 
         String season = episodeMedia.getSeason() != null ? episodeMedia.getSeason() : "1";
         String episode1 = episodeMedia.getEpisode() != null ? episodeMedia.getEpisode() : "1";
@@ -298,13 +338,15 @@ public class DetailsActivityTv extends AppCompatActivity {
                         // Update current media item with video sources
                         episodeMedia.setVideoSources(updatedItem.getVideoSources());
                         episodeMedia.setSubtitles(updatedItem.getSubtitles());
+                        SubtitleCache.getInstance(getApplicationContext()).prefetch(
+                                new SubtitleManager(getApplicationContext()).selectInitialSubtitles(updatedItem.getSubtitles()));
 
                         Log.i(TAG, "Video sources fetched: " +
                                 episodeMedia.getVideoSources().size());
 
                         Intent intent = new Intent(DetailsActivityTv.this, PlayerActivity.class);
                         intent.putExtra("media_item", episodeMedia);
-                        startActivity(intent);
+                        startActivity(PlaybackStartupTrace.stamp(intent));
                     }
 
                     @Override
@@ -322,11 +364,78 @@ public class DetailsActivityTv extends AppCompatActivity {
 
     }
 
+    @OptIn(markerClass = UnstableApi.class)
+    private void onEpisodeLongClick(Episode episode) {
+        DownloadTracker downloadTracker = DownloadTracker.getInstance(this);
+        MediaItems episodeMedia = buildEpisodeMedia(episode);
+        Download download = downloadTracker.getDownload(episodeMedia);
+
+        if (download != null && download.state == Download.STATE_COMPLETED) {
+            new AlertDialog.Builder(this)
+                    .setTitle("Remove download")
+                    .setMessage("Delete the downloaded copy of episode " + episode.getEpisodeNumber() + "?")
+                    .setPositiveButton("Remove", (dialog, which) -> downloadTracker.remove(episodeMedia))
+                    .setNegativeButton("Cancel", null)
+                    .show();
+            return;
+        }
+        if (download != null && download.state != Download.STATE_FAILED) {
+            Toast.makeText(this, "Episode is already downloading", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        mediaRepository.fetchVideasyStreamsTV(tvShow.getTitle(), String.valueOf(tvShow.getYear()), tvShow.getTmdbId(),
+                episodeMedia.getSeason(), episodeMedia.getEpisode(),
+                new MediaRepository.VideasyCallback() {
+                    @Override
+                    public void onSuccess(MediaItems updatedItem) {
+                        episodeMedia.setVideoSources(updatedItem.getVideoSources());
+                        episodeMedia.setSubtitles(updatedItem.getSubtitles());
+                        downloadTracker.download(episodeMedia, new DownloadTracker.DownloadCallback() {
+                            @Override
+                            public void onQueued() {
+                                Toast.makeText(DetailsActivityTv.this,
+                                        "Downloading episode " + episode.getEpisodeNumber(),
+                                        Toast.LENGTH_SHORT).show();
+                            }
+
+                            @Override
+                            public void onError(String error) {
+                                Toast.makeText(DetailsActivityTv.this,
+                                        "Download failed: " + error, Toast.LENGTH_LONG).show();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        Toast.makeText(DetailsActivityTv.this,
+                                "Failed to fetch video sources: " + error,
+                                Toast.LENGTH_LONG).show();
+                    }
+                });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        frameMonitor.start();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameMonitor.stop();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
         if (mediaRepository != null) {
             mediaRepository.cleanup();
         }
+        if (viewPreloader != null) {
+            viewPreloader.release();
+        }
     }
 }
\ No newline at end of file
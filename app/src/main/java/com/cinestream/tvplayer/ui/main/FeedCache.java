@@ -0,0 +1,100 @@
+package com.cinestream.tvplayer.ui.main;
+
+import android.os.Parcelable;
+import android.os.SystemClock;
+
+import com.cinestream.tvplayer.data.model.CategorySection;
+import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.data.repository.RowPager;
+import com.cinestream.tvplayer.ui.adapter.CategoryAdapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The browse tabs' feeds, kept for as long as the main screen lives.
+ * Each tab holds its own rows, adapter, row pagers, load queue, hero and scroll position, so
+ * switching back to a tab puts it on screen as it was left. A feed is reloaded (in place, behind
+ * its cached rows) only once its last load is older than TTL_MS.
+ */
+public class FeedCache {
+    private static final String TAG = "FeedCache";
+
+    public static final String TAB_HOME = "home";
+    public static final String TAB_MOVIES = "movies";
+    public static final String TAB_TV = "tv";
+
+    // Cached rows younger than this are shown without refetching
+    private static final long TTL_MS = 10 * 60 * 1000;
+
+    /**
+     * One tab's feed. Rows loading in the background write here even while another tab is shown.
+     */
+    public static class Feed {
+        final String tab;
+        final List<CategorySection> categories = new ArrayList<>();
+        // Loads further pages of each row as focus nears its end, keyed by category name
+        final Map<String, RowPager> rowPagers = new HashMap<>();
+        // Starts row loads in viewport order, deferring the rows below the fold
+        final RowLoadScheduler rowScheduler = new RowLoadScheduler();
+        CategoryAdapter adapter;
+        MediaItems hero;
+        Parcelable scrollState;
+
+        boolean loading = false;
+        int loadedRows = 0;
+        int totalRows = 0;
+        // Elapsed realtime of the last load that produced rows; 0 if there has been none
+        private long loadedAt = 0;
+
+        Feed(String tab) {
+            this.tab = tab;
+        }
+
+        boolean isHome() {
+            return TAB_HOME.equals(tab);
+        }
+
+        /**
+         * Start counting a load of the given number of rows
+         */
+        void beginLoad(int rows) {
+            loading = true;
+            loadedRows = 0;
+            totalRows = rows;
+        }
+
+        void markLoaded() {
+            loadedAt = SystemClock.elapsedRealtime();
+        }
+
+        /**
+         * Never loaded, or loaded longer ago than the TTL
+         */
+        boolean isStale() {
+            return loadedAt == 0 || SystemClock.elapsedRealtime() - loadedAt > TTL_MS;
+        }
+    }
+
+    private final Map<String, Feed> feeds = new HashMap<>();
+
+    public Feed get(String tab) {
+        Feed feed = feeds.get(tab);
+        if (feed == null) {
+            feed = new Feed(tab);
+            feeds.put(tab, feed);
+        }
+        return feed;
+    }
+
+    /**
+     * Drop every feed's rows that haven't started loading, e.g. when the screen is destroyed
+     */
+    public void cancelLoads() {
+        for (Feed feed : feeds.values()) {
+            feed.rowScheduler.cancel();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.cinestream.tvplayer.ui.main;
+
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.request.transition.Transition;
+import com.cinestream.tvplayer.R;
+import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.TmdbImages;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the hero backdrop as focus moves across the cards.
+ * Every focus change shows a small rendition right away (usually from the memory cache, thanks
+ * to the neighbour prefetch) and replaces whatever was loading before. Only once focus has rested
+ * is the full backdrop loaded and crossfaded in, and the neighbouring cards' backdrops prefetched.
+ */
+public class HeroImageLoader {
+    private static final String TAG = "HeroImageLoader";
+
+    // Focus resting this long counts as settled
+    private static final long SETTLE_DELAY_MS = 300;
+    private static final int CROSSFADE_MS = 250;
+    // Low-res rendition size; picks TMDB's w300 (ceil(168 * 16 / 9) = 299, 169 would need 301)
+    private static final int LOW_RES_WIDTH = 300;
+    private static final int LOW_RES_HEIGHT = 168;
+    // Cards either side whose low-res backdrop is kept in memory
+    private static final int LOW_RES_NEIGHBOURS = 2;
+    // Cards either side whose full backdrop is fetched to disk
+    private static final int FULL_NEIGHBOURS = 1;
+
+    private final ImageView heroView;
+    private final RequestManager requestManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Target<?>> prefetches = new ArrayList<>();
+    // Waiting for the next backdrop to reach the screen
+    private final List<Runnable> shownCallbacks = new ArrayList<>();
+
+    private Object pendingModel;
+    private List<MediaItems> pendingNeighbours;
+
+    private final Runnable settleRunnable = this::onSettled;
+
+    private final RequestListener<Drawable> shownListener = new RequestListener<Drawable>() {
+        @Override
+        public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                                    @NonNull Target<Drawable> target, boolean isFirstResource) {
+            notifyShown();
+            return false;
+        }
+
+        @Override
+        public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model,
+                                       Target<Drawable> target, @NonNull DataSource dataSource,
+                                       boolean isFirstResource) {
+            notifyShown();
+            return false;
+        }
+    };
+
+    public HeroImageLoader(@NonNull ImageView heroView) {
+        this.heroView = heroView;
+        this.requestManager = Glide.with(heroView);
+    }
+
+    /**
+     * Show an item's backdrop. Neighbours are the cards next to it in its row, nearest first.
+     */
+    public void show(@NonNull MediaItems mediaItems, @NonNull List<MediaItems> neighbours) {
+        // Cancel first so a superseded item's full load can't land over this one
+        mainHandler.removeCallbacks(settleRunnable);
+        cancelPrefetches();
+
+        String imageUrl = mediaItems.getPrimaryImageUrl();
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            pendingModel = null;
+            pendingNeighbours = null;
+            // Drop any load still landing and the previous item's backdrop
+            requestManager.clear(heroView);
+            heroView.setImageResource(R.drawable.placeholder_movie);
+            notifyShown();
+            return;
+        }
+
+        pendingModel = TmdbImages.backdrop(imageUrl);
+        pendingNeighbours = neighbours;
+        // Replaces the request on the view, so a superseded load is cancelled here
+        lowRes(pendingModel)
+                .dontAnimate()
+                .listener(shownListener)
+                .into(heroView);
+        mainHandler.postDelayed(settleRunnable, SETTLE_DELAY_MS);
+    }
+
+    /**
+     * Run once the next backdrop is on screen, or has failed to load. A show() that supersedes
+     * a load still in flight takes its callbacks over.
+     */
+    public void whenShown(@NonNull Runnable callback) {
+        shownCallbacks.add(callback);
+    }
+
+    /**
+     * Drop the pending full load and any prefetches, e.g. when the screen goes away
+     */
+    public void cancel() {
+        mainHandler.removeCallbacks(settleRunnable);
+        cancelPrefetches();
+        pendingModel = null;
+        pendingNeighbours = null;
+        shownCallbacks.clear();
+    }
+
+    private void notifyShown() {
+        if (shownCallbacks.isEmpty()) {
+            return;
+        }
+        List<Runnable> callbacks = new ArrayList<>(shownCallbacks);
+        shownCallbacks.clear();
+        for (Runnable callback : callbacks) {
+            callback.run();
+        }
+    }
+
+    private void onSettled() {
+        if (pendingModel == null) {
+            return;
+        }
+        // The low-res rendition is in memory by now, so the thumbnail keeps the hero from blanking
+        requestManager
+                .load(pendingModel)
+                .centerCrop()
+                .thumbnail(lowRes(pendingModel))
+                .transition(DrawableTransitionOptions.withCrossFade(CROSSFADE_MS))
+                .into(heroView);
+        prefetchNeighbours(pendingNeighbours);
+    }
+
+    private void prefetchNeighbours(List<MediaItems> neighbours) {
+        int width = heroView.getWidth();
+        int height = heroView.getHeight();
+        for (int i = 0; i < neighbours.size() && i < LOW_RES_NEIGHBOURS * 2; i++) {
+            String imageUrl = neighbours.get(i).getPrimaryImageUrl();
+            if (imageUrl == null || imageUrl.isEmpty()) {
+                continue;
+            }
+            Object model = TmdbImages.backdrop(imageUrl);
+            prefetches.add(lowRes(model).preload(LOW_RES_WIDTH, LOW_RES_HEIGHT));
+            if (i < FULL_NEIGHBOURS * 2 && width > 0 && height > 0) {
+                // Full size only to disk; decoded backdrops are too large to hold for guesses
+                prefetches.add(requestManager
+                        .downloadOnly()
+                        .load(model)
+                        .into(new DiskPrefetchTarget(width, height)));
+            }
+        }
+    }
+
+    private void cancelPrefetches() {
+        for (Target<?> target : prefetches) {
+            requestManager.clear(target);
+        }
+        prefetches.clear();
+    }
+
+    private RequestBuilder<Drawable> lowRes(Object model) {
+        return requestManager
+                .load(model)
+                .centerCrop()
+                .override(LOW_RES_WIDTH, LOW_RES_HEIGHT);
+    }
+
+    /**
+     * Fetches to the disk cache at the hero's size, so the rendition matches what the hero loads
+     */
+    private static class DiskPrefetchTarget extends CustomTarget<File> {
+        DiskPrefetchTarget(int width, int height) {
+            super(width, height);
+        }
+
+        @Override
+        public void onResourceReady(@NonNull File resource, Transition<? super File> transition) {
+        }
+
+        @Override
+        public void onLoadCleared(@Nullable Drawable placeholder) {
+        }
+    }
+}
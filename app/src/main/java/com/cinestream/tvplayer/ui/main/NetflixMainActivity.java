@@ -13,36 +13,52 @@ import android.widget.RelativeLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.OptIn;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.media3.common.util.UnstableApi;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
 import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.api.TMDBApiClient;
 import com.cinestream.tvplayer.data.model.CategorySection;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.data.model.WatchProgress;
+import com.cinestream.tvplayer.data.repository.DownloadTracker;
+import com.cinestream.tvplayer.data.repository.HomeFeedSnapshotStore;
 import com.cinestream.tvplayer.data.repository.MediaRepository;
 import com.cinestream.tvplayer.data.repository.MediaRepositoryTV;
 import com.cinestream.tvplayer.data.repository.MediaRepositoryVideasy;
+import com.cinestream.tvplayer.data.repository.RowPager;
+import com.cinestream.tvplayer.data.repository.SettingsStore;
+import com.cinestream.tvplayer.data.repository.WatchProgressStore;
 import com.cinestream.tvplayer.ui.adapter.CategoryAdapter;
 import com.cinestream.tvplayer.ui.adapter.VerticalSpaceItemDecoration;
+import com.cinestream.tvplayer.ui.adapter.ViewPreloader;
 import com.cinestream.tvplayer.ui.details.DetailsActivity;
 import com.cinestream.tvplayer.ui.details.DetailsActivityTv;
+import com.cinestream.tvplayer.ui.player.PlaybackStartupTrace;
 import com.cinestream.tvplayer.ui.player.PlayerActivity;
 import com.cinestream.tvplayer.ui.search.SearchActivity;
 import com.cinestream.tvplayer.ui.settings.SettingsActivity;
+import com.cinestream.tvplayer.util.FrameMonitor;
+import com.cinestream.tvplayer.util.MemoryGovernor;
 
 import java.util.ArrayList;
 import java.util.List;
 
+@OptIn(markerClass = UnstableApi.class)
 public class NetflixMainActivity extends AppCompatActivity {
     private static final String TAG = "NetflixMainActivity";
+    // Covers the hero's settle delay and crossfade; frames in this window count as a hero update
+    private static final long HERO_UPDATE_FRAMES_MS = 600;
 
     // UI Components
     private ImageView heroBackgroundImage;
+    private HeroImageLoader heroImageLoader;
+    private FrameMonitor frameMonitor;
     private ImageView searchIcon;
     private ImageView homeIcon;
     private ImageView moviesIcon;
@@ -68,37 +84,68 @@ public class NetflixMainActivity extends AppCompatActivity {
     private LinearLayout navigationSidebar;
 
     // Data
-    private List<CategorySection> categories = new ArrayList<>();
+    // Every tab's rows, kept so switching tabs doesn't refetch them
+    private final FeedCache feedCache = new FeedCache();
+    // The tab on screen; categories and categoryAdapter are its rows and adapter
+    private FeedCache.Feed currentFeed;
+    private List<CategorySection> categories;
     private CategoryAdapter categoryAdapter;
+    // Rows and cards inflated in the background for the first scroll
+    private ViewPreloader viewPreloader;
     private MediaRepository mediaRepository;
 
     private MediaRepositoryTV mediaRepositorytv;
     private MediaRepositoryVideasy apiRepository;
     private MediaItems currentSelectedItem;
 
+    // Completed downloads, shown as the first row of the home feed
+    private DownloadTracker downloadTracker;
+    private CategorySection downloadsSection;
+    private final DownloadTracker.Listener downloadsListener = this::refreshDownloadsRow;
+
+    // Unfinished titles, shown after the downloads row and rebuilt whenever the screen resumes
+    private static final int CONTINUE_WATCHING_LIMIT = 20;
+    private WatchProgressStore watchProgressStore;
+    private CategorySection continueWatchingSection;
+
+    // Last rendered home feed, shown on a cold start until the live rows replace it
+    private HomeFeedSnapshotStore snapshotStore;
+    private boolean liveRowsArrived = false;
+
     // Loading state
-    private boolean isLoadingContent = false;
-    private int loadedCategories = 0;
     private static final int TOTAL_CATEGORIES = 6; // Featured, Top Rated, Action, Comedy, Drama, Documentaries
+    private static final int TOTAL_TV_CATEGORIES = 4; // Featured, Top Rated, Trending, Action & Adventure
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        // Start reading settings from disk while the UI inflates
+        SettingsStore.getInstance(this);
+        // Before any repository is created, so their thread pools are sized by the budget
+        MemoryGovernor.getInstance(this);
+        // Start reading the home feed snapshot while the UI inflates
+        snapshotStore = HomeFeedSnapshotStore.getInstance(this);
         setContentView(R.layout.activity_main_netflix);
+        frameMonitor = new FrameMonitor(this, TAG);
 
         mediaRepository = new MediaRepository();
         mediaRepositorytv = MediaRepositoryTV.getInstance();
         apiRepository = MediaRepositoryVideasy.getInstance();
+        // Loads the download index in the background and resumes unfinished downloads
+        downloadTracker = DownloadTracker.getInstance(this);
+        downloadTracker.addListener(downloadsListener);
+        watchProgressStore = WatchProgressStore.getInstance(this);
 
         initializeViews();
         setupClickListeners();
         setupNavigationFocus();
-        loadContent();
+        showTab(FeedCache.TAB_HOME);
     }
 
     private void initializeViews() {
         // Hero content views
         heroBackgroundImage = findViewById(R.id.heroBackgroundImage);
+        heroImageLoader = new HeroImageLoader(heroBackgroundImage);
         searchIcon = findViewById(R.id.searchIcon);
         homeIcon = findViewById(R.id.homeIcon);
         moviesIcon = findViewById(R.id.moviesIcon);
@@ -125,6 +172,18 @@ public class NetflixMainActivity extends AppCompatActivity {
         LinearLayoutManager layoutManager = new LinearLayoutManager(this, LinearLayoutManager.VERTICAL, false);
         categoriesRecyclerView.setLayoutManager(layoutManager);
         categoriesRecyclerView.addItemDecoration(new VerticalSpaceItemDecoration(10));
+        viewPreloader = new ViewPreloader(this);
+        viewPreloader.whenFirstLaidOut(categoriesRecyclerView, this::warmViewPool);
+        categoriesRecyclerView.addOnScrollListener(frameMonitor.getScrollTracker());
+        categoriesRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0) {
+                    // Heading for rows that may still be waiting to load
+                    currentFeed.rowScheduler.onRowsVisible(layoutManager.findLastVisibleItemPosition());
+                }
+            }
+        });
 
         // Loading
         loadingOverlay = findViewById(R.id.loadingOverlay);
@@ -177,17 +236,17 @@ public class NetflixMainActivity extends AppCompatActivity {
         });
 
         homeIcon.setOnClickListener(v -> {
-            loadContent();
+            showTab(FeedCache.TAB_HOME);
             Toast.makeText(this, "Home", Toast.LENGTH_SHORT).show();
         });
 
         moviesIcon.setOnClickListener(v -> {
-            loadContent();
-            Toast.makeText(this, "Movies - Coming Soon", Toast.LENGTH_SHORT).show();
+            showTab(FeedCache.TAB_MOVIES);
+            Toast.makeText(this, "Movies", Toast.LENGTH_SHORT).show();
         });
 
         tvIcon.setOnClickListener(v -> {
-            loadTvShows();
+            showTab(FeedCache.TAB_TV);
             //Toast.makeText(this, "TV Shows - Coming Soon", Toast.LENGTH_SHORT).show();
         });
 
@@ -205,142 +264,106 @@ public class NetflixMainActivity extends AppCompatActivity {
         });
     }
 
-    private void loadTvShows() {
-        if (isLoadingContent) {
+    /**
+     * Put a tab on screen. Its cached rows, hero and scroll position come back at once; the
+     * rows are only reloaded if they have never loaded or are older than the cache TTL.
+     */
+    private void showTab(String tab) {
+        FeedCache.Feed feed = feedCache.get(tab);
+        if (feed != currentFeed) {
+            if (currentFeed != null) {
+                currentFeed.scrollState = categoriesRecyclerView.getLayoutManager().onSaveInstanceState();
+                currentFeed.hero = currentSelectedItem;
+            }
+            currentFeed = feed;
+            categories = feed.categories;
+            if (feed.adapter == null) {
+                categoryAdapter = new CategoryAdapter(feed.categories);
+                categoryAdapter.setViewPreloader(viewPreloader);
+                categoryAdapter.setRowScrollListener(frameMonitor.getScrollTracker());
+                setupCategoryListeners();
+                feed.adapter = categoryAdapter;
+            }
+            categoryAdapter = feed.adapter;
+            categoriesRecyclerView.setAdapter(categoryAdapter);
+            if (feed.scrollState != null) {
+                categoriesRecyclerView.getLayoutManager().onRestoreInstanceState(feed.scrollState);
+            }
+            loadingOverlay.setVisibility(feed.loading && feed.categories.isEmpty() ? View.VISIBLE : View.GONE);
+
+            currentSelectedItem = feed.hero;
+            if (currentSelectedItem != null) {
+                updateHeroContent(currentSelectedItem, 0);
+            } else {
+                showDefaultHero();
+            }
+        }
+        if (!feed.loading && feed.isStale()) {
+            loadFeed(feed);
+        }
+    }
+
+    private void loadFeed(FeedCache.Feed feed) {
+        if (FeedCache.TAB_TV.equals(feed.tab)) {
+            loadTvShows(feed);
+        } else {
+            loadContent(feed);
+        }
+    }
+
+    private void loadTvShows(FeedCache.Feed feed) {
+        if (feed.loading) {
             Log.d(TAG, "Already loading content, skipping duplicate request");
             return;
         }
 
-        categoryAdapter= null;
-        isLoadingContent = true;
-        loadedCategories = 0;
-        loadingOverlay.setVisibility(View.VISIBLE);
-
-        categories.clear();
+        // Cached rows stay on screen while they reload; fresh rows replace them in place
+        feed.beginLoad(TOTAL_TV_CATEGORIES);
+        if (feed == currentFeed && feed.categories.isEmpty()) {
+            loadingOverlay.setVisibility(View.VISIBLE);
+        }
 
         // Add API content category
         //categories.add(new CategorySection("🎆 Live API Content", apiRepository.getAPISampleContent()));
 
-        mediaRepositorytv.getPopularTVShowsAsync(new MediaRepositoryTV.TVShowCallback() {
-            @Override
-            public void onSuccess(List<MediaItems> tvShows) {
-                // Handle successful load
-                Log.d(TAG, "Successfully loaded " + tvShows.size() + " featured Tv series");
-                if (!tvShows.isEmpty()) {
-                    CategorySection featuredSection = new CategorySection("Featured Tv Series", tvShows);
-                    categories.add(0, featuredSection);
-                    categoryAdapter.notifyDataSetChanged();
-                    currentSelectedItem = tvShows.get(0);
-                    updateHeroContent(currentSelectedItem, 0);
-
-                    // Update hero content with first featured tv show if it's the first category loaded
-                    if (currentSelectedItem == null) {
-                        currentSelectedItem = tvShows.get(0);
-                        updateHeroContent(currentSelectedItem, 0);
-                    }
-                }
-            }
-
-            @Override
-            public void onError(String error) {
-                // Handle error
-                Log.e(TAG, "Failed to load featured movies: " + error);
-            }
-        });
-
-        mediaRepositorytv.getTopRatedTVShowsAsync(new MediaRepositoryTV.TVShowCallback() {
-            @Override
-            public void onSuccess(List<MediaItems> tvShows) {
-                // Handle successful load
-                Log.d(TAG, "Successfully loaded " + tvShows.size() + " top rated Tv series");
-                if (!tvShows.isEmpty()) {
-                    CategorySection featuredSection = new CategorySection("Top Rated Tv Series", tvShows);
-                    categories.add(0, featuredSection);
-                    categoryAdapter.notifyDataSetChanged();
-                    currentSelectedItem = tvShows.get(0);
-                    updateHeroContent(currentSelectedItem, 0);
-
-                    // Update hero content with first featured tv show if it's the first category loaded
-                    if (currentSelectedItem == null) {
-                        currentSelectedItem = tvShows.get(0);
-                        updateHeroContent(currentSelectedItem, 0);
-                    }
-                }
-            }
-
-            @Override
-            public void onError(String error) {
-                // Handle error
-                Log.e(TAG, "Failed to load featured movies: " + error);
-            }
-        });
+        // Rows load in display order, so the first two and the hero come before the rest
+        feed.rowScheduler.begin();
+        if (feed == currentFeed && currentSelectedItem == null) {
+            heroImageLoader.whenShown(feed.rowScheduler.hold());
+        }
+        feed.rowScheduler.add(done -> loadTvRow(feed, "Featured Tv Series",
+                mediaRepositorytv::getPopularTVShowsAsync, done));
+        feed.rowScheduler.add(done -> loadTvRow(feed, "Top Rated Tv Series",
+                mediaRepositorytv::getTopRatedTVShowsAsync, done));
+        feed.rowScheduler.add(done -> loadTvRow(feed, "Trending Tv Series",
+                mediaRepositorytv::getTrendingTVShowsAsync, done));
+        feed.rowScheduler.add(done -> loadTvRow(feed, "Action & Adventure Tv Series",
+                mediaRepositorytv::getActionAdventureTVShowsAsync, done));
+        feed.rowScheduler.start();
+    }
 
-        mediaRepositorytv.getTrendingTVShowsAsync(new MediaRepositoryTV.TVShowCallback() {
+    private void loadTvRow(FeedCache.Feed feed, String categoryName, RowPager.PageFetcher fetcher, Runnable done) {
+        fetcher.fetchPage(1, new RowPager.PageCallback() {
             @Override
             public void onSuccess(List<MediaItems> tvShows) {
-                // Handle successful load
-                Log.d(TAG, "Successfully loaded " + tvShows.size() + " Trending Tv series");
+                Log.d(TAG, "Successfully loaded " + tvShows.size() + " " + categoryName);
                 if (!tvShows.isEmpty()) {
-                    CategorySection featuredSection = new CategorySection("Trending Tv Series", tvShows);
-                    categories.add(0, featuredSection);
-                    categoryAdapter.notifyDataSetChanged();
-                    currentSelectedItem = tvShows.get(0);
-                    updateHeroContent(currentSelectedItem, 0);
-
-                    // Update hero content with first featured tv show if it's the first category loaded
-                    if (currentSelectedItem == null) {
-                        currentSelectedItem = tvShows.get(0);
-                        updateHeroContent(currentSelectedItem, 0);
-                    }
+                    CategorySection section = pagedSection(feed, categoryName, tvShows, fetcher);
+                    putSection(feed, section, feed.categories.size());
+                    showHeroIfUnset(feed, tvShows.get(0));
                 }
-            }
-
-            @Override
-            public void onError(String error) {
-                // Handle error
-                Log.e(TAG, "Failed to load featured movies: " + error);
-            }
-        });
 
-        mediaRepositorytv.getActionAdventureTVShowsAsync(new MediaRepositoryTV.TVShowCallback() {
-            @Override
-            public void onSuccess(List<MediaItems> tvShows) {
-                // Handle successful load
-                Log.d(TAG, "Successfully loaded " + tvShows.size() + " action Tv series");
-                if (!tvShows.isEmpty()) {
-                    CategorySection featuredSection = new CategorySection("Action & Adventure Tv Series", tvShows);
-                    categories.add(0, featuredSection);
-                    categoryAdapter.notifyDataSetChanged();
-                    currentSelectedItem = tvShows.get(0);
-                    updateHeroContent(currentSelectedItem, 0);
-
-                    // Update hero content with first featured tv show if it's the first category loaded
-                    if (currentSelectedItem == null) {
-                        currentSelectedItem = tvShows.get(0);
-                        updateHeroContent(currentSelectedItem, 0);
-                    }
-                }
+                checkLoadingComplete(feed);
+                done.run();
             }
 
             @Override
             public void onError(String error) {
-                // Handle error
-                Log.e(TAG, "Failed to load featured movies: " + error);
+                Log.e(TAG, "Failed to load " + categoryName + ": " + error);
+                checkLoadingComplete(feed);
+                done.run();
             }
         });
-
-
-        // Setup adapter with initial empty structure
-        if (categoryAdapter == null) {
-            categoryAdapter = new CategoryAdapter(categories);
-            categoriesRecyclerView.setAdapter(categoryAdapter);
-            setupCategoryListeners();
-        } else {
-            categoryAdapter.notifyDataSetChanged();
-        }
-
-        isLoadingContent = false;
-        loadingOverlay.setVisibility(View.GONE);
     }
 
     @Override
@@ -371,210 +394,343 @@ public class NetflixMainActivity extends AppCompatActivity {
         return super.onKeyDown(keyCode, event);
     }
 
-    private void loadContent() {
-        if (isLoadingContent) {
+    private void loadContent(FeedCache.Feed feed) {
+        if (feed.loading) {
             Log.d(TAG, "Already loading content, skipping duplicate request");
             return;
         }
 
-        isLoadingContent = true;
-        loadedCategories = 0;
-        loadingOverlay.setVisibility(View.VISIBLE);
+        // Reloading a feed keeps its rows on screen; fresh rows replace them in place
+        boolean refreshing = !feed.categories.isEmpty();
+        feed.beginLoad(TOTAL_CATEGORIES);
 
-        categories.clear();
+        if (!refreshing && feed == currentFeed) {
+            loadingOverlay.setVisibility(View.VISIBLE);
+        }
+        if (feed.isHome()) {
+            liveRowsArrived = false;
+            refreshDownloadsRow();
+        }
 
         // Add API content category
         //categories.add(new CategorySection("🎆 Live API Content", apiRepository.getAPISampleContent()));
 
-        // Setup adapter with initial empty structure
-        if (categoryAdapter == null) {
-            categoryAdapter = new CategoryAdapter(categories);
-            categoriesRecyclerView.setAdapter(categoryAdapter);
-            setupCategoryListeners();
-        } else {
-            categoryAdapter.notifyDataSetChanged();
+        if (!refreshing && feed.isHome()) {
+            showSnapshot();
         }
 
-        // Load all categories from TMDB asynchronously
-        loadFeaturedMovies();
-        loadTopRatedMovies();
-        loadActionMovies();
-        loadComedyMovies();
-        loadDramaMovies();
-        loadDocumentaries();
+        // Load all categories from TMDB in display order; rows below the fold wait for the
+        // first rows and the hero backdrop
+        feed.rowScheduler.begin();
+        if (feed == currentFeed && currentSelectedItem == null) {
+            heroImageLoader.whenShown(feed.rowScheduler.hold());
+        }
+        feed.rowScheduler.add(done -> loadFeaturedMovies(feed, done));
+        feed.rowScheduler.add(done -> loadTopRatedMovies(feed, done));
+        feed.rowScheduler.add(done -> loadActionMovies(feed, done));
+        feed.rowScheduler.add(done -> loadComedyMovies(feed, done));
+        feed.rowScheduler.add(done -> loadDramaMovies(feed, done));
+        feed.rowScheduler.add(done -> loadDocumentaries(feed, done));
+        feed.rowScheduler.start();
     }
 
-    private void loadFeaturedMovies() {
+    private void loadFeaturedMovies(FeedCache.Feed feed, Runnable done) {
         mediaRepository.getFeaturedMoviesAsync(new MediaRepository.TMDBCallback() {
             @Override
             public void onSuccess(List<MediaItems> movies) {
                 Log.d(TAG, "Successfully loaded " + movies.size() + " featured movies");
 
                 if (!movies.isEmpty()) {
-                    CategorySection featuredSection = new CategorySection("Featured Movies", movies);
-                    categories.add(0, featuredSection);
-                    categoryAdapter.notifyDataSetChanged();
+                    CategorySection featuredSection = pagedSection(feed, "Featured Movies", movies,
+                            mediaRepository::getFeaturedMoviesAsync);
+                    putSection(feed, featuredSection, feed.isHome() ? localRowCount() : 0);
 
                     // Update hero content with first featured movie if it's the first category loaded
-                    if (currentSelectedItem == null) {
-                        currentSelectedItem = movies.get(0);
-                        updateHeroContent(currentSelectedItem, 0);
-                    }
+                    showHeroIfUnset(feed, movies.get(0));
                 }
 
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Failed to load featured movies: " + error);
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
         });
     }
 
-    private void loadTopRatedMovies() {
+    private void loadTopRatedMovies(FeedCache.Feed feed, Runnable done) {
         mediaRepository.getTopRatedMoviesAsync(new MediaRepository.TMDBCallback() {
             @Override
             public void onSuccess(List<MediaItems> movies) {
                 Log.d(TAG, "Successfully loaded " + movies.size() + " top rated movies");
 
                 if (!movies.isEmpty()) {
-                    CategorySection section = new CategorySection("Top Rated Movies", movies);
-                    categories.add(section);
-                    categoryAdapter.notifyDataSetChanged();
+                    CategorySection section = pagedSection(feed, "Top Rated Movies", movies,
+                            mediaRepository::getTopRatedMoviesAsync);
+                    putSection(feed, section, feed.categories.size());
                 }
 
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Failed to load top rated movies: " + error);
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
         });
     }
 
-    private void loadActionMovies() {
+    private void loadActionMovies(FeedCache.Feed feed, Runnable done) {
         mediaRepository.getActionMoviesAsync(new MediaRepository.TMDBCallback() {
             @Override
             public void onSuccess(List<MediaItems> movies) {
                 Log.d(TAG, "Successfully loaded " + movies.size() + " action movies");
 
                 if (!movies.isEmpty()) {
-                    CategorySection section = new CategorySection("Action & Adventure", movies);
-                    categories.add(section);
-                    categoryAdapter.notifyDataSetChanged();
+                    CategorySection section = pagedSection(feed, "Action & Adventure", movies,
+                            mediaRepository::getActionMoviesAsync);
+                    putSection(feed, section, feed.categories.size());
                 }
 
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Failed to load action movies: " + error);
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
         });
     }
 
-    private void loadComedyMovies() {
+    private void loadComedyMovies(FeedCache.Feed feed, Runnable done) {
         mediaRepository.getComedyMoviesAsync(new MediaRepository.TMDBCallback() {
             @Override
             public void onSuccess(List<MediaItems> movies) {
                 Log.d(TAG, "Successfully loaded " + movies.size() + " comedy movies");
 
                 if (!movies.isEmpty()) {
-                    CategorySection section = new CategorySection("Comedy", movies);
-                    categories.add(section);
-                    categoryAdapter.notifyDataSetChanged();
+                    CategorySection section = pagedSection(feed, "Comedy", movies,
+                            mediaRepository::getComedyMoviesAsync);
+                    putSection(feed, section, feed.categories.size());
                 }
 
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Failed to load comedy movies: " + error);
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
         });
     }
 
-    private void loadDramaMovies() {
+    private void loadDramaMovies(FeedCache.Feed feed, Runnable done) {
         mediaRepository.getDramaMoviesAsync(new MediaRepository.TMDBCallback() {
             @Override
             public void onSuccess(List<MediaItems> movies) {
                 Log.d(TAG, "Successfully loaded " + movies.size() + " drama movies");
 
                 if (!movies.isEmpty()) {
-                    CategorySection section = new CategorySection("Drama", movies);
-                    categories.add(section);
-                    categoryAdapter.notifyDataSetChanged();
+                    CategorySection section = pagedSection(feed, "Drama", movies,
+                            mediaRepository::getDramaMoviesAsync);
+                    putSection(feed, section, feed.categories.size());
                 }
 
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Failed to load drama movies: " + error);
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
         });
     }
 
-    private void loadDocumentaries() {
+    private void loadDocumentaries(FeedCache.Feed feed, Runnable done) {
         mediaRepository.getDocumentariesAsync(new MediaRepository.TMDBCallback() {
             @Override
             public void onSuccess(List<MediaItems> movies) {
                 Log.d(TAG, "Successfully loaded " + movies.size() + " documentaries");
 
                 if (!movies.isEmpty()) {
-                    CategorySection section = new CategorySection("Documentaries", movies);
-                    categories.add(section);
-                    categoryAdapter.notifyDataSetChanged();
+                    CategorySection section = pagedSection(feed, "Documentaries", movies,
+                            mediaRepository::getDocumentariesAsync);
+                    putSection(feed, section, feed.categories.size());
                 }
 
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Failed to load documentaries: " + error);
-                checkLoadingComplete();
+                checkLoadingComplete(feed);
+                done.run();
+            }
+        });
+    }
+
+    /**
+     * Render the saved home feed right away; skipped once a live row has already arrived
+     */
+    private void showSnapshot() {
+        FeedCache.Feed home = feedCache.get(FeedCache.TAB_HOME);
+        snapshotStore.load(snapshot -> {
+            if (snapshot == null || liveRowsArrived || isFinishing()) {
+                return;
+            }
+            List<CategorySection> sections = snapshot.getSections();
+            if (sections.isEmpty()) {
+                return;
+            }
+            Log.d(TAG, "Showing home feed snapshot with " + sections.size() + " rows");
+            home.categories.addAll(sections);
+            submit(home);
+            if (home != currentFeed) {
+                return;
+            }
+            loadingOverlay.setVisibility(View.GONE);
+            if (currentSelectedItem == null && snapshot.getHero() != null) {
+                currentSelectedItem = snapshot.getHero();
+                updateHeroContent(currentSelectedItem, 0);
             }
         });
     }
 
-    private void checkLoadingComplete() {
-        loadedCategories++;
+    /**
+     * A row whose first page just loaded; later pages are fetched as focus nears its end
+     */
+    private CategorySection pagedSection(FeedCache.Feed feed, String categoryName, List<MediaItems> firstPage,
+                                         RowPager.PageFetcher fetcher) {
+        RowPager pager = feed.rowPagers.get(categoryName);
+        if (pager == null) {
+            pager = new RowPager(categoryName, fetcher, (name, items) -> onRowGrown(feed, name, items));
+            feed.rowPagers.put(categoryName, pager);
+        }
+        return new CategorySection(categoryName, pager.setFirstPage(firstPage));
+    }
 
-        if (loadedCategories >= TOTAL_CATEGORIES) {
+    /**
+     * A row gained a page; swap in a new section so the diff appends the new cards
+     */
+    private void onRowGrown(FeedCache.Feed feed, String categoryName, List<MediaItems> items) {
+        for (int i = 0; i < feed.categories.size(); i++) {
+            if (feed.categories.get(i).getCategoryName().equals(categoryName)) {
+                feed.categories.set(i, new CategorySection(categoryName, items));
+                submit(feed);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Show a freshly loaded row. A row of the same name (from the snapshot or an earlier load)
+     * is replaced in place, so the diff only rebinds the cards that changed.
+     */
+    private void putSection(FeedCache.Feed feed, CategorySection section, int index) {
+        if (feed.isHome()) {
+            liveRowsArrived = true;
+        }
+        if (feed == currentFeed) {
+            // The first rows are enough to browse; the deferred ones fill in behind them
             loadingOverlay.setVisibility(View.GONE);
-            isLoadingContent = false;
-
-            // If no hero content set yet, set from first available category
-            if (currentSelectedItem == null && !categories.isEmpty()) {
-                for (CategorySection section : categories) {
-                    if (!section.getItems().isEmpty()) {
-                        currentSelectedItem = section.getItems().get(0);
-                        updateHeroContent(currentSelectedItem, 0);
-                        break;
-                    }
-                }
+        }
+        List<CategorySection> rows = feed.categories;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getCategoryName().equals(section.getCategoryName())) {
+                rows.set(i, section);
+                submit(feed);
+                return;
+            }
+        }
+        rows.add(Math.min(index, rows.size()), section);
+        submit(feed);
+    }
+
+    /**
+     * Hand a feed's rows to its adapter, whether or not its tab is on screen
+     */
+    private void submit(FeedCache.Feed feed) {
+        if (feed.adapter != null) {
+            feed.adapter.submitCategories(feed.categories);
+        }
+    }
+
+    private void checkLoadingComplete(FeedCache.Feed feed) {
+        feed.loadedRows++;
+
+        if (feed.loadedRows >= feed.totalRows) {
+            feed.loading = false;
+            if (!feed.categories.isEmpty()) {
+                // A load where every row failed is retried on the next visit instead
+                feed.markLoaded();
+            }
+
+            if (feed.isHome() && liveRowsArrived) {
+                saveSnapshot();
+            }
+
+            if (feed == currentFeed) {
+                loadingOverlay.setVisibility(View.GONE);
+                showDefaultHero();
             }
         }
     }
 
+    /**
+     * If no hero content set yet, set it from the first available category
+     */
+    private void showDefaultHero() {
+        if (currentSelectedItem != null) {
+            return;
+        }
+        for (CategorySection section : categories) {
+            if (!section.getItems().isEmpty()) {
+                currentSelectedItem = section.getItems().get(0);
+                updateHeroContent(currentSelectedItem, 0);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Put an item in the hero if the feed on screen has nothing there yet
+     */
+    private void showHeroIfUnset(FeedCache.Feed feed, MediaItems mediaItems) {
+        if (feed == currentFeed && currentSelectedItem == null) {
+            currentSelectedItem = mediaItems;
+            updateHeroContent(currentSelectedItem, 0);
+        }
+    }
+
     private void setupCategoryListeners() {
         categoryAdapter.setOnItemClickListener(new CategoryAdapter.OnItemClickListener() {
             @Override
             public void onItemClick(MediaItems mediaItems, int categoryPosition, int itemPosition) {
                 currentSelectedItem = mediaItems;
                 updateHeroContent(mediaItems, categoryPosition);
-                if (mediaItems.getMediaType().toLowerCase().equals("movie")){
+                if (downloadsSection != null
+                        && categoryAdapter.getCategory(categoryPosition) == downloadsSection) {
+                    // Downloaded titles carry their sources, so skip the details lookup
+                    launchDownloaded(mediaItems);
+                } else if (mediaItems.getMediaType().toLowerCase().equals("movie")){
                     launchDetails(currentSelectedItem);
                 } else {
                     launchTvDetails(currentSelectedItem);
@@ -587,19 +743,181 @@ public class NetflixMainActivity extends AppCompatActivity {
                 if (hasFocus) {
                     currentSelectedItem = mediaItems;
                     updateHeroContent(mediaItems, categoryPosition);
+                    RowPager pager = currentFeed.rowPagers.get(categoryNameAt(categoryPosition));
+                    if (pager != null) {
+                        pager.onItemFocused(itemPosition);
+                    }
                 }
             }
         });
     }
 
-    private void updateHeroContent(MediaItems mediaItems, int categoryPosition) {
-        String imageUrl = mediaItems.getPrimaryImageUrl();
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            Glide.with(this)
-                    .load(imageUrl)
-                    .centerCrop()
-                    .into(heroBackgroundImage);
+    /**
+     * Add, update or drop the home feed's downloads row to match the completed downloads,
+     * also while another tab is on screen
+     */
+    private void refreshDownloadsRow() {
+        downloadsSection = replaceLocalRow(downloadsSection, R.string.category_downloads,
+                downloadTracker.getDownloadedItems(), 0);
+    }
+
+    /**
+     * Rebuild the home feed's continue-watching row from the watch-progress store
+     */
+    private void refreshContinueWatchingRow() {
+        watchProgressStore.getContinueWatching(CONTINUE_WATCHING_LIMIT,
+                new WatchProgressStore.ProgressCallback<List<WatchProgress>>() {
+                    @Override
+                    public void onSuccess(List<WatchProgress> result) {
+                        if (isFinishing()) {
+                            return;
+                        }
+                        List<MediaItems> items = new ArrayList<>();
+                        for (WatchProgress progress : result) {
+                            items.add(toMediaItem(progress));
+                        }
+                        continueWatchingSection = replaceLocalRow(continueWatchingSection,
+                                R.string.category_continue_watching, items, downloadsSection != null ? 1 : 0);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        Log.e(TAG, "Failed to load continue watching: " + error);
+                    }
+                });
+    }
+
+    private static MediaItems toMediaItem(WatchProgress progress) {
+        MediaItems mediaItems = new MediaItems();
+        mediaItems.setId(progress.getMediaKey());
+        mediaItems.setTmdbId(progress.getTmdbId());
+        mediaItems.setMediaType(progress.getMediaType() != null ? progress.getMediaType() : "movie");
+        mediaItems.setTitle(progress.getTitle());
+        mediaItems.setPosterUrl(progress.getPosterUrl());
+        mediaItems.setSeason(progress.getSeason());
+        mediaItems.setEpisode(progress.getEpisode());
+        return mediaItems;
+    }
+
+    /**
+     * Add, replace or drop one of the rows the home feed builds locally (downloads, continue
+     * watching) and return the row now shown, or null once it is empty
+     */
+    @Nullable
+    private CategorySection replaceLocalRow(@Nullable CategorySection current, int nameResId,
+                                            List<MediaItems> items, int index) {
+        FeedCache.Feed home = feedCache.get(FeedCache.TAB_HOME);
+        CategorySection updated;
+        if (items.isEmpty()) {
+            if (current == null) {
+                return null;
+            }
+            home.categories.remove(current);
+            updated = null;
+        } else if (current == null) {
+            updated = new CategorySection(getString(nameResId), items);
+            home.categories.add(Math.min(index, home.categories.size()), updated);
+        } else if (sameTitles(current.getItems(), items)) {
+            // Progress and state changes within the same titles don't affect the row
+            return current;
+        } else {
+            // A new section instance, so the row diff picks up the change
+            updated = new CategorySection(current.getCategoryName(), items);
+            home.categories.set(home.categories.indexOf(current), updated);
+        }
+        submit(home);
+        return updated;
+    }
+
+    /**
+     * Rows at the top of the home feed that are built locally rather than fetched
+     */
+    private int localRowCount() {
+        return (downloadsSection != null ? 1 : 0) + (continueWatchingSection != null ? 1 : 0);
+    }
+
+    private static boolean sameTitles(List<MediaItems> a, List<MediaItems> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!WatchProgressStore.keyFor(a.get(i)).equals(WatchProgressStore.keyFor(b.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Persist the home feed as rendered, minus the downloads and continue-watching rows which
+     * are rebuilt locally
+     */
+    private void saveSnapshot() {
+        FeedCache.Feed home = feedCache.get(FeedCache.TAB_HOME);
+        List<CategorySection> sections = new ArrayList<>();
+        for (CategorySection section : home.categories) {
+            if (section != downloadsSection && section != continueWatchingSection) {
+                sections.add(section);
+            }
+        }
+        // The selection only belongs to home while home is on screen; otherwise use its saved hero
+        snapshotStore.save(sections, home == currentFeed ? currentSelectedItem : home.hero);
+    }
+
+    /**
+     * After the first rows are on screen, get the next screenful of rows and their cards
+     * ready off the main thread, sized by what is visible now
+     */
+    private void warmViewPool() {
+        int rows = categoriesRecyclerView.getChildCount();
+        int cards = 0;
+        for (int i = 0; i < rows; i++) {
+            RecyclerView carousel = categoriesRecyclerView.getChildAt(i).findViewById(R.id.itemsRecyclerView);
+            if (carousel != null) {
+                cards += carousel.getChildCount();
+            }
+        }
+        viewPreloader.preload(R.layout.item_category_row, rows);
+        viewPreloader.preload(R.layout.item_content_card, cards);
+    }
+
+    /**
+     * Cards next to an item in its row, nearest first, alternating right and left
+     */
+    private List<MediaItems> neighboursOf(MediaItems mediaItems, int categoryPosition) {
+        List<MediaItems> neighbours = new ArrayList<>();
+        if (categoryAdapter == null || categoryPosition >= categoryAdapter.getItemCount()) {
+            return neighbours;
+        }
+        List<MediaItems> row = categoryAdapter.getCategory(categoryPosition).getItems();
+        int index = row.indexOf(mediaItems);
+        if (index < 0) {
+            return neighbours;
+        }
+        for (int distance = 1; distance < row.size(); distance++) {
+            if (index + distance < row.size()) {
+                neighbours.add(row.get(index + distance));
+            }
+            if (index - distance >= 0) {
+                neighbours.add(row.get(index - distance));
+            }
         }
+        return neighbours;
+    }
+
+    /**
+     * Name of the row at an adapter position; the adapter may briefly trail the categories list
+     */
+    private String categoryNameAt(int categoryPosition) {
+        if (categoryAdapter != null && categoryPosition < categoryAdapter.getItemCount()) {
+            return categoryAdapter.getCategory(categoryPosition).getCategoryName();
+        }
+        return categoryPosition < categories.size() ? categories.get(categoryPosition).getCategoryName() : "";
+    }
+
+    private void updateHeroContent(MediaItems mediaItems, int categoryPosition) {
+        heroImageLoader.show(mediaItems, neighboursOf(mediaItems, categoryPosition));
+        frameMonitor.markTransientState(FrameMonitor.STATE_HERO_UPDATE, HERO_UPDATE_FRAMES_MS);
 
         contentTitle.setText(mediaItems.getTitle());
         yearText.setText(mediaItems.getYear() > 0 ? String.valueOf(mediaItems.getYear()) : "");
@@ -615,7 +933,7 @@ public class NetflixMainActivity extends AppCompatActivity {
         if (mediaItems.isFromAPI() || mediaItems.isFromTMDB()) {
             nSeriesBadge.setVisibility(View.VISIBLE);
             //nSeriesBadge.setText(mediaItems.isFromTMDB() ? "TMDB" : "N Series");
-            nSeriesBadge.setText(categories.get(categoryPosition).getCategoryName());
+            nSeriesBadge.setText(categoryNameAt(categoryPosition));
         } else {
             nSeriesBadge.setVisibility(View.GONE);
         }
@@ -632,6 +950,12 @@ public class NetflixMainActivity extends AppCompatActivity {
         intent.putExtra("media_item", tvShow);
         startActivity(intent);
     }
+    private void launchDownloaded(MediaItems mediaItems) {
+        Intent intent = new Intent(this, PlayerActivity.class);
+        intent.putExtra("media_item", mediaItems);
+        startActivity(PlaybackStartupTrace.stamp(intent));
+    }
+
     private void launchDetails(MediaItems mediaItems) {
         Intent intent = new Intent(this, DetailsActivity.class);
         intent.putExtra("media_item", mediaItems);
@@ -641,15 +965,34 @@ public class NetflixMainActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        // Only reload if not currently loading
-        if (!isLoadingContent) {
-            loadContent();
+        frameMonitor.start();
+        // Positions saved while playing show up when coming back from the player
+        refreshContinueWatchingRow();
+        // Only reload the tab on screen if its rows have gone stale and it isn't loading already
+        if (currentFeed != null && !currentFeed.loading && currentFeed.isStale()) {
+            loadFeed(currentFeed);
         }
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameMonitor.stop();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (heroImageLoader != null) {
+            heroImageLoader.cancel();
+        }
+        feedCache.cancelLoads();
+        if (viewPreloader != null) {
+            viewPreloader.release();
+        }
+        if (downloadTracker != null) {
+            downloadTracker.removeListener(downloadsListener);
+        }
         if (apiRepository != null) {
             apiRepository.cleanup();
         }
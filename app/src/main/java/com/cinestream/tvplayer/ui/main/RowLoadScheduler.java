@@ -0,0 +1,150 @@
+package com.cinestream.tvplayer.ui.main;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts a feed's row loads in the order the rows appear on screen.
+ * The first PRIORITY_ROWS rows start straight away, alongside any other held work (the hero
+ * backdrop). The rows below the fold wait until all of that has finished, until the user scrolls
+ * towards them, or at most DEFER_LIMIT_MS, so they don't compete with what is on screen.
+ * All methods run on the main thread, as do the repositories' callbacks.
+ */
+public class RowLoadScheduler {
+    private static final String TAG = "RowLoadScheduler";
+
+    // Rows visible without scrolling, loaded at top priority
+    private static final int PRIORITY_ROWS = 2;
+    // Rows beyond the last visible one started once the user scrolls
+    private static final int LOOKAHEAD_ROWS = 1;
+    // Deferred rows start after this long even if the priority work hasn't finished
+    private static final long DEFER_LIMIT_MS = 3000;
+
+    /**
+     * Loads one row and runs done once it has arrived or failed
+     */
+    public interface RowTask {
+        void load(Runnable done);
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<RowTask> tasks = new ArrayList<>();
+    private int started = 0;
+    // Priority rows and holds that haven't finished yet
+    private int outstanding = 0;
+    private boolean deferredReleased = false;
+    // Bumped on every new feed, so completions of an older one are ignored
+    private int generation = 0;
+
+    private final Runnable deferLimit = () -> {
+        Log.d(TAG, "Priority work still running, starting deferred rows anyway");
+        releaseDeferred();
+    };
+
+    /**
+     * Forget the previous feed's rows; call before adding the new feed's rows
+     */
+    public void begin() {
+        cancel();
+        deferredReleased = false;
+    }
+
+    /**
+     * Add the next row, in display order
+     */
+    public void add(@NonNull RowTask task) {
+        tasks.add(task);
+    }
+
+    /**
+     * Hold the deferred rows back until the returned runnable runs, e.g. until the hero is shown
+     */
+    public Runnable hold() {
+        outstanding++;
+        int holdGeneration = generation;
+        boolean[] released = {false};
+        return () -> {
+            if (!released[0] && holdGeneration == generation) {
+                released[0] = true;
+                finishPriorityWork();
+            }
+        };
+    }
+
+    /**
+     * Start the priority rows; the rest follow as described above
+     */
+    public void start() {
+        int priority = Math.min(PRIORITY_ROWS, tasks.size());
+        outstanding += priority;
+        while (started < priority) {
+            launch(tasks.get(started++), true);
+        }
+        if (outstanding == 0) {
+            releaseDeferred();
+        } else {
+            mainHandler.postDelayed(deferLimit, DEFER_LIMIT_MS);
+        }
+    }
+
+    /**
+     * The feed scrolled; start the rows up to just past the last visible one
+     */
+    public void onRowsVisible(int lastVisiblePosition) {
+        startUpTo(lastVisiblePosition + 1 + LOOKAHEAD_ROWS);
+    }
+
+    /**
+     * Drop rows that haven't started; results of started ones are still delivered to their tasks
+     */
+    public void cancel() {
+        generation++;
+        mainHandler.removeCallbacks(deferLimit);
+        tasks.clear();
+        started = 0;
+        outstanding = 0;
+    }
+
+    private void launch(RowTask task, boolean priority) {
+        int taskGeneration = generation;
+        boolean[] finished = {false};
+        task.load(() -> {
+            if (priority && !finished[0] && taskGeneration == generation) {
+                finished[0] = true;
+                finishPriorityWork();
+            }
+        });
+    }
+
+    private void finishPriorityWork() {
+        outstanding--;
+        if (outstanding == 0 && started > 0) {
+            releaseDeferred();
+        }
+    }
+
+    private void releaseDeferred() {
+        if (deferredReleased) {
+            return;
+        }
+        deferredReleased = true;
+        mainHandler.removeCallbacks(deferLimit);
+        if (started < tasks.size()) {
+            Log.d(TAG, "Starting " + (tasks.size() - started) + " deferred rows");
+        }
+        startUpTo(tasks.size());
+    }
+
+    private void startUpTo(int count) {
+        int end = Math.min(count, tasks.size());
+        while (started < end) {
+            launch(tasks.get(started++), false);
+        }
+    }
+}
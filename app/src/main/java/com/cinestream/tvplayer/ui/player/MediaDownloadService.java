@@ -0,0 +1,55 @@
+package com.cinestream.tvplayer.ui.player;
+
+import android.app.Notification;
+
+import androidx.annotation.Nullable;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.offline.Download;
+import androidx.media3.exoplayer.offline.DownloadManager;
+import androidx.media3.exoplayer.offline.DownloadNotificationHelper;
+import androidx.media3.exoplayer.offline.DownloadService;
+import androidx.media3.exoplayer.scheduler.PlatformScheduler;
+import androidx.media3.exoplayer.scheduler.Scheduler;
+
+import com.cinestream.tvplayer.R;
+import com.cinestream.tvplayer.data.repository.DownloadTracker;
+
+import java.util.List;
+
+/**
+ * Foreground service that keeps downloads running while the app is in the background.
+ * The platform scheduler restarts it once network and storage requirements are met again.
+ */
+@UnstableApi
+public class MediaDownloadService extends DownloadService {
+    private static final int FOREGROUND_NOTIFICATION_ID = 2001;
+    private static final int JOB_ID = 2002;
+    private static final String CHANNEL_ID = "downloads";
+
+    private DownloadNotificationHelper notificationHelper;
+
+    public MediaDownloadService() {
+        super(FOREGROUND_NOTIFICATION_ID, DEFAULT_FOREGROUND_NOTIFICATION_UPDATE_INTERVAL,
+                CHANNEL_ID, R.string.download_channel_name, /* channelDescriptionResourceId= */ 0);
+    }
+
+    @Override
+    protected DownloadManager getDownloadManager() {
+        return DownloadTracker.getInstance(this).getDownloadManager();
+    }
+
+    @Nullable
+    @Override
+    protected Scheduler getScheduler() {
+        return new PlatformScheduler(this, JOB_ID);
+    }
+
+    @Override
+    protected Notification getForegroundNotification(List<Download> downloads, int notMetRequirements) {
+        if (notificationHelper == null) {
+            notificationHelper = new DownloadNotificationHelper(this, CHANNEL_ID);
+        }
+        return notificationHelper.buildProgressNotification(this, R.drawable.ic_download,
+                /* contentIntent= */ null, /* message= */ null, downloads, notMetRequirements);
+    }
+}
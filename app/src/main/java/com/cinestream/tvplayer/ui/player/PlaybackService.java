@@ -0,0 +1,52 @@
+package com.cinestream.tvplayer.ui.player;
+
+import android.content.Intent;
+
+import androidx.annotation.Nullable;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.session.MediaSession;
+import androidx.media3.session.MediaSessionService;
+
+/**
+ * Long-lived playback service that owns the MediaSession for the shared player.
+ * Keeping the session and player here lets them outlive PlayerActivity, so the
+ * next title starts on an already built player.
+ */
+@UnstableApi
+public class PlaybackService extends MediaSessionService {
+
+    private MediaSession mediaSession;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        mediaSession = new MediaSession.Builder(this, PlayerHolder.getInstance(this).getPlayer())
+                .build();
+        addSession(mediaSession);
+    }
+
+    @Nullable
+    @Override
+    public MediaSession onGetSession(MediaSession.ControllerInfo controllerInfo) {
+        return mediaSession;
+    }
+
+    @Override
+    public void onTaskRemoved(@Nullable Intent rootIntent) {
+        Player player = mediaSession != null ? mediaSession.getPlayer() : null;
+        if (player == null || !player.getPlayWhenReady() || player.getMediaItemCount() == 0) {
+            stopSelf();
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        if (mediaSession != null) {
+            mediaSession.release();
+            mediaSession = null;
+        }
+        PlayerHolder.getInstance(this).release();
+        super.onDestroy();
+    }
+}
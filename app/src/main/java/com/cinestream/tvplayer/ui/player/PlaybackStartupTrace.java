@@ -0,0 +1,84 @@
+package com.cinestream.tvplayer.ui.player;
+
+import android.content.Intent;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Timing markers for the player startup path, from the click that launched the player to the
+ * first rendered frame. Each start is logged as one line under the PlaybackStartup tag, e.g.
+ * "total 912ms from launch | onCreate +38 | prepare +71 | firstFrame +803".
+ */
+public class PlaybackStartupTrace {
+    private static final String TAG = "PlaybackStartup";
+    public static final String EXTRA_LAUNCH_TIME = "startup_launch_time";
+    private static final int MAX_MARKERS = 12;
+
+    private final long startTime;
+    private final boolean fromLaunch;
+    private final String[] names = new String[MAX_MARKERS];
+    private final long[] times = new long[MAX_MARKERS];
+    private int count = 0;
+    private boolean finished = false;
+
+    /**
+     * Stamp an intent that is about to start the player
+     */
+    public static Intent stamp(Intent intent) {
+        return intent.putExtra(EXTRA_LAUNCH_TIME, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Starts from the launch stamp if the intent has one, otherwise from now
+     */
+    public PlaybackStartupTrace(Intent intent) {
+        long launchTime = intent != null ? intent.getLongExtra(EXTRA_LAUNCH_TIME, 0) : 0;
+        this.fromLaunch = launchTime > 0;
+        this.startTime = fromLaunch ? launchTime : SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Record a marker; ignored after finish() or once the marker table is full
+     */
+    public void mark(String name) {
+        if (finished || count >= MAX_MARKERS) {
+            return;
+        }
+        names[count] = name;
+        times[count] = SystemClock.elapsedRealtime();
+        count++;
+    }
+
+    /**
+     * Record the final marker and log the breakdown
+     */
+    public void finish(String name) {
+        if (finished) {
+            return;
+        }
+        mark(name);
+        finished = true;
+        Log.i(TAG, summary());
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public long elapsedMs() {
+        return SystemClock.elapsedRealtime() - startTime;
+    }
+
+    private String summary() {
+        StringBuilder builder = new StringBuilder();
+        long last = startTime;
+        long end = count > 0 ? times[count - 1] : startTime;
+        builder.append("total ").append(end - startTime).append("ms")
+                .append(fromLaunch ? " from launch" : " from onCreate");
+        for (int i = 0; i < count; i++) {
+            builder.append(" | ").append(names[i]).append(" +").append(times[i] - last);
+            last = times[i];
+        }
+        return builder.toString();
+    }
+}
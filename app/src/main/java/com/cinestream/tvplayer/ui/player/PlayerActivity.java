@@ -1,5 +1,6 @@
 package com.cinestream.tvplayer.ui.player;
 
+import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
@@ -7,6 +8,7 @@ import android.os.Looper;
 import android.util.Log;
 import android.view.KeyEvent;
 import android.view.View;
+import android.view.ViewStub;
 import android.view.WindowManager;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -25,23 +27,32 @@ import androidx.media3.common.MediaItem;
 import androidx.media3.common.MimeTypes;
 import androidx.media3.common.PlaybackException;
 import androidx.media3.common.Player;
+import androidx.media3.common.TrackSelectionOverride;
+import androidx.media3.common.Tracks;
 import androidx.media3.common.util.UnstableApi;
-import androidx.media3.datasource.DefaultDataSource;
+import androidx.media3.datasource.DataSource;
 import androidx.media3.exoplayer.ExoPlayer;
-import androidx.media3.exoplayer.dash.DashMediaSource;
-import androidx.media3.exoplayer.hls.HlsMediaSource;
-import androidx.media3.exoplayer.source.ProgressiveMediaSource;
+import androidx.media3.exoplayer.offline.DownloadRequest;
+import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
 import androidx.media3.exoplayer.source.MediaSource;
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
 import androidx.media3.ui.PlayerView;
 
 import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.data.repository.DownloadTracker;
 import com.cinestream.tvplayer.data.repository.MediaRepository;
+import com.cinestream.tvplayer.data.repository.WatchProgressStore;
 import com.cinestream.tvplayer.ui.player.dialog.QualitySelectionDialog;
 import com.cinestream.tvplayer.ui.player.dialog.ServerSelectionDialog;
 import com.cinestream.tvplayer.ui.player.dialog.SubtitleSelectionDialog;
+import com.cinestream.tvplayer.util.FrameMonitor;
+import com.cinestream.tvplayer.util.PlaybackAnalytics;
+import com.cinestream.tvplayer.util.SeekPreviewCache;
+import com.cinestream.tvplayer.util.SubtitleCache;
+import com.cinestream.tvplayer.util.SubtitleManager;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -53,6 +64,16 @@ public class PlayerActivity extends AppCompatActivity {
     private DefaultTrackSelector trackSelector;
     private MediaItem currentMediaItem;
     private MediaItems sourceMediaItem;
+    private DataSource.Factory dataSourceFactory;
+    private DefaultMediaSourceFactory mediaSourceFactory;
+    private SubtitleCache subtitleCache;
+    private SubtitleManager subtitleManager;
+    // Subtitle tracks wanted on the media item; only the cached ones are attached to it
+    private final List<MediaItems.SubtitleItem> attachedSubtitles = new ArrayList<>();
+    // Track the user picked that is still being fetched or attached
+    private String pendingSubtitleUrl;
+    private PlaybackAnalytics playbackAnalytics;
+    private Player.Listener playerListener;
 
     // Top Bar
     private LinearLayout topBar;
@@ -72,6 +93,7 @@ public class PlayerActivity extends AppCompatActivity {
     private AppCompatButton subtitleButton;
     private AppCompatButton speedButton;
 
+    // Only needed for server switching; created on first use
     private MediaRepository mediaRepository;
 
     // Dialogs
@@ -84,12 +106,36 @@ public class PlayerActivity extends AppCompatActivity {
     private Runnable hideControlsRunnable;
     private static final long CONTROLS_VISIBLE_DURATION = 5000; // 5 seconds
 
-    // Progress update
+    // Progress display and periodic progress saving
+    private PlayerProgressRenderer progressRenderer;
+    private FrameMonitor frameMonitor;
     private Handler progressUpdateHandler = new Handler(Looper.getMainLooper());
-    private Runnable progressUpdateRunnable;
+
+    // Watch progress (kept in memory by the store and flushed in batches)
+    private WatchProgressStore watchProgressStore;
+    private Runnable progressSaveRunnable;
+    private static final long PROGRESS_SAVE_INTERVAL_MS = 5000;
+    // Buffered media ahead of the playhead before seek previews are built without a scrub
+    private static final long SEEK_PREVIEW_MIN_BUFFER_MS = 30_000;
+
+    // Seek previews and coalesced seeking; the exact seek happens once input settles
+    private SeekPreviewCache seekPreviewCache;
+    private SeekPreviewView seekPreviewView;
+    private SeekController seekController;
+    private String seekPreviewUrl;
+    private boolean isScrubbing = false;
+    private boolean isKeySeeking = false;
+    private final Runnable commitScrubRunnable = this::commitScrub;
+    private static final long SCRUB_COMMIT_DELAY_MS = 600;
+
+    // Startup timing; the control overlay is inflated lazily
+    private PlaybackStartupTrace startupTrace;
+    private final Runnable inflateControlsRunnable = this::ensureControls;
+    private static final long CONTROLS_INFLATE_FALLBACK_MS = 3000;
+    private boolean isActivityResumed = false;
 
     // Playback state
-    private boolean isControlsVisible = true;
+    private boolean isControlsVisible = false;
     private boolean isPrepared = false;
     private long savedPlaybackPosition = 0;
     private boolean playWhenReady = true;
@@ -99,14 +145,14 @@ public class PlayerActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        startupTrace = new PlaybackStartupTrace(getIntent());
+        startupTrace.mark("onCreate");
         setContentView(R.layout.activity_player);
+        frameMonitor = new FrameMonitor(this, "PlayerActivity");
 
         // Keep screen on during playback
         getWindow().addFlags(WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
 
-        // Hide system UI for fullscreen
-        hideSystemUI();
-
         // Get media item from intent
         sourceMediaItem = getIntent().getParcelableExtra("media_item");
         if (sourceMediaItem == null) {
@@ -114,8 +160,6 @@ public class PlayerActivity extends AppCompatActivity {
             return;
         }
 
-        Log.i("PlayerActivity", "onCreate: "+sourceMediaItem.getSubtitles());
-        //Log.i("PlayerActivity", "onCreate: "+sourceMediaItem.getVideoSources().get(0).toString());
         // Restore saved state if available
         if (savedInstanceState != null) {
             savedPlaybackPosition = savedInstanceState.getLong("playback_position", 0);
@@ -124,20 +168,52 @@ public class PlayerActivity extends AppCompatActivity {
             currentSpeed = savedInstanceState.getFloat("current_speed", 1.0f);
         }
 
-        mediaRepository = new MediaRepository();
+        watchProgressStore = WatchProgressStore.getInstance(this);
+        subtitleCache = SubtitleCache.getInstance(this);
+        subtitleManager = new SubtitleManager(this);
+        // Usually already cached by the details screen; fills in anything missing
+        subtitleCache.prefetch(subtitleManager.selectInitialSubtitles(sourceMediaItem.getSubtitles()));
+        if (savedInstanceState == null) {
+            loadResumePosition();
+        }
+
+        // Media first: the player starts loading while the rest of the screen is set up
+        playerView = findViewById(R.id.playerView);
+        loadingProgressBar = findViewById(R.id.loadingProgressBar);
+        setupPlayer();
+        prepareAndPlay();
+        startupTrace.mark("prepare");
+
+        // Hide system UI for fullscreen
+        hideSystemUI();
+        seekPreviewCache = SeekPreviewCache.getInstance(this);
+
+        // Controls are inflated once the first frame is up; don't wait forever on a slow stream
+        controlVisibilityHandler.postDelayed(inflateControlsRunnable, CONTROLS_INFLATE_FALLBACK_MS);
+    }
 
+    /**
+     * Inflate and wire the control overlay the first time it is needed
+     */
+    private void ensureControls() {
+        if (controlsLayout != null || isFinishing()) {
+            return;
+        }
+        controlVisibilityHandler.removeCallbacks(inflateControlsRunnable);
+        ViewStub controlsStub = findViewById(R.id.controlsStub);
+        controlsStub.inflate();
 
         initializeViews();
-        setupPlayer();
+        progressRenderer = new PlayerProgressRenderer(currentTimeTextView, seekBar);
+        progressRenderer.setPlayer(player);
+        progressRenderer.setActive(isActivityResumed);
         setupUI();
         setupClickListeners();
-        prepareAndPlay();
+        loadSeekPreviews();
+        Log.d("PlayerActivity", "Controls inflated " + startupTrace.elapsedMs() + "ms after start");
     }
 
     private void initializeViews() {
-        playerView = findViewById(R.id.playerView);
-        loadingProgressBar = findViewById(R.id.loadingProgressBar);
-
         // Top Bar
         topBar = findViewById(R.id.topBar);
         backButton = findViewById(R.id.backButton);
@@ -148,6 +224,7 @@ public class PlayerActivity extends AppCompatActivity {
         playPauseButton = findViewById(R.id.playPauseButton);
         currentTimeTextView = findViewById(R.id.currentTimeTextView);
         seekBar = findViewById(R.id.progressBar);
+        seekPreviewView = findViewById(R.id.seekPreviewView);
 
         // Bottom Buttons
         serversButton = findViewById(R.id.serversButton);
@@ -162,11 +239,21 @@ public class PlayerActivity extends AppCompatActivity {
     }
 
     private void setupPlayer() {
-        // Create ExoPlayer instance
-        trackSelector = new DefaultTrackSelector(this);
-        player = new ExoPlayer.Builder(this)
-                .setTrackSelector(trackSelector)
-                .build();
+        // Attach to the app-scoped player; the service keeps it (and its session) alive between titles
+        startService(new Intent(this, PlaybackService.class));
+        PlayerHolder playerHolder = PlayerHolder.getInstance(this);
+        player = playerHolder.attach(this);
+        trackSelector = playerHolder.getTrackSelector();
+        dataSourceFactory = playerHolder.getDataSourceFactory();
+        mediaSourceFactory = new DefaultMediaSourceFactory(dataSourceFactory);
+
+        // QoE telemetry (TTFF, rebuffers, dropped frames, bitrate switches)
+        playbackAnalytics = new PlaybackAnalytics(this);
+        player.addAnalyticsListener(playbackAnalytics);
+
+        // Coalesces scrub and key seeks into one exact seek on release
+        seekController = new SeekController();
+        seekController.setPlayer(player);
 
         // Set player to PlayerView
         playerView.setPlayer(player);
@@ -183,7 +270,7 @@ public class PlayerActivity extends AppCompatActivity {
 
     private void setupUI() {
         // Set up initial state
-        updatePlayPauseButton(false);
+        updatePlayPauseButton(player != null && player.isPlaying());
         showControls();
 
         // Set movie title
@@ -235,43 +322,101 @@ public class PlayerActivity extends AppCompatActivity {
         subtitleButton.setOnFocusChangeListener(focusListener);
         speedButton.setOnFocusChangeListener(focusListener);
         backButton.setOnFocusChangeListener(focusListener);
+
         seekBar.setOnFocusChangeListener(focusListener);
 
-        // SeekBar listener
+        // Accelerate D-pad steps on the focused seekbar and commit as soon as the key is released
+        seekBar.setOnKeyListener((v, keyCode, event) -> {
+            if (keyCode != KeyEvent.KEYCODE_DPAD_LEFT && keyCode != KeyEvent.KEYCODE_DPAD_RIGHT) {
+                return false;
+            }
+            if (event.getAction() == KeyEvent.ACTION_DOWN && player != null) {
+                long duration = player.getDuration();
+                if (duration != C.TIME_UNSET && duration > 0) {
+                    long stepMs = SeekController.stepForRepeat(event.getRepeatCount());
+                    seekBar.setKeyProgressIncrement((int) Math.max(1, stepMs * seekBar.getMax() / duration));
+                }
+            } else if (event.getAction() == KeyEvent.ACTION_UP) {
+                commitScrub();
+            }
+            return false;
+        });
+
+        // SeekBar listener: touch drags and D-pad steps both scrub over previews, then seek once
         seekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
             @Override
             public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
                 if (fromUser && player != null) {
-                    long duration = player.getDuration();
-                    if (duration != C.TIME_UNSET) {
-                        long seekTime = (duration * progress) / 100;
-                        currentTimeTextView.setText(formatTime(seekTime));
-                    }
+                    updateScrub(progressRenderer.positionForProgress(progress));
+                    // D-pad steps have no stop event; commit once the keys go quiet
+                    progressUpdateHandler.removeCallbacks(commitScrubRunnable);
+                    progressUpdateHandler.postDelayed(commitScrubRunnable, SCRUB_COMMIT_DELAY_MS);
                 }
             }
 
             @Override
             public void onStartTrackingTouch(SeekBar seekBar) {
-                stopProgressUpdate();
+                beginScrub();
             }
 
             @Override
             public void onStopTrackingTouch(SeekBar seekBar) {
-                if (player != null) {
-                    long duration = player.getDuration();
-                    if (duration != C.TIME_UNSET) {
-                        long seekTime = (duration * seekBar.getProgress()) / 100;
-                        player.seekTo(seekTime);
-                    }
-                }
-                startProgressUpdate();
-                showControls();
+                commitScrub();
             }
         });
     }
 
+    private void beginScrub() {
+        if (!isScrubbing) {
+            isScrubbing = true;
+            progressRenderer.beginScrub();
+            // The user wants previews now, whatever the buffer looks like
+            seekPreviewCache.requestGeneration(this);
+        }
+    }
+
+    private void updateScrub(long positionMs) {
+        beginScrub();
+        progressRenderer.updateScrub(positionMs);
+        boolean previewShown = seekPreviewView.show(positionMs, seekBar);
+        seekController.scrubTo(positionMs, previewShown);
+        showControls();
+    }
+
+    /**
+     * Issue the one real seek for a scrub gesture
+     */
+    private void commitScrub() {
+        progressUpdateHandler.removeCallbacks(commitScrubRunnable);
+        if (!isScrubbing) {
+            return;
+        }
+        isScrubbing = false;
+        seekController.commit();
+        seekPreviewView.hide();
+        progressRenderer.endScrub();
+        showControls();
+    }
+
+    /**
+     * Load cached preview frames once the stream's duration is known; building missing ones
+     * waits for the first scrub or a healthy buffer
+     */
+    private void loadSeekPreviews() {
+        if (seekPreviewView == null || player == null || currentMediaItem == null || currentMediaItem.localConfiguration == null) {
+            return;
+        }
+        String url = currentMediaItem.localConfiguration.uri.toString();
+        long duration = player.getDuration();
+        if (url.equals(seekPreviewUrl) || duration == C.TIME_UNSET || player.isCurrentMediaItemLive()) {
+            return;
+        }
+        seekPreviewUrl = url;
+        seekPreviewView.setSprite(seekPreviewCache.load(this, url, duration, sprite -> seekPreviewView.refresh()));
+    }
+
     private void setupPlayerEventListeners() {
-        player.addListener(new Player.Listener() {
+        playerListener = new Player.Listener() {
             @Override
             public void onPlaybackStateChanged(int playbackState) {
                 switch (playbackState) {
@@ -280,16 +425,12 @@ public class PlayerActivity extends AppCompatActivity {
                         break;
                     case Player.STATE_READY:
                         loadingProgressBar.setVisibility(View.GONE);
-                        if (!isPrepared) {
-                            isPrepared = true;
-                            if (savedPlaybackPosition > 0) {
-                                player.seekTo(savedPlaybackPosition);
-                            }
-                        }
+                        loadSeekPreviews();
+                        isPrepared = true;
                         break;
                     case Player.STATE_ENDED:
+                        watchProgressStore.markFinished(sourceMediaItem);
                         updatePlayPauseButton(false);
-                        stopProgressUpdate();
                         showControls();
                         break;
                     case Player.STATE_IDLE:
@@ -297,24 +438,42 @@ public class PlayerActivity extends AppCompatActivity {
                 }
             }
 
+            @Override
+            public void onTracksChanged(Tracks tracks) {
+                selectPendingSubtitle(tracks);
+            }
+
             @Override
             public void onIsPlayingChanged(boolean isPlaying) {
                 updatePlayPauseButton(isPlaying);
                 if (isPlaying) {
-                    startProgressUpdate();
+                    startProgressSave();
                 } else {
-                    stopProgressUpdate();
+                    stopProgressSave();
+                    saveWatchProgress();
+                }
+            }
+
+            @Override
+            public void onRenderedFirstFrame() {
+                if (!startupTrace.isFinished()) {
+                    startupTrace.finish("firstFrame");
+                    // Let the first frame reach the screen before inflating the overlay
+                    controlVisibilityHandler.removeCallbacks(inflateControlsRunnable);
+                    controlVisibilityHandler.post(inflateControlsRunnable);
                 }
             }
 
             @Override
             public void onPlayerError(PlaybackException error) {
                 loadingProgressBar.setVisibility(View.GONE);
+                showControls();
                 String errorMessage = "Playback error: " + error.getMessage();
                 Toast.makeText(PlayerActivity.this, errorMessage, Toast.LENGTH_LONG).show();
                 Log.e("PlayerActivity", "Playback error", error);
             }
-        });
+        };
+        player.addListener(playerListener);
     }
 
     private void prepareAndPlay() {
@@ -324,40 +483,28 @@ public class PlayerActivity extends AppCompatActivity {
             return;
         }
 
-        MediaItem.Builder mediaItemBuilder = new MediaItem.Builder();
+        MediaItem.Builder mediaItemBuilder;
+        DownloadTracker downloadTracker = DownloadTracker.getInstance(this);
+        // Saved downloads are read in the background; playback doesn't wait for them, and a
+        // title started before they are known streams from the network
+        DownloadRequest offlineRequest = downloadTracker.isLoaded()
+                ? downloadTracker.getCompletedRequest(sourceMediaItem) : null;
+        if (offlineRequest != null) {
+            // Play the downloaded copy; the request keeps the URI, stream keys and cache key
+            // the segments were stored under, and anything not on disk falls back to the network
+            mediaItemBuilder = offlineRequest.toMediaItem().buildUpon();
+            mediaSourceFactory = new DefaultMediaSourceFactory(
+                    downloadTracker.buildPlaybackDataSourceFactory(dataSourceFactory));
+            startupTrace.mark("offline");
+        } else {
+            mediaItemBuilder = new MediaItem.Builder().setUri(getMediaUri(sourceMediaItem));
+        }
 
         if (sourceMediaItem.getId()!=null) {
-            // Create MediaItem with subtitle configuration
-            mediaItemBuilder.setUri(getMediaUri(sourceMediaItem))
-                    .setMediaId(sourceMediaItem.getId());
-        }
-        else{
-            mediaItemBuilder
-                    .setUri(getMediaUri(sourceMediaItem));
+            mediaItemBuilder.setMediaId(sourceMediaItem.getId());
         }
         // Add subtitles if available
-        List<MediaItem.SubtitleConfiguration> subtitleList = new ArrayList<>();
-
-        if (sourceMediaItem.getSubtitles() != null && !sourceMediaItem.getSubtitles().isEmpty()) {
-            for (MediaItems.SubtitleItem subtitleItem : sourceMediaItem.getSubtitles()) {
-                MediaItem.SubtitleConfiguration subtitle = new MediaItem.SubtitleConfiguration.Builder(
-                        Uri.parse(subtitleItem.getUrl()))
-                        .setMimeType(MimeTypes.TEXT_VTT)
-                        .setLanguage(subtitleItem.getLang())
-                        .setSelectionFlags(C.SELECTION_FLAG_DEFAULT)
-                        .build();
-                subtitleList.add(subtitle);
-            }
-        } else if (sourceMediaItem.getSubtitleUrl() != null && !sourceMediaItem.getSubtitleUrl().isEmpty()) {
-            MediaItem.SubtitleConfiguration subtitle = new MediaItem.SubtitleConfiguration.Builder(
-                    Uri.parse(sourceMediaItem.getSubtitleUrl()))
-                    .setMimeType(MimeTypes.TEXT_VTT)
-                    .setLanguage("en")
-                    .setSelectionFlags(C.SELECTION_FLAG_DEFAULT)
-                    .build();
-            subtitleList.add(subtitle);
-        }
-
+        List<MediaItem.SubtitleConfiguration> subtitleList = buildSubtitleConfigurations();
         if (!subtitleList.isEmpty()) {
             mediaItemBuilder.setSubtitleConfigurations(subtitleList);
         }
@@ -373,9 +520,16 @@ public class PlayerActivity extends AppCompatActivity {
         }
 
         // Set media source and prepare player
-        player.setMediaSource(mediaSource);
-        player.prepare();
+        // The shared player may still report the previous title; the listener records the first real change
+        playbackAnalytics.startSession(sourceMediaItem.getId(), getProviderName(currentMediaItem), false);
+        // Start at the restored position rather than seeking after the first frame
+        if (savedPlaybackPosition > 0) {
+            player.setMediaSource(mediaSource, savedPlaybackPosition);
+        } else {
+            player.setMediaSource(mediaSource);
+        }
         player.setPlayWhenReady(playWhenReady);
+        player.prepare();
 
         // Apply saved speed
         player.setPlaybackSpeed(currentSpeed);
@@ -383,6 +537,16 @@ public class PlayerActivity extends AppCompatActivity {
 
 
 
+    /**
+     * Provider label used to group playback stats, falls back to the stream host
+     */
+    private String getProviderName(MediaItem mediaItem) {
+        if (mediaItem.localConfiguration != null && mediaItem.localConfiguration.uri.getHost() != null) {
+            return mediaItem.localConfiguration.uri.getHost();
+        }
+        return "Unknown";
+    }
+
     private Uri getMediaUri(MediaItems mediaItem) {
         String bestUrl = mediaItem.getBestVideoUrl();
         return Uri.parse(bestUrl);
@@ -451,6 +615,9 @@ public class PlayerActivity extends AppCompatActivity {
         android.util.Log.i("PlayerActivity", "Title: " + title + ", Year: " + year + ", Type: " + mediaType);
 
         // Fetch streams from the selected server
+        if (mediaRepository == null) {
+            mediaRepository = MediaRepository.getInstance();
+        }
         mediaRepository.fetchStreamsFromServer(
                 serverItem.getUrl(),
                 title,
@@ -470,6 +637,7 @@ public class PlayerActivity extends AppCompatActivity {
                             sourceMediaItem.setVideoSources(videoSources);
                             if (subtitles != null) {
                                 sourceMediaItem.setSubtitles(subtitles);
+                                subtitleCache.prefetch(subtitleManager.selectInitialSubtitles(subtitles));
                             }
 
                             // Get the best quality URL
@@ -478,6 +646,10 @@ public class PlayerActivity extends AppCompatActivity {
 
                             android.util.Log.i("PlayerActivity", "Got " + videoSources.size() + " sources");
 
+                            // Count the failover against the old provider, then start a new session
+                            playbackAnalytics.recordFailover();
+                            playbackAnalytics.startSession(sourceMediaItem.getId(), serverItem.getName(), player.isPlaying());
+
                             // Switch to the new source
                             switchToNewSource(newUrl, quality, currentPosition, wasPlaying);
 
@@ -518,22 +690,14 @@ public class PlayerActivity extends AppCompatActivity {
                     .setUri(Uri.parse(newUrl));
 
             // Add subtitles if available in sourceMediaItem
-            if (sourceMediaItem.getSubtitles() != null && !sourceMediaItem.getSubtitles().isEmpty()) {
-                List<MediaItem.SubtitleConfiguration> subtitleList = new ArrayList<>();
-                for (MediaItems.SubtitleItem subtitleItem : sourceMediaItem.getSubtitles()) {
-                    MediaItem.SubtitleConfiguration subtitle = new MediaItem.SubtitleConfiguration.Builder(
-                            Uri.parse(subtitleItem.getUrl()))
-                            .setMimeType(MimeTypes.TEXT_VTT)
-                            .setLanguage(subtitleItem.getLang())
-                            .setSelectionFlags(C.SELECTION_FLAG_DEFAULT)
-                            .build();
-                    subtitleList.add(subtitle);
-                }
+            List<MediaItem.SubtitleConfiguration> subtitleList = buildSubtitleConfigurations();
+            if (!subtitleList.isEmpty()) {
                 mediaItemBuilder.setSubtitleConfigurations(subtitleList);
             }
 
             MediaItem mediaItem = mediaItemBuilder.build();
-            
+            currentMediaItem = mediaItem;
+
             // Create media source from the MediaItem
             MediaSource newMediaSource = createMediaSourceFromMediaItem(mediaItem);
 
@@ -560,20 +724,168 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Subtitle tracks wanted at prepare time: the preferred language and forced tracks only.
+     * Only tracks already in SubtitleCache are attached; the rest are attached once fetched,
+     * so startup never waits on a subtitle host.
+     */
+    private List<MediaItem.SubtitleConfiguration> buildSubtitleConfigurations() {
+        attachedSubtitles.clear();
+
+        if (sourceMediaItem.getSubtitles() != null && !sourceMediaItem.getSubtitles().isEmpty()) {
+            attachedSubtitles.addAll(subtitleManager.selectInitialSubtitles(sourceMediaItem.getSubtitles()));
+        } else if (sourceMediaItem.getSubtitleUrl() != null && !sourceMediaItem.getSubtitleUrl().isEmpty()) {
+            attachedSubtitles.add(new MediaItems.SubtitleItem(sourceMediaItem.getSubtitleUrl(), "en", "English"));
+        }
+        for (MediaItems.SubtitleItem subtitle : attachedSubtitles) {
+            if (subtitleCache.getCachedFile(subtitle.getUrl()) == null) {
+                fetchSubtitle(subtitle, false);
+            }
+        }
+        return toSubtitleConfigurations(attachedSubtitles);
+    }
+
+    /**
+     * Configurations for the given tracks that are in the cache; the rest are left out
+     */
+    private List<MediaItem.SubtitleConfiguration> toSubtitleConfigurations(List<MediaItems.SubtitleItem> subtitles) {
+        List<MediaItem.SubtitleConfiguration> subtitleList = new ArrayList<>();
+        for (MediaItems.SubtitleItem subtitleItem : subtitles) {
+            MediaItem.SubtitleConfiguration.Builder builder = subtitleCache.buildConfiguration(subtitleItem.getUrl());
+            if (builder != null) {
+                subtitleList.add(builder
+                        .setId(subtitleItem.getUrl())
+                        .setLanguage(subtitleItem.getLang())
+                        .setSelectionFlags(SubtitleManager.isForcedSubtitle(subtitleItem)
+                                ? C.SELECTION_FLAG_FORCED : C.SELECTION_FLAG_DEFAULT)
+                        .build());
+            }
+        }
+        return subtitleList;
+    }
+
+    /**
+     * Attach a subtitle track that was skipped at prepare time, keeping the current position.
+     * The track is fetched into SubtitleCache first so the player only ever reads a local file,
+     * and every other track already cached is attached in the same pass so picking one of those
+     * later is a plain track selection instead of another media source swap.
+     */
+    private void attachSubtitle(MediaItems.SubtitleItem subtitle) {
+        if (player == null || currentMediaItem == null) {
+            return;
+        }
+        // Selected as soon as the track shows up, which may be right away if it's attached
+        pendingSubtitleUrl = subtitle.getUrl();
+        if (selectPendingSubtitle(player.getCurrentTracks()) || isAttached(subtitle)) {
+            return;
+        }
+        attachedSubtitles.add(subtitle);
+        fetchSubtitle(subtitle, true);
+    }
+
+    /**
+     * Select the exact side-loaded track the user picked, which a language preference alone
+     * can't tell apart from other tracks in that language. False if it isn't in the tracks yet.
+     */
+    private boolean selectPendingSubtitle(Tracks tracks) {
+        if (pendingSubtitleUrl == null) {
+            return false;
+        }
+        for (Tracks.Group group : tracks.getGroups()) {
+            if (group.getType() != C.TRACK_TYPE_TEXT) {
+                continue;
+            }
+            for (int i = 0; i < group.length; i++) {
+                if (pendingSubtitleUrl.equals(group.getMediaTrackGroup().getFormat(i).id)) {
+                    trackSelector.setParameters(trackSelector.buildUponParameters()
+                            .setOverrideForType(new TrackSelectionOverride(group.getMediaTrackGroup(), i)));
+                    pendingSubtitleUrl = null;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fetch a wanted track into the cache, then attach it along with anything else now cached
+     */
+    private void fetchSubtitle(MediaItems.SubtitleItem subtitle, boolean userRequested) {
+        subtitleCache.fetch(subtitle.getUrl(), new SubtitleCache.Callback() {
+            @Override
+            public void onSuccess(File file) {
+                if (player == null || currentMediaItem == null || isDestroyed()) {
+                    return;
+                }
+                attachCachedSubtitles();
+            }
+
+            @Override
+            public void onError(String error) {
+                attachedSubtitles.remove(subtitle);
+                if (subtitle.getUrl().equals(pendingSubtitleUrl)) {
+                    pendingSubtitleUrl = null;
+                }
+                if (userRequested && !isDestroyed()) {
+                    Toast.makeText(PlayerActivity.this, "Subtitle could not be loaded", Toast.LENGTH_SHORT).show();
+                }
+                Log.w("PlayerActivity", "Subtitle fetch failed: " + error);
+            }
+        });
+    }
+
+    private boolean isAttached(MediaItems.SubtitleItem subtitle) {
+        for (MediaItems.SubtitleItem attached : attachedSubtitles) {
+            if (attached.getUrl().equals(subtitle.getUrl())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void attachCachedSubtitles() {
+        if (sourceMediaItem.getSubtitles() != null) {
+            for (MediaItems.SubtitleItem subtitle : sourceMediaItem.getSubtitles()) {
+                if (subtitle.getUrl() != null && !isAttached(subtitle)
+                        && subtitleCache.getCachedFile(subtitle.getUrl()) != null) {
+                    attachedSubtitles.add(subtitle);
+                }
+            }
+        }
+
+        List<MediaItem.SubtitleConfiguration> configurations = toSubtitleConfigurations(attachedSubtitles);
+        if (currentMediaItem.localConfiguration != null
+                && configurations.size() == currentMediaItem.localConfiguration.subtitleConfigurations.size()) {
+            // Nothing new reached the cache, so there is no reason to swap the source
+            return;
+        }
+        MediaItem mediaItem = currentMediaItem.buildUpon()
+                .setSubtitleConfigurations(configurations)
+                .build();
+        MediaSource mediaSource = createMediaSourceFromMediaItem(mediaItem);
+        currentMediaItem = mediaItem;
+
+        // Side-loaded text tracks are merged into the source, so it has to be swapped; the
+        // player stays prepared and keeps playWhenReady, it only re-buffers from this position
+        player.setMediaSource(mediaSource, player.getCurrentPosition());
+        if (player.getPlaybackState() == Player.STATE_IDLE) {
+            player.prepare();
+        }
+    }
+
     private MediaSource createMediaSourceFromMediaItem(MediaItem mediaItem) {
-        DefaultDataSource.Factory dataSourceFactory = new DefaultDataSource.Factory(this);
         String uriString = mediaItem.localConfiguration.uri.toString().toLowerCase();
 
+        // Hint the container for stream URLs without a recognisable extension.
+        // DefaultMediaSourceFactory also merges in the side-loaded subtitle tracks,
+        // which the HLS/DASH/progressive factories on their own ignore.
+        MediaItem.Builder builder = mediaItem.buildUpon();
         if (uriString.contains(".m3u8") || uriString.contains("m3u8")) {
-            return new HlsMediaSource.Factory(dataSourceFactory)
-                    .createMediaSource(mediaItem);
+            builder.setMimeType(MimeTypes.APPLICATION_M3U8);
         } else if (uriString.contains(".mpd") || uriString.contains("mpd")) {
-            return new DashMediaSource.Factory(dataSourceFactory)
-                    .createMediaSource(mediaItem);
-        } else {
-            return new ProgressiveMediaSource.Factory(dataSourceFactory)
-                    .createMediaSource(mediaItem);
+            builder.setMimeType(MimeTypes.APPLICATION_MPD);
         }
+        return mediaSourceFactory.createMediaSource(builder.build());
     }
 
     private void showQualityDialog() {
@@ -600,6 +912,7 @@ public class PlayerActivity extends AppCompatActivity {
             if (sourceMediaItem != null && sourceMediaItem.getSubtitles() != null) {
                 subtitleDialog.setMediaSubtitles(sourceMediaItem.getSubtitles());
             }
+            subtitleDialog.setOnSubtitleRequestedListener(this::attachSubtitle);
 
             subtitleDialog.show(getSupportFragmentManager(), "subtitle_dialog");
         }
@@ -651,6 +964,9 @@ public class PlayerActivity extends AppCompatActivity {
     }
 
     private void updateQualityButton() {
+        if (qualityButton == null) {
+            return;
+        }
         qualityButton.setText(currentQuality);
     }
 
@@ -663,56 +979,81 @@ public class PlayerActivity extends AppCompatActivity {
     }
 
     private void updatePlayPauseButton(boolean isPlaying) {
+        if (playPauseButton == null) {
+            return;
+        }
         int drawableRes = isPlaying ? R.drawable.ic_pause : R.drawable.ic_play_circle;
         playPauseButton.setImageResource(drawableRes);
     }
 
-    private void startProgressUpdate() {
-        stopProgressUpdate();
-        progressUpdateRunnable = new Runnable() {
+    /**
+     * Look up where the user left off; applied when the player first becomes ready
+     */
+    private void loadResumePosition() {
+        watchProgressStore.getResumePosition(sourceMediaItem, new WatchProgressStore.ProgressCallback<Long>() {
             @Override
-            public void run() {
-                if (player != null && isPrepared && player.isPlaying()) {
-                    long currentPosition = player.getCurrentPosition();
-                    long duration = player.getDuration();
-
-                    if (duration != C.TIME_UNSET && duration > 0) {
-                        currentTimeTextView.setText(formatTime(currentPosition));
+            public void onSuccess(Long position) {
+                if (position <= 0 || player == null) {
+                    return;
+                }
+                if (player.getCurrentPosition() < position) {
+                    // Usually arrives while the source is still preparing, before any media is buffered
+                    player.seekTo(position);
+                }
+            }
 
-                        int progress = (int) ((currentPosition * 100) / duration);
-                        seekBar.setProgress(progress);
-                    }
+            @Override
+            public void onError(String error) {
+                Log.e("PlayerActivity", "Could not load resume position: " + error);
+            }
+        });
+    }
 
-                    progressUpdateHandler.postDelayed(this, 1000);
-                }
+    private void startProgressSave() {
+        stopProgressSave();
+        progressSaveRunnable = new Runnable() {
+            @Override
+            public void run() {
+                saveWatchProgress();
+                requestSeekPreviewsIfBuffered();
+                progressUpdateHandler.postDelayed(this, PROGRESS_SAVE_INTERVAL_MS);
             }
         };
-        progressUpdateHandler.post(progressUpdateRunnable);
+        progressUpdateHandler.postDelayed(progressSaveRunnable, PROGRESS_SAVE_INTERVAL_MS);
     }
 
-    private void stopProgressUpdate() {
-        if (progressUpdateRunnable != null) {
-            progressUpdateHandler.removeCallbacks(progressUpdateRunnable);
+    /**
+     * Preview generation competes with playback for bandwidth, so it only starts on its own
+     * once the buffer is comfortably ahead
+     */
+    private void requestSeekPreviewsIfBuffered() {
+        if (player != null && player.getTotalBufferedDuration() >= SEEK_PREVIEW_MIN_BUFFER_MS) {
+            seekPreviewCache.requestGeneration(this);
         }
     }
 
-    private String formatTime(long timeInMillis) {
-        long seconds = timeInMillis / 1000;
-        long minutes = seconds / 60;
-        long hours = minutes / 60;
+    private void stopProgressSave() {
+        if (progressSaveRunnable != null) {
+            progressUpdateHandler.removeCallbacks(progressSaveRunnable);
+        }
+    }
 
-        if (hours > 0) {
-            return String.format("%d:%02d:%02d", hours, minutes % 60, seconds % 60);
-        } else {
-            return String.format("%02d:%02d", minutes, seconds % 60);
+    private void saveWatchProgress() {
+        if (player != null && isPrepared && sourceMediaItem != null) {
+            long duration = player.getDuration();
+            watchProgressStore.updateProgress(sourceMediaItem, player.getCurrentPosition(),
+                    duration == C.TIME_UNSET ? 0 : duration);
         }
     }
 
     private void showControls() {
+        ensureControls();
         if (!isControlsVisible) {
             controlsLayout.setVisibility(View.VISIBLE);
             topBar.setVisibility(View.VISIBLE);
             isControlsVisible = true;
+            progressRenderer.setControlsVisible(true);
+            frameMonitor.setBaseState(FrameMonitor.STATE_CONTROLS);
         }
 
         if (hideControlsRunnable != null) {
@@ -724,10 +1065,12 @@ public class PlayerActivity extends AppCompatActivity {
     }
 
     private void hideControls() {
-        if (player != null && player.isPlaying()) {
+        if (controlsLayout != null && player != null && player.isPlaying()) {
             controlsLayout.setVisibility(View.GONE);
             topBar.setVisibility(View.GONE);
             isControlsVisible = false;
+            progressRenderer.setControlsVisible(false);
+            frameMonitor.setBaseState(FrameMonitor.STATE_PLAYBACK);
         }
     }
 
@@ -756,22 +1099,16 @@ public class PlayerActivity extends AppCompatActivity {
 
             case KeyEvent.KEYCODE_MEDIA_FAST_FORWARD:
             case KeyEvent.KEYCODE_DPAD_RIGHT:
-                if (!isControlsVisible && player != null) {
-                    long duration = player.getDuration();
-                    if (duration != C.TIME_UNSET) {
-                        long newPosition = Math.min(duration, player.getCurrentPosition() + 10000);
-                        player.seekTo(newPosition);
-                        showControls();
-                    }
+                if ((!isControlsVisible || isKeySeeking) && player != null) {
+                    stepScrub(1, event.getRepeatCount());
                     return true;
                 }
                 break;
 
             case KeyEvent.KEYCODE_MEDIA_REWIND:
             case KeyEvent.KEYCODE_DPAD_LEFT:
-                if (!isControlsVisible && player != null) {
-                    player.seekTo(Math.max(0, player.getCurrentPosition() - 10000));
-                    showControls();
+                if ((!isControlsVisible || isKeySeeking) && player != null) {
+                    stepScrub(-1, event.getRepeatCount());
                     return true;
                 }
                 break;
@@ -780,6 +1117,37 @@ public class PlayerActivity extends AppCompatActivity {
         return super.onKeyDown(keyCode, event);
     }
 
+    @Override
+    public boolean onKeyUp(int keyCode, KeyEvent event) {
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_MEDIA_FAST_FORWARD:
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+            case KeyEvent.KEYCODE_MEDIA_REWIND:
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+                if (isKeySeeking) {
+                    isKeySeeking = false;
+                    commitScrub();
+                    return true;
+                }
+                break;
+        }
+        return super.onKeyUp(keyCode, event);
+    }
+
+    /**
+     * One accelerated seek step from a held key; the seek itself is coalesced until release
+     */
+    private void stepScrub(int direction, int repeatCount) {
+        if (player.getDuration() == C.TIME_UNSET) {
+            return;
+        }
+        ensureControls();
+        isKeySeeking = true;
+        long target = seekController.step(direction, repeatCount);
+        seekBar.setProgress(progressRenderer.progressForPosition(target));
+        updateScrub(target);
+    }
+
     @Override
     protected void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
@@ -794,6 +1162,16 @@ public class PlayerActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
+        isActivityResumed = true;
+        frameMonitor.start();
+        if (progressRenderer != null) {
+            progressRenderer.setActive(true);
+        }
+        if (player != null && player.getPlaybackState() == Player.STATE_IDLE
+                && player.getMediaItemCount() > 0) {
+            // Buffers were dropped under memory pressure while in the background
+            player.prepare();
+        }
         if (player != null && playWhenReady) {
             player.play();
         }
@@ -802,29 +1180,52 @@ public class PlayerActivity extends AppCompatActivity {
     @Override
     protected void onPause() {
         super.onPause();
+        isActivityResumed = false;
+        frameMonitor.stop();
+        if (progressRenderer != null) {
+            progressRenderer.setActive(false);
+        }
         if (player != null) {
             savedPlaybackPosition = player.getCurrentPosition();
             playWhenReady = player.getPlayWhenReady();
             player.pause();
         }
+        saveWatchProgress();
+        watchProgressStore.flush();
     }
 
     // Update onDestroy to clean up the repository
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        stopProgressUpdate();
+        stopProgressSave();
+        progressUpdateHandler.removeCallbacks(commitScrubRunnable);
+        controlVisibilityHandler.removeCallbacks(inflateControlsRunnable);
+        if (seekPreviewCache != null) {
+            seekPreviewCache.cancel(this);
+        }
+        if (seekController != null) {
+            seekController.release();
+        }
+        if (progressRenderer != null) {
+            progressRenderer.release();
+        }
         if (hideControlsRunnable != null) {
             controlVisibilityHandler.removeCallbacks(hideControlsRunnable);
         }
+        if (playbackAnalytics != null) {
+            playbackAnalytics.endSession();
+        }
         if (player != null) {
-            player.release();
+            // Detach from the shared player and leave it warm for the next title
+            player.removeListener(playerListener);
+            player.removeAnalyticsListener(playbackAnalytics);
+            playerView.setPlayer(null);
+            PlayerHolder.getInstance(this).reset(this);
             player = null;
         }
-        if (mediaRepository != null) {
-            mediaRepository.cleanup();
-            mediaRepository = null;
-        }
+        // Shared repository, so its executor is not shut down here
+        mediaRepository = null;
     }
 
     @Override
@@ -0,0 +1,176 @@
+package com.cinestream.tvplayer.ui.player;
+
+import android.content.Context;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DefaultDataSource;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
+import androidx.media3.exoplayer.DefaultLoadControl;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.LoadControl;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+
+import com.cinestream.tvplayer.api.HttpClientProvider;
+import com.cinestream.tvplayer.util.MemoryGovernor;
+
+/**
+ * App-scoped ExoPlayer that survives between titles.
+ * PlayerActivity attaches to it instead of building a new player, track selector
+ * and renderers on every play start, and PlaybackService exposes it through a MediaSession.
+ * The player runs in foreground mode, so its renderers keep their decoders while it is
+ * stopped between titles; they are only given up under memory pressure.
+ * All methods must be called on the main thread.
+ */
+@UnstableApi
+public class PlayerHolder {
+    private static final String TAG = "PlayerHolder";
+    private static PlayerHolder instance;
+
+    private final Context appContext;
+    private final DataSource.Factory dataSourceFactory;
+    private ExoPlayer player;
+    private DefaultTrackSelector trackSelector;
+    // Screen that attached last; only it may reset the player when it goes away
+    private Object owner;
+
+    private PlayerHolder(Context context) {
+        this.appContext = context.getApplicationContext();
+
+        // HTTP goes through the shared OkHttp client so segments reuse pooled connections;
+        // DefaultDataSource still handles file://, asset and content URIs.
+        OkHttpDataSource.Factory httpDataSourceFactory =
+                new OkHttpDataSource.Factory(HttpClientProvider.getInstance().getClient())
+                        .setUserAgent(HttpClientProvider.USER_AGENT);
+        this.dataSourceFactory = new DefaultDataSource.Factory(appContext, httpDataSourceFactory);
+    }
+
+    public static synchronized PlayerHolder getInstance(Context context) {
+        if (instance == null) {
+            instance = new PlayerHolder(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Get the shared player, building it on first use
+     */
+    public ExoPlayer getPlayer() {
+        if (player == null) {
+            trackSelector = new DefaultTrackSelector(appContext);
+            player = new ExoPlayer.Builder(appContext)
+                    .setTrackSelector(trackSelector)
+                    .setLoadControl(buildLoadControl())
+                    .build();
+            player.setForegroundMode(true);
+            Log.d(TAG, "Created shared player");
+        }
+        return player;
+    }
+
+    /**
+     * Get the shared player for a screen that is about to play on it. A screen attaching later
+     * takes the player over, e.g. the next title's PlayerActivity starts before this one is destroyed.
+     */
+    public ExoPlayer attach(Object newOwner) {
+        owner = newOwner;
+        ExoPlayer attached = getPlayer();
+        // May have been dropped by releaseBuffersIfPaused()
+        attached.setForegroundMode(true);
+        return attached;
+    }
+
+    /**
+     * Buffer sized by the memory budget; on low-memory devices the default (up to 128 MB for
+     * video) would be a large share of what the process is allowed
+     */
+    private LoadControl buildLoadControl() {
+        MemoryGovernor.Budget budget = MemoryGovernor.getInstance(appContext).getBudget();
+        return new DefaultLoadControl.Builder()
+                .setBufferDurationsMs(
+                        Math.min(DefaultLoadControl.DEFAULT_MIN_BUFFER_MS, budget.playerMaxBufferMs),
+                        budget.playerMaxBufferMs,
+                        DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_MS,
+                        DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS)
+                .setTargetBufferBytes(budget.playerBufferBytes)
+                .build();
+    }
+
+    public DefaultTrackSelector getTrackSelector() {
+        getPlayer();
+        return trackSelector;
+    }
+
+    public DataSource.Factory getDataSourceFactory() {
+        return dataSourceFactory;
+    }
+
+    /**
+     * Build the player while the main thread is idle so the first play start does not pay for it
+     */
+    public void prewarm() {
+        if (player == null) {
+            Looper.myQueue().addIdleHandler(() -> {
+                getPlayer();
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Return the player to a clean state between titles. The instance is kept, and in foreground
+     * mode stop() leaves the renderers' decoders initialized for the next title.
+     * Does nothing if another screen has attached since the given owner did.
+     */
+    public void reset(Object releasingOwner) {
+        if (player == null) {
+            return;
+        }
+        if (owner != releasingOwner) {
+            Log.d(TAG, "Player was taken over by another screen, not resetting");
+            return;
+        }
+        owner = null;
+        player.stop();
+        player.clearMediaItems();
+        player.setPlaybackSpeed(1.0f);
+        trackSelector.setParameters(DefaultTrackSelector.Parameters.getDefaults(appContext));
+    }
+
+    /**
+     * Drop buffered media and decoders of a paused or stopped player, keeping its playlist and
+     * position. The owner re-prepares when playback resumes.
+     */
+    public void releaseBuffersIfPaused() {
+        if (player == null) {
+            return;
+        }
+        if (!player.getPlayWhenReady() || player.getPlaybackState() == Player.STATE_IDLE) {
+            // Out of foreground mode an idle player releases its decoders
+            player.setForegroundMode(false);
+            if (player.getPlaybackState() != Player.STATE_IDLE) {
+                player.stop();
+            }
+            Log.d(TAG, "Released buffers and decoders of paused player");
+        }
+    }
+
+    /**
+     * Fully release the player, e.g. when the playback service is destroyed
+     */
+    public void release() {
+        if (player != null) {
+            player.release();
+            player = null;
+            trackSelector = null;
+            Log.d(TAG, "Released shared player");
+        }
+    }
+
+    public boolean hasPlayer() {
+        return player != null;
+    }
+}
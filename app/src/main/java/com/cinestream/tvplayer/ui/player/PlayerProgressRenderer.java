@@ -0,0 +1,250 @@
+package com.cinestream.tvplayer.ui.player;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.widget.SeekBar;
+import android.widget.TextView;
+
+import androidx.media3.common.C;
+import androidx.media3.common.Player;
+
+/**
+ * Draws the player's elapsed time and seekbar.
+ * Ticks only while the controls are visible, the activity is in the foreground and
+ * playback is running, and each tick lands just after the next whole second of media time.
+ * While scrubbing, updates are rendered once per display frame.
+ * Time strings are written into a reused char buffer, so steady-state rendering does not allocate.
+ */
+public class PlayerProgressRenderer implements Player.Listener {
+    // Longest text is "-HHH:MM:SS"; 16 leaves headroom
+    private static final int TIME_BUFFER_SIZE = 16;
+    private static final long MIN_TICK_MS = 50;
+
+    private final TextView timeView;
+    private final SeekBar seekBar;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final char[] timeBuffer = new char[TIME_BUFFER_SIZE];
+
+    private Player player;
+    private boolean controlsVisible = true;
+    private boolean active = false;
+    private boolean scrubbing = false;
+    private long scrubPositionMs;
+    private boolean frameCallbackPosted = false;
+    private long lastRenderedSecond = -1;
+    private int lastRenderedProgress = -1;
+
+    private final Runnable tickRunnable = new Runnable() {
+        @Override
+        public void run() {
+            render();
+            scheduleNextTick();
+        }
+    };
+
+    private final Choreographer.FrameCallback scrubFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            frameCallbackPosted = false;
+            if (scrubbing) {
+                renderTime(scrubPositionMs);
+            }
+        }
+    };
+
+    public PlayerProgressRenderer(TextView timeView, SeekBar seekBar) {
+        this.timeView = timeView;
+        this.seekBar = seekBar;
+    }
+
+    public void setPlayer(Player player) {
+        if (this.player != null) {
+            this.player.removeListener(this);
+        }
+        this.player = player;
+        if (player != null) {
+            player.addListener(this);
+        }
+        updateTicking();
+    }
+
+    /**
+     * Activity lifecycle hook: nothing runs while the activity is in the background
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+        updateTicking();
+    }
+
+    public void setControlsVisible(boolean visible) {
+        this.controlsVisible = visible;
+        if (visible) {
+            render();
+        }
+        updateTicking();
+    }
+
+    /**
+     * User started dragging the seekbar; playback ticks stop until endScrub()
+     */
+    public void beginScrub() {
+        scrubbing = true;
+        handler.removeCallbacks(tickRunnable);
+    }
+
+    /**
+     * Show the time under the thumb, coalesced to one update per frame
+     */
+    public void updateScrub(long positionMs) {
+        scrubPositionMs = positionMs;
+        if (!frameCallbackPosted) {
+            frameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(scrubFrameCallback);
+        }
+    }
+
+    public void endScrub() {
+        scrubbing = false;
+        if (frameCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(scrubFrameCallback);
+            frameCallbackPosted = false;
+        }
+        updateTicking();
+    }
+
+    /**
+     * Media position for a seekbar position, using the seekbar's own max
+     */
+    public long positionForProgress(int progress) {
+        if (player == null) {
+            return 0;
+        }
+        long duration = player.getDuration();
+        if (duration == C.TIME_UNSET || seekBar.getMax() <= 0) {
+            return 0;
+        }
+        return duration * progress / seekBar.getMax();
+    }
+
+    /**
+     * Seekbar progress for a media position, the inverse of positionForProgress()
+     */
+    public int progressForPosition(long positionMs) {
+        if (player == null) {
+            return 0;
+        }
+        long duration = player.getDuration();
+        if (duration == C.TIME_UNSET || duration <= 0) {
+            return 0;
+        }
+        return (int) (Math.max(0, Math.min(duration, positionMs)) * seekBar.getMax() / duration);
+    }
+
+    /**
+     * Stop everything and detach from the player
+     */
+    public void release() {
+        handler.removeCallbacks(tickRunnable);
+        Choreographer.getInstance().removeFrameCallback(scrubFrameCallback);
+        frameCallbackPosted = false;
+        setPlayer(null);
+    }
+
+    @Override
+    public void onIsPlayingChanged(boolean isPlaying) {
+        // Draw the final position when pausing so the controls are accurate
+        render();
+        updateTicking();
+    }
+
+    @Override
+    public void onPositionDiscontinuity(Player.PositionInfo oldPosition, Player.PositionInfo newPosition, int reason) {
+        render();
+        updateTicking();
+    }
+
+    private boolean shouldTick() {
+        return active && controlsVisible && !scrubbing && player != null && player.isPlaying();
+    }
+
+    private void updateTicking() {
+        handler.removeCallbacks(tickRunnable);
+        if (shouldTick()) {
+            scheduleNextTick();
+        }
+    }
+
+    private void scheduleNextTick() {
+        if (!shouldTick()) {
+            return;
+        }
+        // Wake up right after the displayed second changes rather than on a fixed period
+        float speed = player.getPlaybackParameters().speed;
+        long msToNextSecond = 1000 - (player.getCurrentPosition() % 1000);
+        long delay = speed > 0 ? (long) (msToNextSecond / speed) : 1000;
+        handler.postDelayed(tickRunnable, Math.max(MIN_TICK_MS, delay + 1));
+    }
+
+    private void render() {
+        if (player == null || scrubbing || !controlsVisible) {
+            return;
+        }
+        long position = player.getCurrentPosition();
+        long duration = player.getDuration();
+        renderTime(position);
+        if (duration != C.TIME_UNSET && duration > 0) {
+            int progress = (int) (position * seekBar.getMax() / duration);
+            if (progress != lastRenderedProgress) {
+                lastRenderedProgress = progress;
+                seekBar.setProgress(progress);
+            }
+        }
+    }
+
+    private void renderTime(long positionMs) {
+        long totalSeconds = Math.max(0, positionMs / 1000);
+        if (totalSeconds == lastRenderedSecond) {
+            return;
+        }
+        lastRenderedSecond = totalSeconds;
+        int length = formatTime(totalSeconds, timeBuffer);
+        timeView.setText(timeBuffer, 0, length);
+    }
+
+    /**
+     * Write H:MM:SS or MM:SS into the buffer and return the length
+     */
+    static int formatTime(long totalSeconds, char[] buffer) {
+        long hours = totalSeconds / 3600;
+        int minutes = (int) ((totalSeconds / 60) % 60);
+        int seconds = (int) (totalSeconds % 60);
+
+        int index = 0;
+        if (hours > 0) {
+            index = writeNumber(hours, buffer, index);
+            buffer[index++] = ':';
+        }
+        buffer[index++] = (char) ('0' + minutes / 10);
+        buffer[index++] = (char) ('0' + minutes % 10);
+        buffer[index++] = ':';
+        buffer[index++] = (char) ('0' + seconds / 10);
+        buffer[index++] = (char) ('0' + seconds % 10);
+        return index;
+    }
+
+    private static int writeNumber(long value, char[] buffer, int index) {
+        int start = index;
+        do {
+            buffer[index++] = (char) ('0' + (value % 10));
+            value /= 10;
+        } while (value > 0);
+        // Digits were written least significant first
+        for (int i = start, j = index - 1; i < j; i++, j--) {
+            char tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+        return index;
+    }
+}
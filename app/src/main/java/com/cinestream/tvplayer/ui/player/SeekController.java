@@ -0,0 +1,184 @@
+package com.cinestream.tvplayer.ui.player;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.media3.common.C;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.SeekParameters;
+
+/**
+ * Funnels all user seeking through one pending target.
+ * While scrubbing, intermediate seeks snap to the closest sync frame and are throttled so at most
+ * one is in flight; commit() issues a single exact seek to the final target. Key-driven steps grow
+ * the longer the key is held.
+ */
+@UnstableApi
+public class SeekController implements Player.Listener {
+    private static final long SCRUB_SEEK_INTERVAL_MS = 400;
+    // A seek into the buffer may not change state; don't wait on it forever
+    private static final long MAX_SEEK_IN_FLIGHT_MS = 1500;
+    // Step size by key-repeat count: first presses are fine-grained, long holds cover ground fast
+    private static final int[] STEP_REPEAT_THRESHOLDS = {0, 6, 16, 30};
+    private static final long[] STEP_SIZES_MS = {10_000, 30_000, 60_000, 120_000};
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private ExoPlayer player;
+    private boolean scrubbing = false;
+    private long targetMs = C.TIME_UNSET;
+    private long lastIssuedMs = C.TIME_UNSET;
+    private long lastSeekRealtime = 0;
+    private boolean seekInFlight = false;
+    private boolean syncSeeksEnabled = true;
+
+    private final Runnable deferredSeekRunnable = this::maybeIssueSyncSeek;
+
+    public void setPlayer(ExoPlayer player) {
+        if (this.player != null) {
+            this.player.removeListener(this);
+        }
+        this.player = player;
+        if (player != null) {
+            player.addListener(this);
+        }
+    }
+
+    public boolean isScrubbing() {
+        return scrubbing;
+    }
+
+    /**
+     * Pending target, or the player's position when nothing is pending
+     */
+    public long getTargetPosition() {
+        if (scrubbing && targetMs != C.TIME_UNSET) {
+            return targetMs;
+        }
+        return player != null ? player.getCurrentPosition() : 0;
+    }
+
+    /**
+     * Step size for a key that has auto-repeated repeatCount times
+     */
+    public static long stepForRepeat(int repeatCount) {
+        long step = STEP_SIZES_MS[0];
+        for (int i = 0; i < STEP_REPEAT_THRESHOLDS.length; i++) {
+            if (repeatCount >= STEP_REPEAT_THRESHOLDS[i]) {
+                step = STEP_SIZES_MS[i];
+            }
+        }
+        return step;
+    }
+
+    /**
+     * Move the target one accelerated step forward (direction > 0) or back and return it
+     */
+    public long step(int direction, int repeatCount) {
+        long step = stepForRepeat(repeatCount);
+        long target = getTargetPosition() + (direction > 0 ? step : -step);
+        scrubTo(target, false);
+        return targetMs;
+    }
+
+    /**
+     * Update the pending target. When a preview thumbnail is already on screen the player is
+     * left alone; otherwise a throttled closest-sync seek shows the nearby keyframe.
+     */
+    public void scrubTo(long positionMs, boolean previewShown) {
+        if (player == null) {
+            return;
+        }
+        scrubbing = true;
+        targetMs = clamp(positionMs);
+        syncSeeksEnabled = !previewShown;
+        if (syncSeeksEnabled) {
+            maybeIssueSyncSeek();
+        }
+    }
+
+    /**
+     * Finish the gesture with one exact seek to the final target
+     */
+    public void commit() {
+        handler.removeCallbacks(deferredSeekRunnable);
+        if (!scrubbing || player == null) {
+            scrubbing = false;
+            return;
+        }
+        scrubbing = false;
+        player.setSeekParameters(SeekParameters.EXACT);
+        player.seekTo(targetMs);
+        targetMs = C.TIME_UNSET;
+        lastIssuedMs = C.TIME_UNSET;
+    }
+
+    /**
+     * Drop the pending target without seeking
+     */
+    public void cancel() {
+        handler.removeCallbacks(deferredSeekRunnable);
+        scrubbing = false;
+        targetMs = C.TIME_UNSET;
+        lastIssuedMs = C.TIME_UNSET;
+        seekInFlight = false;
+    }
+
+    public void release() {
+        cancel();
+        if (player != null) {
+            player.setSeekParameters(SeekParameters.DEFAULT);
+        }
+        setPlayer(null);
+    }
+
+    @Override
+    public void onPlaybackStateChanged(int playbackState) {
+        if (playbackState == Player.STATE_READY) {
+            onSeekSettled();
+        }
+    }
+
+    @Override
+    public void onRenderedFirstFrame() {
+        onSeekSettled();
+    }
+
+    private void onSeekSettled() {
+        seekInFlight = false;
+        if (scrubbing && syncSeeksEnabled && targetMs != lastIssuedMs) {
+            maybeIssueSyncSeek();
+        }
+    }
+
+    private void maybeIssueSyncSeek() {
+        handler.removeCallbacks(deferredSeekRunnable);
+        if (!scrubbing || player == null || targetMs == lastIssuedMs) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        long sinceLast = now - lastSeekRealtime;
+        if (seekInFlight && sinceLast < MAX_SEEK_IN_FLIGHT_MS) {
+            // Re-evaluated when the current seek settles, or at the timeout
+            handler.postDelayed(deferredSeekRunnable, MAX_SEEK_IN_FLIGHT_MS - sinceLast);
+            return;
+        }
+        if (sinceLast < SCRUB_SEEK_INTERVAL_MS) {
+            handler.postDelayed(deferredSeekRunnable, SCRUB_SEEK_INTERVAL_MS - sinceLast);
+            return;
+        }
+        player.setSeekParameters(SeekParameters.CLOSEST_SYNC);
+        player.seekTo(targetMs);
+        lastIssuedMs = targetMs;
+        lastSeekRealtime = now;
+        seekInFlight = true;
+    }
+
+    private long clamp(long positionMs) {
+        long duration = player.getDuration();
+        long max = duration != C.TIME_UNSET ? duration : Long.MAX_VALUE;
+        return Math.max(0, Math.min(max, positionMs));
+    }
+}
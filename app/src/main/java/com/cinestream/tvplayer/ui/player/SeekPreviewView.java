@@ -0,0 +1,110 @@
+package com.cinestream.tvplayer.ui.player;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.View;
+import android.widget.SeekBar;
+
+import com.cinestream.tvplayer.util.SeekPreviewCache;
+
+/**
+ * Floating thumbnail drawn above the seekbar thumb while scrubbing.
+ * Draws the sprite's tiles directly, so moving between frames does not allocate.
+ */
+public class SeekPreviewView extends View {
+    private static final int BORDER_WIDTH_PX = 3;
+    private static final int GAP_DP = 8;
+
+    private final Rect destRect = new Rect();
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint borderPaint = new Paint();
+    private final int[] seekBarLocation = new int[2];
+    private final int[] parentLocation = new int[2];
+    private final int gapPx;
+
+    private SeekPreviewCache.Sprite sprite;
+    private long positionMs;
+    private Bitmap frame;
+
+    public SeekPreviewView(Context context) {
+        this(context, null);
+    }
+
+    public SeekPreviewView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        gapPx = (int) (GAP_DP * context.getResources().getDisplayMetrics().density);
+        borderPaint.setColor(Color.WHITE);
+        borderPaint.setStyle(Paint.Style.STROKE);
+        borderPaint.setStrokeWidth(BORDER_WIDTH_PX);
+    }
+
+    public void setSprite(SeekPreviewCache.Sprite sprite) {
+        this.sprite = sprite;
+        refresh();
+    }
+
+    /**
+     * Show the frame for the position, centered over the seekbar thumb.
+     * Returns false when no frame is available yet.
+     */
+    public boolean show(long positionMs, SeekBar seekBar) {
+        this.positionMs = positionMs;
+        refresh();
+        if (frame == null) {
+            setVisibility(INVISIBLE);
+            return false;
+        }
+        moveAbove(seekBar);
+        setVisibility(VISIBLE);
+        return true;
+    }
+
+    /**
+     * Invisible rather than gone so the view keeps its size for positioning
+     */
+    public void hide() {
+        setVisibility(INVISIBLE);
+    }
+
+    /**
+     * Re-resolve the tile, e.g. after more frames have been generated
+     */
+    public void refresh() {
+        frame = sprite != null ? sprite.findTile(positionMs) : null;
+        invalidate();
+    }
+
+    private void moveAbove(SeekBar seekBar) {
+        View parent = (View) getParent();
+        if (parent == null || seekBar.getMax() <= 0) {
+            return;
+        }
+        seekBar.getLocationInWindow(seekBarLocation);
+        parent.getLocationInWindow(parentLocation);
+        int trackWidth = seekBar.getWidth() - seekBar.getPaddingLeft() - seekBar.getPaddingRight();
+        float thumbX = seekBarLocation[0] - parentLocation[0] + seekBar.getPaddingLeft()
+                + trackWidth * (float) seekBar.getProgress() / seekBar.getMax();
+        float x = thumbX - getWidth() / 2f;
+        x = Math.max(0, Math.min(parent.getWidth() - getWidth(), x));
+        float y = seekBarLocation[1] - parentLocation[1] - getHeight() - gapPx;
+        setTranslationX(x);
+        setTranslationY(y);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (frame == null) {
+            return;
+        }
+        destRect.set(0, 0, getWidth(), getHeight());
+        canvas.drawBitmap(frame, null, destRect, bitmapPaint);
+        canvas.drawRect(BORDER_WIDTH_PX / 2f, BORDER_WIDTH_PX / 2f,
+                getWidth() - BORDER_WIDTH_PX / 2f, getHeight() - BORDER_WIDTH_PX / 2f, borderPaint);
+    }
+}
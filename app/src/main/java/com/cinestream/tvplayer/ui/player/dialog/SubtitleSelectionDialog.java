@@ -32,7 +32,9 @@ import com.cinestream.tvplayer.data.model.MediaItems;
 import com.cinestream.tvplayer.util.SubtitleItem;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @UnstableApi
 public class SubtitleSelectionDialog extends DialogFragment {
@@ -44,17 +46,32 @@ public class SubtitleSelectionDialog extends DialogFragment {
     private List<SubtitleItem> subtitleItems;
     private List<MediaItems.SubtitleItem> mediaSubtitles;
     private int currentSelectedIndex = 0;
+    // Provider tracks behind their list entries, one entry per URL; attached or not, the host selects them
+    private final Map<SubtitleItem, MediaItems.SubtitleItem> providerSubtitles = new HashMap<>();
 
     public interface OnSubtitleSelectedListener {
         void onSubtitleSelected(SubtitleItem subtitleItem);
     }
 
+    /**
+     * Called when the user picks one of the provider's tracks; the host attaches it if needed
+     * and selects that exact track
+     */
+    public interface OnSubtitleRequestedListener {
+        void onSubtitleRequested(MediaItems.SubtitleItem subtitle);
+    }
+
     private OnSubtitleSelectedListener listener;
+    private OnSubtitleRequestedListener requestedListener;
 
     public void setOnSubtitleSelectedListener(OnSubtitleSelectedListener listener) {
         this.listener = listener;
     }
 
+    public void setOnSubtitleRequestedListener(OnSubtitleRequestedListener listener) {
+        this.requestedListener = listener;
+    }
+
     public void setTrackSelector(DefaultTrackSelector trackSelector, ExoPlayer player) {
         this.trackSelector = trackSelector;
         this.player = player;
@@ -105,6 +122,7 @@ public class SubtitleSelectionDialog extends DialogFragment {
         if (player != null) {
             loadAvailableSubtitlesFromPlayer();
         }
+        addProviderSubtitles();
 
         subtitleAdapter = new SubtitleAdapter(getContext(), subtitleItems, currentSelectedIndex);
         subtitleListView.setAdapter(subtitleAdapter);
@@ -120,7 +138,13 @@ public class SubtitleSelectionDialog extends DialogFragment {
                 listener.onSubtitleSelected(selectedSubtitle);
             }
 
+            // Language first, so the host's selection of the exact track is applied on top of it
             applySubtitleSelection(selectedSubtitle);
+
+            MediaItems.SubtitleItem providerSubtitle = providerSubtitles.get(selectedSubtitle);
+            if (providerSubtitle != null && requestedListener != null) {
+                requestedListener.onSubtitleRequested(providerSubtitle);
+            }
             dismiss();
         });
     }
@@ -150,7 +174,7 @@ public class SubtitleSelectionDialog extends DialogFragment {
             for (Tracks.Group group : trackGroups) {
                 if (group.getType() == C.TRACK_TYPE_TEXT) {
                     for (int i = 0; i < group.length; i++) {
-                        if (group.isTrackSupported(i)) {
+                        if (group.isTrackSupported(i) && !isProviderTrack(group.getMediaTrackGroup().getFormat(i).id)) {
                             String language = group.getMediaTrackGroup().getFormat(i).language;
                             if (language != null && !language.isEmpty()) {
                                 boolean alreadyExists = false;
@@ -179,6 +203,43 @@ public class SubtitleSelectionDialog extends DialogFragment {
         }
     }
 
+    /**
+     * Side-loaded tracks use their URL as the format id; they are listed per URL by addProviderSubtitles()
+     */
+    private boolean isProviderTrack(String formatId) {
+        if (formatId == null || mediaSubtitles == null) return false;
+        for (MediaItems.SubtitleItem subtitle : mediaSubtitles) {
+            if (formatId.equals(subtitle.getUrl())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * List every provider track once per URL, so several tracks in one language (SDH, other
+     * providers) can each be picked; unattached ones are loaded when picked
+     */
+    private void addProviderSubtitles() {
+        providerSubtitles.clear();
+        if (mediaSubtitles == null) return;
+
+        List<String> listedUrls = new ArrayList<>();
+        for (MediaItems.SubtitleItem subtitle : mediaSubtitles) {
+            String lang = subtitle.getLang();
+            if (lang == null || lang.isEmpty() || subtitle.getUrl() == null
+                    || listedUrls.contains(subtitle.getUrl())) {
+                continue;
+            }
+            listedUrls.add(subtitle.getUrl());
+
+            SubtitleItem item = new SubtitleItem(formatSubtitleName(subtitle), lang,
+                    getLanguageDisplayName(lang) + " subtitles");
+            subtitleItems.add(item);
+            providerSubtitles.put(item, subtitle);
+        }
+    }
+
     private String getLanguageDisplayName(String languageCode) {
         if (languageCode == null) return "Unknown";
 
@@ -210,12 +271,14 @@ public class SubtitleSelectionDialog extends DialogFragment {
                 if ("off".equals(subtitleItem.getValue())) {
                     trackSelector.setParameters(
                             trackSelector.buildUponParameters()
+                                    .clearOverridesOfType(C.TRACK_TYPE_TEXT)
                                     .setPreferredTextLanguage(null)
                                     .setIgnoredTextSelectionFlags(C.SELECTION_FLAG_DEFAULT)
                     );
                 } else {
                     trackSelector.setParameters(
                             trackSelector.buildUponParameters()
+                                    .clearOverridesOfType(C.TRACK_TYPE_TEXT)
                                     .setPreferredTextLanguage(subtitleItem.getValue())
                                     .setIgnoredTextSelectionFlags(0)
                     );
@@ -11,6 +11,7 @@ import androidx.leanback.widget.Presenter;
 import com.bumptech.glide.Glide;
 import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.util.TmdbImages;
 
 public class CardPresenter extends Presenter {
 
@@ -32,7 +33,7 @@ public class CardPresenter extends Presenter {
 
             // Load image with placeholder and error handling
             Glide.with(holder.imageView.getContext())
-                    .load(mediaItems.getPosterUrl())
+                    .load(TmdbImages.poster(mediaItems.getPosterUrl()))
                     .placeholder(R.drawable.placeholder_movie)
                     .error(R.drawable.placeholder_movie)
                     .centerCrop()
@@ -31,8 +31,12 @@ import com.cinestream.tvplayer.R;
 import com.cinestream.tvplayer.api.TMDBApiClient;
 import com.cinestream.tvplayer.data.model.MediaItems;
 import com.cinestream.tvplayer.data.repository.PreferencesManager;
+import com.cinestream.tvplayer.data.repository.SettingsStore;
 import com.cinestream.tvplayer.data.repository.TMDBRepository;
+import com.cinestream.tvplayer.ui.adapter.ImagePreloader;
 import com.cinestream.tvplayer.ui.adapter.SearchResultsAdapter;
+import com.cinestream.tvplayer.ui.adapter.ViewPreloader;
+import com.cinestream.tvplayer.util.FrameMonitor;
 import com.cinestream.tvplayer.ui.details.DetailsActivity;
 
 import java.util.ArrayList;
@@ -62,10 +66,15 @@ public class SearchActivity extends AppCompatActivity {
 
     // Data
     private SearchResultsAdapter resultsAdapter;
+    private ViewPreloader viewPreloader;
+    private FrameMonitor frameMonitor;
     private TMDBRepository tmdbRepository;
     private PreferencesManager preferencesManager;
     private List<MediaItems> currentResults = new ArrayList<>();
     private List<String> searchHistory = new ArrayList<>();
+    // Picks up the saved history if this screen opened before settings finished loading
+    private final SettingsStore.OnSettingsChangedListener settingsListener =
+            settings -> searchHistory = new ArrayList<>(settings.getSearchHistory());
     private List<String> trendingSearches = new ArrayList<>();
     private TMDBApiClient.ContentType currentFilter = TMDBApiClient.ContentType.ALL;
     
@@ -77,6 +86,7 @@ public class SearchActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_search);
+        frameMonitor = new FrameMonitor(this, TAG);
         
         tmdbRepository = TMDBRepository.getInstance();
         preferencesManager = PreferencesManager.getInstance(this);
@@ -103,8 +113,13 @@ public class SearchActivity extends AppCompatActivity {
         // Setup RecyclerView
         resultsAdapter = new SearchResultsAdapter(new ArrayList<>());
         resultsAdapter.setOnItemClickListener(this::onSearchResultClick);
+        viewPreloader = new ViewPreloader(this);
+        resultsAdapter.setViewPreloader(viewPreloader);
+        viewPreloader.preloadScreenful(searchResultsRecyclerView, R.layout.item_search_result);
         searchResultsRecyclerView.setLayoutManager(new GridLayoutManager(this, 4));
         searchResultsRecyclerView.setAdapter(resultsAdapter);
+        searchResultsRecyclerView.addOnScrollListener(frameMonitor.getScrollTracker());
+        ImagePreloader.attach(searchResultsRecyclerView, resultsAdapter);
         
         // Set initial filter
         updateFilterButtonStates();
@@ -198,6 +213,7 @@ public class SearchActivity extends AppCompatActivity {
     private void loadInitialData() {
         // Load search history and trending searches
         searchHistory = preferencesManager.getSearchHistory();
+        preferencesManager.getSettingsStore().addListener(settingsListener);
         tmdbRepository.getTrendingSearches(new TMDBRepository.TMDBCallback<List<String>>() {
             @Override
             public void onSuccess(List<String> trending) {
@@ -444,11 +460,27 @@ public class SearchActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        frameMonitor.start();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameMonitor.stop();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        preferencesManager.getSettingsStore().removeListener(settingsListener);
         if (searchHandler != null && searchRunnable != null) {
             searchHandler.removeCallbacks(searchRunnable);
         }
+        if (viewPreloader != null) {
+            viewPreloader.release();
+        }
     }
 }
\ No newline at end of file
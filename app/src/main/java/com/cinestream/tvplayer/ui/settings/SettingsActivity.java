@@ -20,12 +20,26 @@ import androidx.appcompat.widget.Toolbar;
 import androidx.core.widget.NestedScrollView;
 
 import com.cinestream.tvplayer.R;
+import com.cinestream.tvplayer.api.HttpClientProvider;
+import com.cinestream.tvplayer.api.NetworkMetrics;
+import com.cinestream.tvplayer.data.repository.FrameStatsStore;
+import com.cinestream.tvplayer.data.repository.PlaybackStatsStore;
 import com.cinestream.tvplayer.data.repository.PreferencesManager;
+import com.cinestream.tvplayer.data.repository.SettingsStore;
 import com.cinestream.tvplayer.data.repository.TMDBRepository;
+import com.cinestream.tvplayer.util.MemoryGovernor;
+import com.cinestream.tvplayer.util.SeekPreviewCache;
+import com.cinestream.tvplayer.util.SubtitleCache;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
 
 public class SettingsActivity extends AppCompatActivity {
 
     private static final String TAG = "SettingsActivity";
+    // Busiest hosts listed under Network Stats
+    private static final int MAX_NETWORK_HOSTS = 8;
 
     // UI Components
     private TextView videoQualityValue;
@@ -33,6 +47,10 @@ public class SettingsActivity extends AppCompatActivity {
     private TextView cacheSizeValue;
     private TextView bufferSizeValue;
     private TextView appVersionValue;
+    private TextView playbackStatsValue;
+    private TextView networkStatsValue;
+    private TextView frameStatsValue;
+    private TextView memoryBudgetValue;
     private Switch darkThemeSwitch;
     private Switch autoQualitySwitch;
     private Switch voiceSearchSwitch;
@@ -46,12 +64,17 @@ public class SettingsActivity extends AppCompatActivity {
     private LinearLayout voiceSearchContainer;
     private LinearLayout bufferSizeContainer;
     private LinearLayout cacheContainer;
+    private LinearLayout frameStatsContainer;
     private NestedScrollView scrollView;
     private View scrollOverlay;
 
     // Data
     private PreferencesManager preferencesManager;
     private TMDBRepository tmdbRepository;
+    private PlaybackStatsStore playbackStatsStore;
+    private FrameStatsStore frameStatsStore;
+    // Refreshes the values if this screen opened before settings finished loading
+    private final SettingsStore.OnSettingsChangedListener settingsListener = settings -> loadCurrentSettings();
 
     // Scroll overlay control
     private Handler overlayHandler;
@@ -65,6 +88,8 @@ public class SettingsActivity extends AppCompatActivity {
 
         preferencesManager = PreferencesManager.getInstance(this);
         tmdbRepository = TMDBRepository.getInstance();
+        playbackStatsStore = PlaybackStatsStore.getInstance(this);
+        frameStatsStore = FrameStatsStore.getInstance(this);
         overlayHandler = new Handler(Looper.getMainLooper());
 
         setupToolbar();
@@ -72,7 +97,12 @@ public class SettingsActivity extends AppCompatActivity {
         setupListeners();
         setupScrollListener();
         loadCurrentSettings();
+        preferencesManager.getSettingsStore().addListener(settingsListener);
         updateCacheSize();
+        updatePlaybackStats();
+        updateNetworkStats();
+        updateFrameStats();
+        memoryBudgetValue.setText(MemoryGovernor.getInstance(this).describe());
     }
 
     private void setupToolbar() {
@@ -95,6 +125,10 @@ public class SettingsActivity extends AppCompatActivity {
         cacheSizeValue = findViewById(R.id.cacheSizeValue);
         bufferSizeValue = findViewById(R.id.bufferSizeValue);
         appVersionValue = findViewById(R.id.appVersionValue);
+        playbackStatsValue = findViewById(R.id.playbackStatsValue);
+        networkStatsValue = findViewById(R.id.networkStatsValue);
+        frameStatsValue = findViewById(R.id.frameStatsValue);
+        memoryBudgetValue = findViewById(R.id.memoryBudgetValue);
 
         // Switches
         darkThemeSwitch = findViewById(R.id.darkThemeSwitch);
@@ -116,6 +150,7 @@ public class SettingsActivity extends AppCompatActivity {
         voiceSearchContainer = findViewById(R.id.voiceSearchContainer);
         bufferSizeContainer = findViewById(R.id.bufferSizeContainer);
         cacheContainer = findViewById(R.id.cacheContainer);
+        frameStatsContainer = findViewById(R.id.frameStatsContainer);
     }
 
     private void setupScrollListener() {
@@ -163,6 +198,7 @@ public class SettingsActivity extends AppCompatActivity {
         voiceSearchContainer.setOnFocusChangeListener(focusChangeListener);
         bufferSizeContainer.setOnFocusChangeListener(focusChangeListener);
         cacheContainer.setOnFocusChangeListener(focusChangeListener);
+        frameStatsContainer.setOnFocusChangeListener(focusChangeListener);
         clearCacheButton.setOnFocusChangeListener(focusChangeListener);
         resetDefaultsButton.setOnFocusChangeListener(focusChangeListener);
         aboutButton.setOnFocusChangeListener(focusChangeListener);
@@ -170,6 +206,7 @@ public class SettingsActivity extends AppCompatActivity {
         // Container clicks for navigation
         videoQualityContainer.setOnClickListener(v -> showVideoQualityDialog());
         subtitleContainer.setOnClickListener(v -> showSubtitleLanguageDialog());
+        frameStatsContainer.setOnClickListener(v -> exportFrameStats());
 
         // Switches
         darkThemeSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
@@ -214,13 +251,14 @@ public class SettingsActivity extends AppCompatActivity {
 
     private void loadCurrentSettings() {
         // Load current values
-        videoQualityValue.setText(preferencesManager.getVideoQuality());
-        subtitleLanguageValue.setText(getLanguageName(preferencesManager.getSubtitleLanguage()));
-        darkThemeSwitch.setChecked(preferencesManager.isDarkThemeEnabled());
-        autoQualitySwitch.setChecked(preferencesManager.isAutoQualityEnabled());
-        voiceSearchSwitch.setChecked(preferencesManager.isVoiceSearchEnabled());
-
-        int bufferSize = preferencesManager.getPlaybackBufferSize();
+        SettingsStore.Settings settings = preferencesManager.getSettings();
+        videoQualityValue.setText(settings.getVideoQuality());
+        subtitleLanguageValue.setText(getLanguageName(settings.getSubtitleLanguage()));
+        darkThemeSwitch.setChecked(settings.isDarkThemeEnabled());
+        autoQualitySwitch.setChecked(settings.isAutoQualityEnabled());
+        voiceSearchSwitch.setChecked(settings.isVoiceSearchEnabled());
+
+        int bufferSize = settings.getPlaybackBufferSize();
         bufferSizeSeekBar.setProgress(bufferSize);
         bufferSizeValue.setText(bufferSize + " MB");
 
@@ -247,6 +285,91 @@ public class SettingsActivity extends AppCompatActivity {
         });
     }
 
+    private void updatePlaybackStats() {
+        playbackStatsStore.getProviderSummaries(new PlaybackStatsStore.StatsCallback<List<PlaybackStatsStore.ProviderSummary>>() {
+            @Override
+            public void onSuccess(List<PlaybackStatsStore.ProviderSummary> summaries) {
+                if (summaries.isEmpty()) {
+                    playbackStatsValue.setText("No playback sessions recorded");
+                    return;
+                }
+                StringBuilder builder = new StringBuilder();
+                for (PlaybackStatsStore.ProviderSummary summary : summaries) {
+                    if (builder.length() > 0) {
+                        builder.append('\n');
+                    }
+                    builder.append(summary);
+                }
+                playbackStatsValue.setText(builder.toString());
+            }
+
+            @Override
+            public void onError(String error) {
+                playbackStatsValue.setText("Error loading playback stats");
+            }
+        });
+    }
+
+    /**
+     * Per-host request counters since the app started, busiest hosts first
+     */
+    private void updateNetworkStats() {
+        List<NetworkMetrics.HostStats> hosts = HttpClientProvider.getInstance().getMetrics().getHostStats();
+        if (hosts.isEmpty()) {
+            networkStatsValue.setText("No requests recorded");
+            return;
+        }
+        Collections.sort(hosts, (a, b) -> Long.compare(b.getBytes(), a.getBytes()));
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < hosts.size() && i < MAX_NETWORK_HOSTS; i++) {
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(hosts.get(i));
+        }
+        networkStatsValue.setText(builder.toString());
+    }
+
+    private void updateFrameStats() {
+        frameStatsStore.getScreenSummaries(new FrameStatsStore.StatsCallback<List<FrameStatsStore.ScreenSummary>>() {
+            @Override
+            public void onSuccess(List<FrameStatsStore.ScreenSummary> summaries) {
+                if (summaries.isEmpty()) {
+                    frameStatsValue.setText("No frames recorded");
+                    return;
+                }
+                StringBuilder builder = new StringBuilder();
+                for (FrameStatsStore.ScreenSummary summary : summaries) {
+                    if (builder.length() > 0) {
+                        builder.append('\n');
+                    }
+                    builder.append(summary);
+                }
+                builder.append("\nSelect to export the frame histograms");
+                frameStatsValue.setText(builder.toString());
+            }
+
+            @Override
+            public void onError(String error) {
+                frameStatsValue.setText("Error loading frame stats");
+            }
+        });
+    }
+
+    private void exportFrameStats() {
+        frameStatsStore.export(new FrameStatsStore.StatsCallback<File>() {
+            @Override
+            public void onSuccess(File file) {
+                Toast.makeText(SettingsActivity.this, "Frame stats exported to " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+            }
+
+            @Override
+            public void onError(String error) {
+                Toast.makeText(SettingsActivity.this, "Failed to export frame stats: " + error, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
     private void showVideoQualityDialog() {
         String[] qualities = {"Auto", "1080p", "720p", "480p", "360p"};
         String currentQuality = preferencesManager.getVideoQuality();
@@ -305,9 +428,11 @@ public class SettingsActivity extends AppCompatActivity {
     private void showClearCacheDialog() {
         androidx.appcompat.app.AlertDialog.Builder builder = new androidx.appcompat.app.AlertDialog.Builder(this);
         builder.setTitle("Clear Cache");
-        builder.setMessage("Are you sure you want to clear the metadata cache? This will remove cached movie and TV show information.");
+        builder.setMessage("Are you sure you want to clear the metadata cache? This will remove cached movie and TV show information and downloaded subtitles.");
         builder.setPositiveButton("Clear", (dialog, which) -> {
             tmdbRepository.clearCache();
+            SubtitleCache.getInstance(this).clear();
+            SeekPreviewCache.getInstance(this).clear();
             updateCacheSize();
             Toast.makeText(this, "Cache cleared successfully", Toast.LENGTH_SHORT).show();
         });
@@ -377,6 +502,7 @@ public class SettingsActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        preferencesManager.getSettingsStore().removeListener(settingsListener);
         // Clean up handler callbacks
         if (overlayHandler != null && hideOverlayRunnable != null) {
             overlayHandler.removeCallbacks(hideOverlayRunnable);
@@ -0,0 +1,29 @@
+package com.cinestream.tvplayer.util;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.InputStream;
+
+/**
+ * App-wide Glide setup: TMDB images are fetched at the size they are displayed
+ */
+@GlideModule
+public final class CineStreamGlideModule extends AppGlideModule {
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(TmdbImages.Image.class, InputStream.class, new TmdbImageLoader.Factory());
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,230 @@
+package com.cinestream.tvplayer.util;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.Log;
+import android.view.FrameMetrics;
+import android.view.ViewTreeObserver;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cinestream.tvplayer.data.repository.FrameStatsStore;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records how long each frame of an activity's window took, labelled with what the screen was
+ * doing at the time (scrolling a row, swapping the hero, showing a dialog...).
+ * Runs between start() and stop(), normally onResume/onPause; counts are kept in memory while
+ * the screen is in front and merged into FrameStatsStore when it stops.
+ * Frame timings come from FrameMetrics, so nothing is recorded below API 24.
+ */
+public class FrameMonitor {
+    private static final String TAG = "FrameMonitor";
+
+    public static final String STATE_IDLE = "idle";
+    public static final String STATE_FIRST_DRAW = "first_draw";
+    public static final String STATE_SCROLL = "scroll";
+    public static final String STATE_HERO_UPDATE = "hero_update";
+    public static final String STATE_DIALOG = "dialog";
+    public static final String STATE_PLAYBACK = "playback";
+    public static final String STATE_CONTROLS = "controls";
+
+    // Frame metrics for every screen are delivered on this one thread
+    private static HandlerThread metricsThread;
+
+    private final Activity activity;
+    private final String screen;
+    private final FrameStatsStore statsStore;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Bucket counts per state; written on the metrics thread, swapped out on the main thread
+    private final Map<String, long[]> histograms = new HashMap<>();
+
+    // UI state, only touched on the main thread
+    private final Set<RecyclerView> scrollingLists = new HashSet<>();
+    private String baseState = STATE_IDLE;
+    private String transientState;
+    private boolean windowFocused = true;
+    // What frames are labelled with right now, read on the metrics thread
+    private volatile String currentState = STATE_IDLE;
+
+    private Window.OnFrameMetricsAvailableListener frameListener;
+    private boolean started = false;
+
+    private final Runnable clearTransientState = () -> {
+        transientState = null;
+        updateState();
+    };
+
+    private final ViewTreeObserver.OnWindowFocusChangeListener focusListener = hasFocus -> {
+        // While the screen is in front, losing window focus means a dialog or popup is on top
+        windowFocused = hasFocus;
+        updateState();
+    };
+
+    private final RecyclerView.OnScrollListener scrollTracker = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                scrollingLists.remove(recyclerView);
+            } else {
+                scrollingLists.add(recyclerView);
+            }
+            updateState();
+        }
+    };
+
+    /**
+     * @param screen name the frames are stored under, usually the activity's TAG
+     */
+    public FrameMonitor(@NonNull Activity activity, @NonNull String screen) {
+        this.activity = activity;
+        this.screen = screen;
+        this.statsStore = FrameStatsStore.getInstance(activity);
+    }
+
+    /**
+     * Start recording frames, e.g. in onResume
+     */
+    public void start() {
+        if (started || Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return;
+        }
+        started = true;
+        windowFocused = true;
+        updateState();
+        activity.getWindow().getDecorView().getViewTreeObserver().addOnWindowFocusChangeListener(focusListener);
+        if (frameListener == null) {
+            frameListener = new FrameListener();
+        }
+        activity.getWindow().addOnFrameMetricsAvailableListener(frameListener, metricsHandler());
+    }
+
+    /**
+     * Stop recording and store what was collected, e.g. in onPause
+     */
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        activity.getWindow().getDecorView().getViewTreeObserver().removeOnWindowFocusChangeListener(focusListener);
+        try {
+            activity.getWindow().removeOnFrameMetricsAvailableListener(frameListener);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Frame listener was already removed", e);
+        }
+        mainHandler.removeCallbacks(clearTransientState);
+        transientState = null;
+        scrollingLists.clear();
+        flush();
+    }
+
+    /**
+     * Scroll listener that labels frames as scrolling while any list it is attached to moves
+     */
+    public RecyclerView.OnScrollListener getScrollTracker() {
+        return scrollTracker;
+    }
+
+    /**
+     * Label frames with a short-lived state, e.g. the transition after the hero changes.
+     * Marking again before it ends restarts the duration.
+     */
+    public void markTransientState(@NonNull String state, long durationMs) {
+        transientState = state;
+        mainHandler.removeCallbacks(clearTransientState);
+        mainHandler.postDelayed(clearTransientState, durationMs);
+        updateState();
+    }
+
+    /**
+     * State frames are labelled with when nothing more specific is going on
+     */
+    public void setBaseState(@NonNull String state) {
+        baseState = state;
+        updateState();
+    }
+
+    private void updateState() {
+        // Most specific first: a dialog covers everything, scrolling outweighs a hero swap
+        if (!windowFocused) {
+            currentState = STATE_DIALOG;
+        } else if (!scrollingLists.isEmpty()) {
+            currentState = STATE_SCROLL;
+        } else if (transientState != null) {
+            currentState = transientState;
+        } else {
+            currentState = baseState;
+        }
+    }
+
+    private void recordFrame(@NonNull String state, long durationMs) {
+        int bucket = FrameStatsStore.bucketFor(durationMs);
+        synchronized (histograms) {
+            long[] counts = histograms.get(state);
+            if (counts == null) {
+                counts = new long[FrameStatsStore.BUCKET_COUNT];
+                histograms.put(state, counts);
+            }
+            counts[bucket]++;
+        }
+        if (FrameStatsStore.isFrozen(bucket)) {
+            Log.w(TAG, screen + ": frozen frame of " + durationMs + " ms while " + state);
+        }
+    }
+
+    private void flush() {
+        Map<String, long[]> collected;
+        synchronized (histograms) {
+            if (histograms.isEmpty()) {
+                return;
+            }
+            collected = new HashMap<>(histograms);
+            histograms.clear();
+        }
+        long frames = 0;
+        long slow = 0;
+        for (long[] counts : collected.values()) {
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                frames += counts[bucket];
+                if (FrameStatsStore.isSlow(bucket)) {
+                    slow += counts[bucket];
+                }
+            }
+        }
+        Log.d(TAG, screen + ": " + frames + " frames, " + slow + " slow");
+        statsStore.record(screen, collected);
+    }
+
+    private static synchronized Handler metricsHandler() {
+        if (metricsThread == null) {
+            metricsThread = new HandlerThread("FrameMetrics");
+            metricsThread.start();
+        }
+        return new Handler(metricsThread.getLooper());
+    }
+
+    @RequiresApi(Build.VERSION_CODES.N)
+    private class FrameListener implements Window.OnFrameMetricsAvailableListener {
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+            String state = currentState;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                    && frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+                // Layout of a freshly shown window; slow by nature, kept apart from interaction frames
+                state = STATE_FIRST_DRAW;
+            }
+            recordFrame(state, frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION) / 1000000);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.cinestream.tvplayer.util;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.MemoryCategory;
+import com.cinestream.tvplayer.data.repository.TMDBRepository;
+import com.cinestream.tvplayer.ui.player.PlayerHolder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Central memory budget for the app's caches and buffers.
+ * The budget is picked once from the device class (1 GB sticks get the low tier) and sizes the
+ * TMDB response cache, Glide's memory cache, the player's buffer and the repository thread pools.
+ * On trim callbacks the cheapest-to-rebuild resources are shrunk or dropped first:
+ * response cache, then images, then the buffers of a paused player.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class MemoryGovernor implements ComponentCallbacks2 {
+    private static final String TAG = "MemoryGovernor";
+    private static MemoryGovernor instance;
+
+    // Devices at or below this much RAM run on the low budget
+    private static final long LOW_RAM_TOTAL_BYTES = 1536L * 1024 * 1024;
+    private static final long POOL_KEEP_ALIVE_SECONDS = 30;
+    // Budgets lowered by a trim while in the foreground are restored once pressure has eased
+    private static final long RESTORE_DELAY_MS = 60_000;
+
+    /**
+     * Sizes for each governed resource
+     */
+    public static class Budget {
+        public final String tier;
+        public final int heapLimitMb;
+        public final int tmdbCacheEntries;
+        public final MemoryCategory imageMemoryCategory;
+        public final int playerBufferBytes;
+        public final int playerMaxBufferMs;
+        public final int maxPoolThreads;
+
+        Budget(String tier, int heapLimitMb, int tmdbCacheEntries, MemoryCategory imageMemoryCategory,
+               int playerBufferBytes, int playerMaxBufferMs, int maxPoolThreads) {
+            this.tier = tier;
+            this.heapLimitMb = heapLimitMb;
+            this.tmdbCacheEntries = tmdbCacheEntries;
+            this.imageMemoryCategory = imageMemoryCategory;
+            this.playerBufferBytes = playerBufferBytes;
+            this.playerMaxBufferMs = playerMaxBufferMs;
+            this.maxPoolThreads = maxPoolThreads;
+        }
+    }
+
+    private static final Budget DEFAULT_BUDGET = new Budget("Standard", 0, 20, MemoryCategory.NORMAL,
+            C.LENGTH_UNSET, 50_000, 4);
+
+    private final Context appContext;
+    private final Budget budget;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int lastTrimLevel = -1;
+    private long lastTrimTimeMs = 0;
+    private boolean reduced = false;
+
+    private final Runnable restoreRunnable = this::restore;
+
+    private MemoryGovernor(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.budget = pickBudget(appContext);
+        appContext.registerComponentCallbacks(this);
+        Log.d(TAG, "Memory budget: " + describe());
+    }
+
+    public static synchronized MemoryGovernor getInstance(Context context) {
+        if (instance == null) {
+            instance = new MemoryGovernor(context);
+            instance.restore();
+        }
+        return instance;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Thread pool for a repository. Capped by the budget, and idle threads exit so the
+     * pool costs nothing while the screen that uses it is quiet.
+     */
+    public static ExecutorService newThreadPool(int threads) {
+        Budget current;
+        synchronized (MemoryGovernor.class) {
+            current = instance != null ? instance.budget : DEFAULT_BUDGET;
+        }
+        int size = Math.max(1, Math.min(threads, current.maxPoolThreads));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size,
+                POOL_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        lastTrimLevel = level;
+        lastTrimTimeMs = System.currentTimeMillis();
+        Log.i(TAG, "onTrimMemory " + levelName(level));
+
+        if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            // Nothing is on screen (or the system is about to kill us): drop everything rebuildable
+            TMDBRepository.getInstance().trimCache(0);
+            Glide.get(appContext).clearMemory();
+            releasePausedPlayerBuffers();
+        } else if (level == TRIM_MEMORY_RUNNING_LOW) {
+            TMDBRepository.getInstance().trimCache(budget.tmdbCacheEntries / 4);
+            Glide.get(appContext).setMemoryCategory(MemoryCategory.LOW);
+            reduced = true;
+        } else if (level == TRIM_MEMORY_RUNNING_MODERATE) {
+            TMDBRepository.getInstance().trimCache(budget.tmdbCacheEntries / 2);
+            reduced = true;
+        } else if (level == TRIM_MEMORY_UI_HIDDEN) {
+            // Images for screens the user can't see are the first thing to go
+            Glide.get(appContext).clearMemory();
+        }
+
+        if (reduced) {
+            mainHandler.removeCallbacks(restoreRunnable);
+            mainHandler.postDelayed(restoreRunnable, RESTORE_DELAY_MS);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+
+    /**
+     * Budget and trim state as shown in Settings
+     */
+    public String describe() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Tier: ").append(budget.tier)
+                .append(" (heap limit ").append(budget.heapLimitMb).append(" MB)");
+        builder.append("\nTMDB cache: ").append(budget.tmdbCacheEntries).append(" responses");
+        builder.append("\nImage cache: ")
+                .append(budget.imageMemoryCategory == MemoryCategory.LOW ? "reduced" : "normal");
+        builder.append("\nPlayer buffer: ")
+                .append(budget.playerBufferBytes == C.LENGTH_UNSET
+                        ? "default" : budget.playerBufferBytes / (1024 * 1024) + " MB")
+                .append(", up to ").append(budget.playerMaxBufferMs / 1000).append(" s");
+        builder.append("\nThread pools: up to ").append(budget.maxPoolThreads).append(" threads");
+        if (lastTrimLevel >= 0) {
+            long minutesAgo = (System.currentTimeMillis() - lastTrimTimeMs) / 60_000;
+            builder.append("\nLast trim: ").append(levelName(lastTrimLevel))
+                    .append(" (").append(minutesAgo).append(" min ago)");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Back to the full budget once foreground pressure has passed
+     */
+    private void restore() {
+        reduced = false;
+        Glide.get(appContext).setMemoryCategory(budget.imageMemoryCategory);
+        TMDBRepository.getInstance().setMaxCacheEntries(budget.tmdbCacheEntries);
+    }
+
+    /**
+     * A paused player in the background still holds its buffers and decoders. Stopping it keeps
+     * the playlist and position, and the player screen re-prepares when it comes back.
+     * Never interrupt something the user is watching or listening to.
+     */
+    private void releasePausedPlayerBuffers() {
+        PlayerHolder playerHolder = PlayerHolder.getInstance(appContext);
+        if (playerHolder.hasPlayer()) {
+            playerHolder.releaseBuffersIfPaused();
+        }
+    }
+
+    private static Budget pickBudget(Context context) {
+        ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        int heapLimitMb = activityManager.getMemoryClass();
+
+        if (activityManager.isLowRamDevice() || memoryInfo.totalMem <= LOW_RAM_TOTAL_BYTES) {
+            return new Budget("Low memory", heapLimitMb, 8, MemoryCategory.LOW,
+                    24 * 1024 * 1024, 30_000, 2);
+        }
+        return new Budget(DEFAULT_BUDGET.tier, heapLimitMb, DEFAULT_BUDGET.tmdbCacheEntries,
+                DEFAULT_BUDGET.imageMemoryCategory, DEFAULT_BUDGET.playerBufferBytes,
+                DEFAULT_BUDGET.playerMaxBufferMs, DEFAULT_BUDGET.maxPoolThreads);
+    }
+
+    private static String levelName(int level) {
+        switch (level) {
+            case TRIM_MEMORY_RUNNING_MODERATE:
+                return "running moderate";
+            case TRIM_MEMORY_RUNNING_LOW:
+                return "running low";
+            case TRIM_MEMORY_RUNNING_CRITICAL:
+                return "running critical";
+            case TRIM_MEMORY_UI_HIDDEN:
+                return "UI hidden";
+            case TRIM_MEMORY_BACKGROUND:
+                return "background";
+            case TRIM_MEMORY_MODERATE:
+                return "moderate";
+            case TRIM_MEMORY_COMPLETE:
+                return "complete";
+            default:
+                return String.valueOf(level);
+        }
+    }
+}
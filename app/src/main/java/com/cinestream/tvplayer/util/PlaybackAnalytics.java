@@ -0,0 +1,197 @@
+package com.cinestream.tvplayer.util;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.media3.common.Format;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DecoderReuseEvaluation;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+
+import com.cinestream.tvplayer.data.model.PlaybackSession;
+import com.cinestream.tvplayer.data.repository.PlaybackStatsStore;
+
+/**
+ * Collects QoE metrics for the current playback session from ExoPlayer's analytics callbacks.
+ * A session runs from startSession() until the next startSession() or endSession(),
+ * and is written to PlaybackStatsStore when it ends.
+ */
+@UnstableApi
+public class PlaybackAnalytics implements AnalyticsListener {
+    private static final String TAG = "PlaybackAnalytics";
+
+    private final PlaybackStatsStore statsStore;
+
+    private PlaybackSession session;
+    private long sessionStartMs;
+    private boolean firstFrameRendered;
+    private boolean seeking;
+    private long rebufferStartMs = -1;
+
+    // Time-weighted bitrate accounting
+    private int currentBitrate = Format.NO_VALUE;
+    private boolean playing;
+    private long lastSampleMs;
+    private long playTimeMs;
+    private double bitrateTimeProduct;
+    private long bitrateTimeMs;
+
+    public PlaybackAnalytics(Context context) {
+        this.statsStore = PlaybackStatsStore.getInstance(context);
+    }
+
+    /**
+     * Begin a new session; any session in progress is ended first.
+     * isPlaying is the player's current state, since a session started mid-playback
+     * (e.g. on failover) gets no onIsPlayingChanged until playback next stops.
+     */
+    public void startSession(String mediaId, String provider, boolean isPlaying) {
+        endSession();
+
+        session = new PlaybackSession();
+        session.setMediaId(mediaId);
+        session.setProvider(provider);
+        session.setStartedAt(System.currentTimeMillis());
+
+        sessionStartMs = SystemClock.elapsedRealtime();
+        firstFrameRendered = false;
+        seeking = false;
+        rebufferStartMs = -1;
+        currentBitrate = Format.NO_VALUE;
+        playing = isPlaying;
+        lastSampleMs = sessionStartMs;
+        playTimeMs = 0;
+        bitrateTimeProduct = 0;
+        bitrateTimeMs = 0;
+    }
+
+    /**
+     * Finish the current session and store it
+     */
+    public void endSession() {
+        if (session == null) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        sampleBitrate(now);
+        if (rebufferStartMs >= 0) {
+            session.setRebufferDurationMs(session.getRebufferDurationMs() + now - rebufferStartMs);
+            rebufferStartMs = -1;
+        }
+        session.setPlayTimeMs(playTimeMs);
+        if (bitrateTimeMs > 0) {
+            session.setAverageBitrate((int) (bitrateTimeProduct / bitrateTimeMs));
+        }
+
+        Log.d(TAG, "Session ended for " + session.getProvider() + ": TTFF " + session.getTimeToFirstFrameMs() +
+                " ms, " + session.getRebufferCount() + " rebuffers, " + session.getDroppedFrames() + " dropped");
+        statsStore.recordSession(session);
+        session = null;
+    }
+
+    /**
+     * The user or the app moved playback to a different server
+     */
+    public void recordFailover() {
+        if (session != null) {
+            session.setFailoverCount(session.getFailoverCount() + 1);
+        }
+    }
+
+    private void sampleBitrate(long now) {
+        if (playing) {
+            long elapsed = now - lastSampleMs;
+            playTimeMs += elapsed;
+            if (currentBitrate > 0) {
+                bitrateTimeProduct += (double) currentBitrate * elapsed;
+                bitrateTimeMs += elapsed;
+            }
+        }
+        lastSampleMs = now;
+    }
+
+    @Override
+    public void onRenderedFirstFrame(EventTime eventTime, Object output, long renderTimeMs) {
+        if (session != null && !firstFrameRendered) {
+            firstFrameRendered = true;
+            session.setTimeToFirstFrameMs(SystemClock.elapsedRealtime() - sessionStartMs);
+        }
+    }
+
+    @Override
+    public void onPlaybackStateChanged(EventTime eventTime, int state) {
+        if (session == null) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        if (state == Player.STATE_BUFFERING) {
+            // Buffering caused by startup or a seek is not a stall
+            if (firstFrameRendered && !seeking && rebufferStartMs < 0) {
+                rebufferStartMs = now;
+                session.setRebufferCount(session.getRebufferCount() + 1);
+            }
+        } else {
+            if (rebufferStartMs >= 0) {
+                session.setRebufferDurationMs(session.getRebufferDurationMs() + now - rebufferStartMs);
+                rebufferStartMs = -1;
+            }
+            if (state == Player.STATE_READY) {
+                // The seek's buffering, if it had any, is over
+                seeking = false;
+            }
+        }
+    }
+
+    @Override
+    public void onPositionDiscontinuity(EventTime eventTime, Player.PositionInfo oldPosition,
+                                        Player.PositionInfo newPosition, int reason) {
+        // Any later discontinuity replaces the flag rather than leaving an old seek's set
+        seeking = reason == Player.DISCONTINUITY_REASON_SEEK;
+    }
+
+    @Override
+    public void onEvents(Player player, Events events) {
+        // A seek served from the buffer never leaves READY, so no state change would clear it
+        if (seeking && player.getPlaybackState() == Player.STATE_READY) {
+            seeking = false;
+        }
+    }
+
+    @Override
+    public void onIsPlayingChanged(EventTime eventTime, boolean isPlaying) {
+        sampleBitrate(SystemClock.elapsedRealtime());
+        playing = isPlaying;
+    }
+
+    @Override
+    public void onDroppedVideoFrames(EventTime eventTime, int droppedFrames, long elapsedMs) {
+        if (session != null) {
+            session.setDroppedFrames(session.getDroppedFrames() + droppedFrames);
+        }
+    }
+
+    @Override
+    public void onVideoInputFormatChanged(EventTime eventTime, Format format,
+                                          @Nullable DecoderReuseEvaluation decoderReuseEvaluation) {
+        if (session == null) {
+            return;
+        }
+        sampleBitrate(SystemClock.elapsedRealtime());
+        int bitrate = format.bitrate != Format.NO_VALUE ? format.bitrate : format.peakBitrate;
+        if (currentBitrate != Format.NO_VALUE && bitrate != currentBitrate) {
+            session.setBitrateSwitches(session.getBitrateSwitches() + 1);
+        }
+        currentBitrate = bitrate;
+    }
+
+    @Override
+    public void onPlayerError(EventTime eventTime, PlaybackException error) {
+        if (session != null) {
+            session.setErrorCount(session.getErrorCount() + 1);
+        }
+    }
+}
@@ -0,0 +1,730 @@
+package com.cinestream.tvplayer.util;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.media.MediaMetadataRetriever;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.cinestream.tvplayer.api.HttpClientProvider;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Builds low-resolution preview frames for seekbar scrubbing and keeps them as one JPEG sprite
+ * sheet per stream on disk.
+ * A cached sheet is used straight away; building a new one fetches stream data, so it waits for
+ * requestGeneration() and leaves a gap between frames to stay out of playback's way.
+ * HLS streams use the I-frame playlist when the master playlist advertises one, otherwise the
+ * first bytes of sparse media segments (which start on a keyframe). Progressive files are sampled
+ * with MediaMetadataRetriever. Frames are filled in coarse-to-fine so the whole timeline has a
+ * rough preview quickly. DASH is not sampled.
+ */
+public class SeekPreviewCache {
+    private static final String TAG = "SeekPreviewCache";
+    private static final String CACHE_DIR = "seek_previews";
+    private static final long MAX_CACHE_BYTES = 20 * 1024 * 1024;
+    private static final int TILE_WIDTH = 160;
+    private static final int TILE_HEIGHT = 90;
+    private static final int COLUMNS = 10;
+    private static final int MAX_TILES = 100;
+    private static final long MIN_INTERVAL_MS = 10_000;
+    // Enough of a segment to contain its leading keyframe at preview-friendly bitrates
+    private static final long SEGMENT_HEAD_BYTES = 512 * 1024;
+    // PAT + PMT, needed to demux an I-frame byte range cut from the middle of a TS segment
+    private static final int TS_HEADER_BYTES = 2 * 188;
+    private static final int JPEG_QUALITY = 70;
+    // Pause between two frames while generating, so startup and ABR keep most of the bandwidth
+    private static final long FRAME_FETCH_GAP_MS = 300;
+
+    private static final Pattern ATTR_URI = Pattern.compile("URI=\"([^\"]+)\"");
+    private static final Pattern ATTR_BANDWIDTH = Pattern.compile("BANDWIDTH=(\\d+)");
+    private static final Pattern BYTERANGE = Pattern.compile("#EXT-X-BYTERANGE:(\\d+)(?:@(\\d+))?");
+    private static final Pattern ATTR_BYTERANGE = Pattern.compile("BYTERANGE=\"(\\d+)(?:@(\\d+))?\"");
+
+    private static SeekPreviewCache instance;
+    private final File cacheDir;
+    private final ExecutorService executorService;
+    private final Handler mainHandler;
+    // Bumped on every load/cancel so stale generation work stops at the next frame
+    private final AtomicInteger generation = new AtomicInteger();
+    private final Object pendingLock = new Object();
+    // Generation for the current stream, held back until requestGeneration()
+    private Runnable pendingGeneration;
+    private boolean generationRequested = false;
+    // Screen that made the current load; others can't request or cancel its generation
+    private Object owner;
+
+    public interface PreviewListener {
+        /**
+         * Called on the main thread whenever more frames become available
+         */
+        void onPreviewsUpdated(Sprite sprite);
+    }
+
+    private SeekPreviewCache(Context context) {
+        this.cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR);
+        this.executorService = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static synchronized SeekPreviewCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new SeekPreviewCache(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Load the sprite for a stream from disk, or start generating it. Any previous load is
+     * cancelled and the new owner takes over.
+     */
+    public Sprite load(Object newOwner, String streamUrl, long durationMs, PreviewListener listener) {
+        int token = generation.incrementAndGet();
+        synchronized (pendingLock) {
+            owner = newOwner;
+            pendingGeneration = null;
+            generationRequested = false;
+        }
+        if (streamUrl == null || durationMs <= 0) {
+            return null;
+        }
+        int count = (int) Math.max(1, Math.min(MAX_TILES, durationMs / MIN_INTERVAL_MS));
+        Sprite sprite = new Sprite(durationMs / count, count);
+        executorService.execute(() -> {
+            if (token != generation.get()) {
+                return;
+            }
+            String key = keyFor(streamUrl);
+            if (readFromDisk(key, sprite)) {
+                notifyUpdated(sprite, listener, token);
+                return;
+            }
+            Runnable task = () -> generate(streamUrl, key, sprite, listener, token);
+            synchronized (pendingLock) {
+                if (token != generation.get()) {
+                    return;
+                }
+                if (!generationRequested) {
+                    pendingGeneration = task;
+                    return;
+                }
+            }
+            task.run();
+        });
+        return sprite;
+    }
+
+    /**
+     * Let frames for the current stream be built if they aren't cached, e.g. on the first scrub
+     * or once playback has a healthy buffer
+     */
+    public void requestGeneration(Object requestingOwner) {
+        Runnable task;
+        synchronized (pendingLock) {
+            if (requestingOwner != owner) {
+                return;
+            }
+            generationRequested = true;
+            task = pendingGeneration;
+            pendingGeneration = null;
+        }
+        if (task != null) {
+            executorService.execute(task);
+        }
+    }
+
+    /**
+     * Stop any generation in progress, unless another screen has loaded a stream since
+     */
+    public void cancel(Object releasingOwner) {
+        synchronized (pendingLock) {
+            if (releasingOwner != owner) {
+                Log.d(TAG, "Previews were taken over by another screen, not cancelling");
+                return;
+            }
+            owner = null;
+            generation.incrementAndGet();
+            pendingGeneration = null;
+        }
+    }
+
+    public void clear() {
+        executorService.execute(() -> {
+            File[] files = cacheDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    private void generate(String streamUrl, String key, Sprite sprite, PreviewListener listener, int token) {
+        String path = Uri.parse(streamUrl).getPath();
+        String lower = path != null ? path.toLowerCase(Locale.US) : "";
+        boolean complete;
+        try {
+            if (lower.endsWith(".m3u8") || lower.contains("m3u8")) {
+                complete = generateFromHls(streamUrl, sprite, listener, token);
+            } else if (lower.endsWith(".mpd")) {
+                Log.d(TAG, "No preview frames for DASH streams");
+                return;
+            } else {
+                complete = generateFromProgressive(streamUrl, sprite, listener, token);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error generating previews for " + streamUrl, e);
+            return;
+        }
+        if (complete && token == generation.get()) {
+            writeToDisk(key, sprite);
+        }
+    }
+
+    private boolean generateFromProgressive(String url, Sprite sprite, PreviewListener listener, int token) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            Map<String, String> headers = new HashMap<>();
+            headers.put("User-Agent", HttpClientProvider.USER_AGENT);
+            retriever.setDataSource(url, headers);
+            for (int index : sampleOrder(sprite.count)) {
+                if (!pauseBetweenFrames(token)) {
+                    return false;
+                }
+                long timeUs = index * sprite.intervalMs * 1000;
+                Bitmap frame;
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+                    frame = retriever.getScaledFrameAtTime(timeUs, MediaMetadataRetriever.OPTION_CLOSEST_SYNC,
+                            TILE_WIDTH, TILE_HEIGHT);
+                } else {
+                    frame = retriever.getFrameAtTime(timeUs, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+                }
+                addFrame(sprite, index, frame, listener, token);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Cannot sample frames from " + url + ": " + e.getMessage());
+            return false;
+        } finally {
+            releaseQuietly(retriever);
+        }
+    }
+
+    private boolean generateFromHls(String url, Sprite sprite, PreviewListener listener, int token) throws IOException {
+        String playlist = fetchText(url);
+        if (playlist == null) {
+            return false;
+        }
+        boolean iFrameOnly = false;
+        String mediaPlaylistUrl = url;
+        if (playlist.contains("#EXT-X-STREAM-INF")) {
+            String iFrameUrl = pickLowestBandwidth(playlist, url, "#EXT-X-I-FRAME-STREAM-INF");
+            if (iFrameUrl != null) {
+                mediaPlaylistUrl = iFrameUrl;
+                iFrameOnly = true;
+            } else {
+                mediaPlaylistUrl = pickLowestBandwidth(playlist, url, "#EXT-X-STREAM-INF");
+            }
+            playlist = mediaPlaylistUrl != null ? fetchText(mediaPlaylistUrl) : null;
+            if (playlist == null) {
+                return false;
+            }
+        }
+
+        MediaPlaylist mediaPlaylist = parseMediaPlaylist(playlist, mediaPlaylistUrl);
+        List<Segment> segments = mediaPlaylist.segments;
+        if (segments.isEmpty()) {
+            return false;
+        }
+        Log.d(TAG, "Sampling " + (iFrameOnly ? "I-frame playlist" : "segment heads") + " (" + segments.size() + " entries)");
+
+        File temp = new File(cacheDir, "frame.tmp");
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            return false;
+        }
+        try {
+            for (int index : sampleOrder(sprite.count)) {
+                if (!pauseBetweenFrames(token)) {
+                    return false;
+                }
+                Segment segment = segmentAt(segments, index * sprite.intervalMs);
+                if (!downloadFrameBytes(mediaPlaylist.initSegment, segment, iFrameOnly, temp)) {
+                    continue;
+                }
+                addFrame(sprite, index, decodeFirstFrame(temp), listener, token);
+            }
+        } finally {
+            temp.delete();
+        }
+        return true;
+    }
+
+    /**
+     * Write the bytes needed to decode one keyframe of the segment into the file
+     */
+    private boolean downloadFrameBytes(Segment initSegment, Segment segment, boolean iFrameOnly, File target) throws IOException {
+        try (OutputStream out = new FileOutputStream(target)) {
+            if (initSegment != null) {
+                // fMP4: the init segment carries the codec configuration
+                long initLength = initSegment.length > 0 ? initSegment.length : SEGMENT_HEAD_BYTES;
+                if (!download(initSegment.url, Math.max(0, initSegment.offset), initLength, out)) {
+                    return false;
+                }
+            }
+            if (iFrameOnly && segment.length > 0) {
+                if (initSegment == null && segment.offset > 0 && !download(segment.url, 0, TS_HEADER_BYTES, out)) {
+                    return false;
+                }
+                return download(segment.url, segment.offset, segment.length, out);
+            }
+            long length = segment.length > 0 ? Math.min(segment.length, SEGMENT_HEAD_BYTES) : SEGMENT_HEAD_BYTES;
+            return download(segment.url, Math.max(0, segment.offset), length, out);
+        }
+    }
+
+    private Bitmap decodeFirstFrame(File file) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(file.getAbsolutePath());
+            return retriever.getFrameAtTime(0, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+        } catch (RuntimeException e) {
+            return null;
+        } finally {
+            releaseQuietly(retriever);
+        }
+    }
+
+    /**
+     * Wait FRAME_FETCH_GAP_MS before the next frame; false if generation was cancelled meanwhile
+     */
+    private boolean pauseBetweenFrames(int token) {
+        try {
+            Thread.sleep(FRAME_FETCH_GAP_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return token == generation.get();
+    }
+
+    private void addFrame(Sprite sprite, int index, Bitmap frame, PreviewListener listener, int token) {
+        if (frame == null) {
+            return;
+        }
+        // Scaled into a tile of its own, which is complete before the UI can see it
+        Bitmap tile = Bitmap.createBitmap(TILE_WIDTH, TILE_HEIGHT, Bitmap.Config.RGB_565);
+        new Canvas(tile).drawBitmap(frame, null, new Rect(0, 0, TILE_WIDTH, TILE_HEIGHT), null);
+        frame.recycle();
+        sprite.setTile(index, tile);
+        notifyUpdated(sprite, listener, token);
+    }
+
+    private void notifyUpdated(Sprite sprite, PreviewListener listener, int token) {
+        if (listener == null) {
+            return;
+        }
+        mainHandler.post(() -> {
+            if (token == generation.get()) {
+                listener.onPreviewsUpdated(sprite);
+            }
+        });
+    }
+
+    /**
+     * Tile indices in coarse-to-fine order: every 16th, then every 8th, and so on
+     */
+    static int[] sampleOrder(int count) {
+        int[] order = new int[count];
+        boolean[] taken = new boolean[count];
+        int next = 0;
+        for (int stride = Integer.highestOneBit(Math.max(1, count)); stride >= 1; stride /= 2) {
+            for (int i = 0; i < count; i += stride) {
+                if (!taken[i]) {
+                    taken[i] = true;
+                    order[next++] = i;
+                }
+            }
+        }
+        return order;
+    }
+
+    private String pickLowestBandwidth(String playlist, String baseUrl, String tag) {
+        String best = null;
+        long bestBandwidth = Long.MAX_VALUE;
+        String[] lines = playlist.split("\\r?\\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (!line.startsWith(tag + ":")) {
+                continue;
+            }
+            Matcher bandwidthMatcher = ATTR_BANDWIDTH.matcher(line);
+            long bandwidth = bandwidthMatcher.find() ? Long.parseLong(bandwidthMatcher.group(1)) : Long.MAX_VALUE - 1;
+            String uri = null;
+            Matcher uriMatcher = ATTR_URI.matcher(line);
+            if (uriMatcher.find()) {
+                uri = uriMatcher.group(1);
+            } else if (i + 1 < lines.length && !lines[i + 1].trim().startsWith("#")) {
+                uri = lines[i + 1].trim();
+            }
+            if (uri != null && !uri.isEmpty() && bandwidth < bestBandwidth) {
+                bestBandwidth = bandwidth;
+                best = resolve(baseUrl, uri);
+            }
+        }
+        return best;
+    }
+
+    private MediaPlaylist parseMediaPlaylist(String playlist, String baseUrl) {
+        MediaPlaylist result = new MediaPlaylist();
+        List<Segment> segments = result.segments;
+        long timeMs = 0;
+        long durationMs = 0;
+        long length = -1;
+        long offset = -1;
+        long nextOffset = 0;
+        String lastUrl = null;
+        for (String rawLine : playlist.split("\\r?\\n")) {
+            String line = rawLine.trim();
+            if (line.startsWith("#EXT-X-MAP:")) {
+                Matcher uriMatcher = ATTR_URI.matcher(line);
+                if (uriMatcher.find()) {
+                    Matcher rangeMatcher = ATTR_BYTERANGE.matcher(line);
+                    boolean ranged = rangeMatcher.find();
+                    result.initSegment = new Segment(resolve(baseUrl, uriMatcher.group(1)), 0,
+                            ranged && rangeMatcher.group(2) != null ? Long.parseLong(rangeMatcher.group(2)) : 0,
+                            ranged ? Long.parseLong(rangeMatcher.group(1)) : -1);
+                }
+            } else if (line.startsWith("#EXTINF:")) {
+                String value = line.substring(8);
+                int comma = value.indexOf(',');
+                try {
+                    durationMs = (long) (Double.parseDouble(comma >= 0 ? value.substring(0, comma) : value) * 1000);
+                } catch (NumberFormatException e) {
+                    durationMs = 0;
+                }
+            } else if (line.startsWith("#EXT-X-BYTERANGE:")) {
+                Matcher matcher = BYTERANGE.matcher(line);
+                if (matcher.find()) {
+                    length = Long.parseLong(matcher.group(1));
+                    offset = matcher.group(2) != null ? Long.parseLong(matcher.group(2)) : -1;
+                }
+            } else if (!line.isEmpty() && !line.startsWith("#")) {
+                String url = resolve(baseUrl, line);
+                if (length > 0 && offset < 0) {
+                    // Byte range continues from the end of the previous one on the same resource
+                    offset = url.equals(lastUrl) ? nextOffset : 0;
+                }
+                segments.add(new Segment(url, timeMs, offset, length));
+                nextOffset = length > 0 ? offset + length : 0;
+                lastUrl = url;
+                timeMs += durationMs;
+                durationMs = 0;
+                length = -1;
+                offset = -1;
+            }
+        }
+        return result;
+    }
+
+    private static Segment segmentAt(List<Segment> segments, long timeMs) {
+        Segment match = segments.get(0);
+        for (Segment segment : segments) {
+            if (segment.startMs > timeMs) {
+                break;
+            }
+            match = segment;
+        }
+        return match;
+    }
+
+    private static String resolve(String baseUrl, String uri) {
+        try {
+            return new java.net.URL(new java.net.URL(baseUrl), uri).toString();
+        } catch (java.net.MalformedURLException e) {
+            return uri;
+        }
+    }
+
+    private String fetchText(String url) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .header("User-Agent", HttpClientProvider.USER_AGENT)
+                .build();
+        try (Response response = HttpClientProvider.getInstance().getClient().newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                Log.w(TAG, "Playlist request failed (" + response.code() + "): " + url);
+                return null;
+            }
+            return body.string();
+        }
+    }
+
+    private boolean download(String url, long offset, long length, OutputStream out) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .header("User-Agent", HttpClientProvider.USER_AGENT)
+                .header("Range", "bytes=" + offset + "-" + (offset + length - 1))
+                .build();
+        try (Response response = HttpClientProvider.getInstance().getClient().newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                return false;
+            }
+            // Servers that ignore Range send the whole file; stop after the bytes we asked for
+            long remaining = length;
+            if (response.code() != 206 && offset > 0) {
+                return false;
+            }
+            try (InputStream in = body.byteStream()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+            return true;
+        }
+    }
+
+    private boolean readFromDisk(String key, Sprite sprite) {
+        File image = new File(cacheDir, key + ".jpg");
+        File meta = new File(cacheDir, key + ".meta");
+        if (!image.exists() || !meta.exists()) {
+            return false;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(meta)) {
+            properties.load(in);
+            if (Integer.parseInt(properties.getProperty("count", "0")) != sprite.count
+                    || Long.parseLong(properties.getProperty("interval", "0")) != sprite.intervalMs) {
+                return false;
+            }
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+            Bitmap sheet = BitmapFactory.decodeFile(image.getAbsolutePath(), options);
+            if (sheet == null) {
+                return false;
+            }
+            String readyFlags = properties.getProperty("ready", "");
+            Rect rect = new Rect();
+            for (int i = 0; i < sprite.count && i < readyFlags.length(); i++) {
+                if (readyFlags.charAt(i) == '1') {
+                    Sprite.tileRect(i, rect);
+                    sprite.setTile(i, Bitmap.createBitmap(sheet, rect.left, rect.top, rect.width(), rect.height()));
+                }
+            }
+            sheet.recycle();
+            image.setLastModified(System.currentTimeMillis());
+            meta.setLastModified(System.currentTimeMillis());
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w(TAG, "Discarding unreadable preview sprite " + key);
+            return false;
+        }
+    }
+
+    private void writeToDisk(String key, Sprite sprite) {
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            return;
+        }
+        File image = new File(cacheDir, key + ".jpg");
+        File meta = new File(cacheDir, key + ".meta");
+        File tempImage = new File(cacheDir, key + ".jpg.tmp");
+        Bitmap[] tiles = sprite.getTiles();
+        boolean hasTiles = false;
+        for (Bitmap tile : tiles) {
+            hasTiles |= tile != null;
+        }
+        if (!hasTiles) {
+            return;
+        }
+        Bitmap sheet = null;
+        try {
+            StringBuilder readyFlags = new StringBuilder(sprite.count);
+            int rows = (sprite.count + COLUMNS - 1) / COLUMNS;
+            sheet = Bitmap.createBitmap(TILE_WIDTH * COLUMNS, TILE_HEIGHT * rows, Bitmap.Config.RGB_565);
+            Canvas canvas = new Canvas(sheet);
+            Rect rect = new Rect();
+            for (int i = 0; i < tiles.length; i++) {
+                if (tiles[i] != null) {
+                    Sprite.tileRect(i, rect);
+                    canvas.drawBitmap(tiles[i], null, rect, null);
+                }
+                readyFlags.append(tiles[i] != null ? '1' : '0');
+            }
+            try (OutputStream out = new FileOutputStream(tempImage)) {
+                sheet.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+            }
+            Properties properties = new Properties();
+            properties.setProperty("count", String.valueOf(sprite.count));
+            properties.setProperty("interval", String.valueOf(sprite.intervalMs));
+            properties.setProperty("ready", readyFlags.toString());
+            try (OutputStream out = new FileOutputStream(meta)) {
+                properties.store(out, null);
+            }
+            if (!tempImage.renameTo(image)) {
+                throw new IOException("Could not move preview sprite into cache");
+            }
+            Log.d(TAG, "Cached preview sprite (" + image.length() + " bytes)");
+            trimToSize();
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing preview sprite", e);
+            meta.delete();
+        } finally {
+            tempImage.delete();
+            if (sheet != null) {
+                sheet.recycle();
+            }
+        }
+    }
+
+    /**
+     * Delete least recently used sprites until the cache fits in MAX_CACHE_BYTES
+     */
+    private void trimToSize() {
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (total <= MAX_CACHE_BYTES) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private static void releaseQuietly(MediaMetadataRetriever retriever) {
+        try {
+            retriever.release();
+        } catch (Exception e) {
+            // Nothing useful to do
+        }
+    }
+
+    private static String keyFor(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return String.valueOf(url.hashCode());
+        }
+    }
+
+    private static class MediaPlaylist {
+        final List<Segment> segments = new ArrayList<>();
+        Segment initSegment;
+    }
+
+    private static class Segment {
+        final String url;
+        final long startMs;
+        final long offset;
+        final long length;
+
+        Segment(String url, long startMs, long offset, long length) {
+            this.url = url;
+            this.startMs = startMs;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Preview frames for one stream, one tile per interval.
+     * On disk the tiles are laid out as a grid in a single sheet.
+     */
+    public static class Sprite {
+        private final long intervalMs;
+        private final int count;
+        // A tile is never drawn into once it is set, so the UI can draw it without locking
+        private final Bitmap[] tiles;
+
+        Sprite(long intervalMs, int count) {
+            this.intervalMs = Math.max(1, intervalMs);
+            this.count = count;
+            this.tiles = new Bitmap[count];
+        }
+
+        public int getTileWidth() {
+            return TILE_WIDTH;
+        }
+
+        public int getTileHeight() {
+            return TILE_HEIGHT;
+        }
+
+        /**
+         * Nearest available frame at or before the position, or null if none is ready
+         */
+        public synchronized Bitmap findTile(long positionMs) {
+            int index = (int) Math.min(count - 1, Math.max(0, positionMs / intervalMs));
+            for (int i = index; i >= 0; i--) {
+                if (tiles[i] != null) {
+                    return tiles[i];
+                }
+            }
+            return null;
+        }
+
+        synchronized void setTile(int index, Bitmap tile) {
+            tiles[index] = tile;
+        }
+
+        synchronized Bitmap[] getTiles() {
+            return tiles.clone();
+        }
+
+        static void tileRect(int index, Rect out) {
+            int left = (index % COLUMNS) * TILE_WIDTH;
+            int top = (index / COLUMNS) * TILE_HEIGHT;
+            out.set(left, top, left + TILE_WIDTH, top + TILE_HEIGHT);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.cinestream.tvplayer.util;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.MimeTypes;
+
+import com.cinestream.tvplayer.api.HttpClientProvider;
+import com.cinestream.tvplayer.data.model.MediaItems;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Size-bounded disk cache for subtitle files, keyed by a hash of the source URL.
+ * Tracks are prefetched in parallel as soon as stream sources are resolved, so the player
+ * can be handed local files and never waits on third-party subtitle hosts.
+ * Text formats are converted to WebVTT once by SubtitleConverter before they are cached.
+ * Which tracks are cached is kept in memory, indexed from disk in the background, so lookups
+ * on the main thread never touch the file system.
+ */
+public class SubtitleCache {
+    private static final String TAG = "SubtitleCache";
+    private static final String CACHE_DIR = "subtitles";
+    private static final long MAX_CACHE_BYTES = 20 * 1024 * 1024;
+    // Anything larger is almost certainly not a subtitle file
+    private static final long MAX_FILE_BYTES = 4 * 1024 * 1024;
+    private static final int DOWNLOAD_THREADS = 3;
+    // Converted files are WebVTT; XML formats (TTML) are stored as downloaded
+    private static final String CONVERTED_SUFFIX = ".vtt";
+    private static final String PASSTHROUGH_SUFFIX = ".ttml";
+
+    private static SubtitleCache instance;
+    private final File cacheDir;
+    private final ExecutorService executorService;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Callbacks waiting on each in-flight download, guarded by itself
+    private final Map<String, List<Callback>> inFlight = new HashMap<>();
+    // Cache key to cached file
+    private final Map<String, File> index = new ConcurrentHashMap<>();
+    private final CountDownLatch indexed = new CountDownLatch(1);
+
+    public interface Callback {
+        void onSuccess(File file);
+        void onError(String error);
+    }
+
+    private SubtitleCache(Context context) {
+        this.cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR);
+        this.executorService = Executors.newFixedThreadPool(DOWNLOAD_THREADS);
+        executorService.execute(this::buildIndex);
+    }
+
+    public static synchronized SubtitleCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new SubtitleCache(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Start downloading every track that is not cached yet; returns immediately
+     */
+    public void prefetch(List<MediaItems.SubtitleItem> subtitles) {
+        if (subtitles == null) {
+            return;
+        }
+        for (MediaItems.SubtitleItem subtitle : subtitles) {
+            prefetch(subtitle.getUrl());
+        }
+    }
+
+    /**
+     * Start downloading a single track if it is not cached or already downloading
+     */
+    public void prefetch(String url) {
+        fetch(url, null);
+    }
+
+    /**
+     * Download a single track into the cache, joining any download already running for it.
+     * The callback, if any, is invoked on the main thread.
+     */
+    public void fetch(String url, Callback callback) {
+        if (url == null || url.isEmpty()) {
+            if (callback != null) {
+                callback.onError("No subtitle URL");
+            }
+            return;
+        }
+        File cached = getCachedFile(url);
+        if (cached != null) {
+            if (callback != null) {
+                // Always called back later, so callers never see it run inside fetch()
+                mainHandler.post(() -> callback.onSuccess(cached));
+            }
+            return;
+        }
+        synchronized (inFlight) {
+            List<Callback> waiting = inFlight.get(url);
+            if (waiting != null) {
+                if (callback != null) {
+                    waiting.add(callback);
+                }
+                return;
+            }
+            waiting = new ArrayList<>();
+            if (callback != null) {
+                waiting.add(callback);
+            }
+            inFlight.put(url, waiting);
+        }
+        executorService.execute(() -> {
+            List<Callback> waiting;
+            try {
+                awaitIndexed();
+                if (!index.containsKey(keyFor(url))) {
+                    download(url);
+                }
+            } finally {
+                synchronized (inFlight) {
+                    waiting = inFlight.remove(url);
+                }
+            }
+            if (waiting == null || waiting.isEmpty()) {
+                return;
+            }
+            List<Callback> callbacks = waiting;
+            File file = getCachedFile(url);
+            mainHandler.post(() -> {
+                for (Callback waiter : callbacks) {
+                    if (file != null) {
+                        waiter.onSuccess(file);
+                    } else {
+                        waiter.onError("Subtitle could not be downloaded");
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Cached file for the URL, or null when it has not been downloaded (or the index is still
+     * being built). Served from memory.
+     */
+    @Nullable
+    public File getCachedFile(String url) {
+        if (url == null) {
+            return null;
+        }
+        File file = index.get(keyFor(url));
+        if (file != null) {
+            // Last-modified doubles as the LRU timestamp
+            long now = System.currentTimeMillis();
+            executorService.execute(() -> file.setLastModified(now));
+        }
+        return file;
+    }
+
+    /**
+     * Subtitle configuration for the cached file, or null when the track is not cached yet.
+     * Remote URLs are never handed out, so the player never loads subtitles over the network.
+     */
+    @Nullable
+    public MediaItem.SubtitleConfiguration.Builder buildConfiguration(String url) {
+        File file = getCachedFile(url);
+        if (file == null) {
+            return null;
+        }
+        return new MediaItem.SubtitleConfiguration.Builder(Uri.fromFile(file))
+                .setMimeType(mimeTypeFor(file.getName()));
+    }
+
+    /**
+     * Subtitle MIME type guessed from the URL's extension, WebVTT when unknown
+     */
+    public static String mimeTypeFor(String url) {
+        String path = Uri.parse(url).getPath();
+        String lower = path != null ? path.toLowerCase(Locale.US) : "";
+        if (lower.endsWith(".srt")) {
+            return MimeTypes.APPLICATION_SUBRIP;
+        } else if (lower.endsWith(".ass") || lower.endsWith(".ssa")) {
+            return MimeTypes.TEXT_SSA;
+        } else if (lower.endsWith(".ttml") || lower.endsWith(".dfxp") || lower.endsWith(".xml")) {
+            return MimeTypes.APPLICATION_TTML;
+        }
+        return MimeTypes.TEXT_VTT;
+    }
+
+    public long getCacheSize() {
+        long total = 0;
+        File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                total += file.length();
+            }
+        }
+        return total;
+    }
+
+    public void clear() {
+        index.clear();
+        executorService.execute(() -> {
+            File[] files = cacheDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    private void buildIndex() {
+        try {
+            File[] files = cacheDir.listFiles();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                String key = keyOf(file);
+                if (key != null) {
+                    index.put(key, file);
+                }
+            }
+            Log.d(TAG, "Indexed " + index.size() + " cached subtitles");
+        } finally {
+            indexed.countDown();
+        }
+    }
+
+    private void awaitIndexed() {
+        boolean interrupted = false;
+        while (indexed.getCount() > 0) {
+            try {
+                indexed.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cache key of a finished cache file, or null for temp files
+     */
+    @Nullable
+    private static String keyOf(File file) {
+        String name = file.getName();
+        if (name.endsWith(CONVERTED_SUFFIX)) {
+            return name.substring(0, name.length() - CONVERTED_SUFFIX.length());
+        } else if (name.endsWith(PASSTHROUGH_SUFFIX)) {
+            return name.substring(0, name.length() - PASSTHROUGH_SUFFIX.length());
+        }
+        return null;
+    }
+
+    private void download(String url) {
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            Log.e(TAG, "Could not create subtitle cache directory");
+            return;
+        }
+        String key = keyFor(url);
+        File temp = new File(cacheDir, key + ".tmp");
+        File convertedTemp = new File(cacheDir, key + CONVERTED_SUFFIX + ".tmp");
+
+        Request request = new Request.Builder()
+                .url(url)
+                .header("User-Agent", HttpClientProvider.USER_AGENT)
+                .build();
+        try (Response response = HttpClientProvider.getInstance().getClient().newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                Log.w(TAG, "Subtitle download failed (" + response.code() + "): " + url);
+                return;
+            }
+            if (body.contentLength() > MAX_FILE_BYTES) {
+                Log.w(TAG, "Subtitle too large, skipping: " + url);
+                return;
+            }
+
+            long written = 0;
+            try (InputStream in = body.byteStream(); OutputStream out = new FileOutputStream(temp)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    written += read;
+                    if (written > MAX_FILE_BYTES) {
+                        throw new IOException("Subtitle exceeds " + MAX_FILE_BYTES + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            // Normalize once here so the player always gets clean UTF-8 WebVTT
+            int cues;
+            try (InputStream in = new FileInputStream(temp); OutputStream out = new FileOutputStream(convertedTemp)) {
+                cues = SubtitleConverter.convertToWebVtt(in, out);
+            }
+
+            // Rename so readers never see a partially written file
+            File source;
+            File target;
+            if (cues > 0) {
+                source = convertedTemp;
+                target = new File(cacheDir, key + CONVERTED_SUFFIX);
+            } else if (cues < 0) {
+                source = temp;
+                target = new File(cacheDir, key + PASSTHROUGH_SUFFIX);
+            } else {
+                Log.w(TAG, "No valid cues, not caching: " + url);
+                return;
+            }
+            if (!source.renameTo(target)) {
+                throw new IOException("Could not move subtitle into cache");
+            }
+            index.put(key, target);
+            Log.d(TAG, "Cached subtitle (" + written + " bytes, " + cues + " cues): " + url);
+            trimToSize();
+        } catch (Exception e) {
+            Log.e(TAG, "Error caching subtitle: " + url, e);
+        } finally {
+            if (temp.exists()) {
+                temp.delete();
+            }
+            if (convertedTemp.exists()) {
+                convertedTemp.delete();
+            }
+        }
+    }
+
+    /**
+     * Delete least recently used files until the cache fits in MAX_CACHE_BYTES
+     */
+    private synchronized void trimToSize() {
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= MAX_CACHE_BYTES) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (total <= MAX_CACHE_BYTES) {
+                break;
+            }
+            if (file.getName().endsWith(".tmp")) {
+                continue;
+            }
+            long length = file.length();
+            String key = keyOf(file);
+            if (key != null) {
+                index.remove(key);
+            }
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private static String keyFor(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return String.valueOf(url.hashCode());
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.cinestream.tvplayer.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming converter from SRT, ASS/SSA and loosely formed WebVTT to clean UTF-8 WebVTT.
+ * The input is read line by line, so large files are never held in memory. The charset is
+ * detected from the BOM, or else by checking whether the first block decodes as strict UTF-8,
+ * with Windows-1252 as the fallback. Cues with bad timings or no text are dropped, so the
+ * player never has to parse or retry them.
+ */
+public class SubtitleConverter {
+    private static final int SNIFF_BYTES = 64 * 1024;
+    private static final Charset FALLBACK_CHARSET = Charset.forName("windows-1252");
+
+    // [hh:]mm:ss[,.]fff --> [hh:]mm:ss[,.]fff, with anything after the end time ignored
+    private static final Pattern TIMING = Pattern.compile(
+            "^\\s*((?:\\d+:)?\\d{1,2}:\\d{1,2}[,.]\\d{1,3})\\s*-->\\s*((?:\\d+:)?\\d{1,2}:\\d{1,2}[,.]\\d{1,3}).*$");
+    private static final Pattern TIMESTAMP = Pattern.compile("(?:(\\d+):)?(\\d{1,2}):(\\d{1,2})[,.](\\d{1,3})");
+    private static final Pattern SSA_TIMESTAMP = Pattern.compile("(\\d+):(\\d{1,2}):(\\d{1,2})[.:](\\d{1,3})");
+    private static final Pattern SSA_OVERRIDE = Pattern.compile("\\{[^}]*\\}");
+    private static final Pattern SRT_POSITION_TAG = Pattern.compile("\\{\\\\[^}]*\\}");
+    private static final Pattern BLANK_LINES = Pattern.compile("\n\\s*\n+");
+    private static final Pattern FONT_TAG = Pattern.compile("</?font[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CUE_NUMBER = Pattern.compile("^\\s*\\d+\\s*$");
+    // An '&' that doesn't start a character reference
+    private static final Pattern BARE_AMPERSAND = Pattern.compile("&(?!#?[A-Za-z0-9]+;)");
+    // A '<' that doesn't start a WebVTT cue tag or cue timestamp
+    private static final Pattern BARE_LESS_THAN = Pattern.compile(
+            "<(?!/?(?:b|i|u|c|v|lang|ruby|rt)(?:[.\\s][^<>]*)?>|\\d[\\d:.]*>)", Pattern.CASE_INSENSITIVE);
+
+    private SubtitleConverter() {
+    }
+
+    /**
+     * Convert a subtitle stream to WebVTT.
+     * Returns the number of cues written, or -1 when the input is not a text format handled here (e.g. TTML).
+     */
+    public static int convertToWebVtt(InputStream input, OutputStream output) throws IOException {
+        BufferedInputStream bufferedInput = new BufferedInputStream(input, SNIFF_BYTES);
+        Charset charset = detectCharset(bufferedInput);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(bufferedInput, charset));
+
+        String firstLine = reader.readLine();
+        while (firstLine != null && firstLine.trim().isEmpty()) {
+            firstLine = reader.readLine();
+        }
+        if (firstLine == null) {
+            return 0;
+        }
+        firstLine = stripBom(firstLine);
+        if (firstLine.trim().startsWith("<")) {
+            // TTML/SAMI are XML; leave them to the player's own parsers
+            return -1;
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("WEBVTT\n\n");
+        int cues;
+        String trimmed = firstLine.trim();
+        if (trimmed.equalsIgnoreCase("[Script Info]") || trimmed.equalsIgnoreCase("[Events]")) {
+            cues = convertSsa(firstLine, reader, writer);
+        } else {
+            cues = convertCues(firstLine, reader, writer);
+        }
+        writer.flush();
+        return cues;
+    }
+
+    /**
+     * Pick the charset from a BOM, or by checking whether the first block is valid UTF-8.
+     * Leaves the stream positioned after any BOM.
+     */
+    static Charset detectCharset(BufferedInputStream input) throws IOException {
+        input.mark(SNIFF_BYTES);
+        byte[] head = new byte[SNIFF_BYTES];
+        int length = 0;
+        int read;
+        while (length < head.length && (read = input.read(head, length, head.length - length)) != -1) {
+            length += read;
+        }
+        input.reset();
+
+        if (length >= 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+            input.skip(3);
+            return StandardCharsets.UTF_8;
+        }
+        if (length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xFE) {
+            input.skip(2);
+            return StandardCharsets.UTF_16LE;
+        }
+        if (length >= 2 && (head[0] & 0xFF) == 0xFE && (head[1] & 0xFF) == 0xFF) {
+            input.skip(2);
+            return StandardCharsets.UTF_16BE;
+        }
+
+        // Don't fail on a multi-byte sequence cut off at the end of the sniffed block
+        int checkLength = length;
+        if (length == SNIFF_BYTES) {
+            while (checkLength > 0 && (head[checkLength - 1] & 0xC0) == 0x80) {
+                checkLength--;
+            }
+            if (checkLength > 0 && (head[checkLength - 1] & 0x80) != 0) {
+                checkLength--;
+            }
+        }
+
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        try {
+            decoder.decode(ByteBuffer.wrap(head, 0, checkLength));
+            return StandardCharsets.UTF_8;
+        } catch (CharacterCodingException e) {
+            return FALLBACK_CHARSET;
+        }
+    }
+
+    /**
+     * SRT and WebVTT share the same block structure: optional id, timing line, text, blank line
+     */
+    private static int convertCues(String firstLine, BufferedReader reader, Writer writer) throws IOException {
+        int cues = 0;
+        long startMs = -1;
+        long endMs = -1;
+        boolean skippingBlock = false;
+        StringBuilder text = new StringBuilder();
+        // A numeric line inside a cue: cue text, or the next cue's number when the blank line is missing
+        String heldNumber = null;
+
+        String line = firstLine;
+        while (line != null) {
+            if (heldNumber != null) {
+                // Right before a timing line it is the next cue's number, so it is dropped
+                if (!line.contains("-->")) {
+                    appendText(text, heldNumber);
+                }
+                heldNumber = null;
+            }
+            if (line.trim().isEmpty()) {
+                if (startMs >= 0 && text.length() > 0) {
+                    writeCue(writer, startMs, endMs, text);
+                    cues++;
+                }
+                startMs = -1;
+                text.setLength(0);
+                skippingBlock = false;
+            } else if (skippingBlock) {
+                // Inside a NOTE/STYLE/REGION block or a cue with broken timing
+            } else if (line.contains("-->")) {
+                // Without a blank line before it, the previous cue is still pending
+                if (startMs >= 0 && text.length() > 0) {
+                    writeCue(writer, startMs, endMs, text);
+                    cues++;
+                }
+                Matcher matcher = TIMING.matcher(line);
+                startMs = matcher.matches() ? parseTimestamp(matcher.group(1)) : -1;
+                endMs = matcher.matches() ? parseTimestamp(matcher.group(2)) : -1;
+                if (startMs < 0 || endMs <= startMs) {
+                    startMs = -1;
+                    skippingBlock = true;
+                }
+                text.setLength(0);
+            } else if (startMs >= 0) {
+                if (CUE_NUMBER.matcher(line).matches()) {
+                    heldNumber = line.trim();
+                } else {
+                    appendText(text, cleanSrtText(line));
+                }
+            } else {
+                String trimmed = line.trim();
+                if (trimmed.startsWith("NOTE") || trimmed.startsWith("STYLE") || trimmed.startsWith("REGION")) {
+                    skippingBlock = true;
+                }
+                // Otherwise a cue number, identifier or the WEBVTT header
+            }
+            line = reader.readLine();
+        }
+
+        if (heldNumber != null) {
+            appendText(text, heldNumber);
+        }
+        if (startMs >= 0 && text.length() > 0) {
+            writeCue(writer, startMs, endMs, text);
+            cues++;
+        }
+        return cues;
+    }
+
+    private static void appendText(StringBuilder text, String cleaned) {
+        if (cleaned.isEmpty()) {
+            return;
+        }
+        if (text.length() > 0) {
+            text.append('\n');
+        }
+        text.append(cleaned);
+    }
+
+    private static int convertSsa(String firstLine, BufferedReader reader, Writer writer) throws IOException {
+        int cues = 0;
+        boolean inEvents = false;
+        int fieldCount = 10;
+        int startIndex = 1;
+        int endIndex = 2;
+        int textIndex = 9;
+        StringBuilder text = new StringBuilder();
+
+        String line = firstLine;
+        while (line != null) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[")) {
+                inEvents = trimmed.equalsIgnoreCase("[Events]");
+            } else if (inEvents && trimmed.startsWith("Format:")) {
+                String[] fields = trimmed.substring("Format:".length()).split(",");
+                fieldCount = fields.length;
+                for (int i = 0; i < fields.length; i++) {
+                    String field = fields[i].trim();
+                    if (field.equalsIgnoreCase("Start")) {
+                        startIndex = i;
+                    } else if (field.equalsIgnoreCase("End")) {
+                        endIndex = i;
+                    } else if (field.equalsIgnoreCase("Text")) {
+                        textIndex = i;
+                    }
+                }
+            } else if (inEvents && trimmed.startsWith("Dialogue:")) {
+                // Text is the last field and may itself contain commas
+                String[] values = trimmed.substring("Dialogue:".length()).split(",", fieldCount);
+                if (values.length == fieldCount) {
+                    long startMs = parseSsaTimestamp(values[startIndex].trim());
+                    long endMs = parseSsaTimestamp(values[endIndex].trim());
+                    String cleaned = cleanSsaText(values[textIndex]);
+                    if (startMs >= 0 && endMs > startMs && !cleaned.isEmpty()) {
+                        text.setLength(0);
+                        text.append(cleaned);
+                        writeCue(writer, startMs, endMs, text);
+                        cues++;
+                    }
+                }
+            }
+            line = reader.readLine();
+        }
+        return cues;
+    }
+
+    private static void writeCue(Writer writer, long startMs, long endMs, CharSequence text) throws IOException {
+        writeTimestamp(writer, startMs);
+        writer.write(" --> ");
+        writeTimestamp(writer, endMs);
+        writer.write('\n');
+        writer.append(text);
+        writer.write("\n\n");
+    }
+
+    private static void writeTimestamp(Writer writer, long timeMs) throws IOException {
+        long hours = timeMs / 3600000;
+        int minutes = (int) (timeMs / 60000 % 60);
+        int seconds = (int) (timeMs / 1000 % 60);
+        int millis = (int) (timeMs % 1000);
+        if (hours < 10) {
+            writer.write('0');
+        }
+        writer.write(Long.toString(hours));
+        writer.write(':');
+        writeDigits(writer, minutes, 2);
+        writer.write(':');
+        writeDigits(writer, seconds, 2);
+        writer.write('.');
+        writeDigits(writer, millis, 3);
+    }
+
+    private static void writeDigits(Writer writer, int value, int digits) throws IOException {
+        int divisor = digits == 3 ? 100 : 10;
+        while (divisor > 0) {
+            writer.write('0' + (value / divisor) % 10);
+            divisor /= 10;
+        }
+    }
+
+    private static long parseTimestamp(String value) {
+        Matcher matcher = TIMESTAMP.matcher(value.trim());
+        if (!matcher.matches()) {
+            return -1;
+        }
+        long hours = matcher.group(1) != null ? Long.parseLong(matcher.group(1)) : 0;
+        long minutes = Long.parseLong(matcher.group(2));
+        long seconds = Long.parseLong(matcher.group(3));
+        long millis = fractionToMillis(matcher.group(4));
+        if (minutes > 59 || seconds > 59) {
+            return -1;
+        }
+        return ((hours * 60 + minutes) * 60 + seconds) * 1000 + millis;
+    }
+
+    private static long parseSsaTimestamp(String value) {
+        Matcher matcher = SSA_TIMESTAMP.matcher(value);
+        if (!matcher.matches()) {
+            return -1;
+        }
+        long hours = Long.parseLong(matcher.group(1));
+        long minutes = Long.parseLong(matcher.group(2));
+        long seconds = Long.parseLong(matcher.group(3));
+        return ((hours * 60 + minutes) * 60 + seconds) * 1000 + fractionToMillis(matcher.group(4));
+    }
+
+    /**
+     * "5" -> 500, "50" -> 500, "500" -> 500
+     */
+    private static long fractionToMillis(String fraction) {
+        long value = Long.parseLong(fraction);
+        for (int i = fraction.length(); i < 3; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    private static String cleanSrtText(String line) {
+        String cleaned = SRT_POSITION_TAG.matcher(line).replaceAll("");
+        cleaned = FONT_TAG.matcher(cleaned).replaceAll("");
+        // "-->" inside cue text would end the cue in the WebVTT parser
+        return escapeText(cleaned.replace("-->", "->")).trim();
+    }
+
+    private static String cleanSsaText(String value) {
+        String cleaned = SSA_OVERRIDE.matcher(value).replaceAll("");
+        cleaned = cleaned.replace("\\N", "\n").replace("\\n", "\n").replace("\\h", " ");
+        // A blank line would end the cue early
+        cleaned = BLANK_LINES.matcher(cleaned.replace("-->", "->")).replaceAll("\n");
+        return escapeText(cleaned).trim();
+    }
+
+    /**
+     * Escape what the WebVTT parser would read as markup, e.g. "Tom & Jerry" or "a < b",
+     * keeping character references and the cue tags WebVTT allows
+     */
+    private static String escapeText(String text) {
+        if (text.indexOf('&') < 0 && text.indexOf('<') < 0) {
+            return text;
+        }
+        String escaped = BARE_AMPERSAND.matcher(text).replaceAll("&amp;");
+        return BARE_LESS_THAN.matcher(escaped).replaceAll("&lt;");
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+}
@@ -1,8 +1,6 @@
 package com.cinestream.tvplayer.util;
 
 import android.content.Context;
-import android.content.SharedPreferences;
-import android.graphics.Color;
 import android.util.Log;
 import android.widget.TextView;
 
@@ -12,28 +10,19 @@ import androidx.media3.common.Tracks;
 import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
 
+import com.cinestream.tvplayer.data.model.MediaItems;
+import com.cinestream.tvplayer.data.repository.SettingsStore;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @UnstableApi
 public class SubtitleManager {
     private static final String TAG = "SubtitleManager";
-    private static final String PREFS_NAME = "subtitle_preferences";
-    private static final String KEY_SUBTITLE_ENABLED = "subtitle_enabled";
-    private static final String KEY_SUBTITLE_LANGUAGE = "subtitle_language";
-    private static final String KEY_SUBTITLE_SIZE = "subtitle_size";
-    private static final String KEY_SUBTITLE_COLOR = "subtitle_color";
-    private static final String KEY_SUBTITLE_BG_COLOR = "subtitle_bg_color";
-
-    // Default subtitle settings
-    private static final boolean DEFAULT_ENABLED = true;
-    private static final String DEFAULT_LANGUAGE = "en";
-    private static final int DEFAULT_SIZE = 16;
-    private static final int DEFAULT_COLOR = Color.WHITE;
-    private static final int DEFAULT_BG_COLOR = Color.TRANSPARENT;
 
     private Context context;
-    private SharedPreferences sharedPreferences;
+    private SettingsStore settingsStore;
     private DefaultTrackSelector trackSelector;
 
     /**
@@ -41,7 +30,7 @@ public class SubtitleManager {
      */
     public SubtitleManager(Context context) {
         this.context = context;
-        this.sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.settingsStore = SettingsStore.getInstance(context);
     }
 
     public void setTrackSelector(DefaultTrackSelector trackSelector) {
@@ -52,105 +41,70 @@ public class SubtitleManager {
      * Enable or disable subtitles
      */
     public void setSubtitlesEnabled(boolean enabled) {
-        if (sharedPreferences != null) {
-            sharedPreferences.edit()
-                    .putBoolean(KEY_SUBTITLE_ENABLED, enabled)
-                    .apply();
-        }
+        settingsStore.edit().setSubtitlesEnabled(enabled).apply();
     }
 
     /**
      * Check if subtitles are enabled
      */
     public boolean isSubtitlesEnabled() {
-        if (sharedPreferences != null) {
-            return sharedPreferences.getBoolean(KEY_SUBTITLE_ENABLED, DEFAULT_ENABLED);
-        }
-        return DEFAULT_ENABLED;
+        return settingsStore.get().isSubtitlesEnabled();
     }
 
     /**
      * Set subtitle language
      */
     public void setSubtitleLanguage(String language) {
-        if (sharedPreferences != null) {
-            sharedPreferences.edit()
-                    .putString(KEY_SUBTITLE_LANGUAGE, language)
-                    .apply();
-        }
+        settingsStore.edit().setSubtitleLanguage(language).apply();
     }
 
     /**
      * Get subtitle language
      */
     public String getSubtitleLanguage() {
-        if (sharedPreferences != null) {
-            return sharedPreferences.getString(KEY_SUBTITLE_LANGUAGE, DEFAULT_LANGUAGE);
-        }
-        return DEFAULT_LANGUAGE;
+        return settingsStore.get().getSubtitleLanguage();
     }
 
     /**
      * Set subtitle text size
      */
     public void setSubtitleSize(int size) {
-        if (sharedPreferences != null) {
-            sharedPreferences.edit()
-                    .putInt(KEY_SUBTITLE_SIZE, size)
-                    .apply();
-        }
+        settingsStore.edit().setSubtitleSize(size).apply();
     }
 
     /**
      * Get subtitle text size
      */
     public int getSubtitleSize() {
-        if (sharedPreferences != null) {
-            return sharedPreferences.getInt(KEY_SUBTITLE_SIZE, DEFAULT_SIZE);
-        }
-        return DEFAULT_SIZE;
+        return settingsStore.get().getSubtitleSize();
     }
 
     /**
      * Set subtitle text color
      */
     public void setSubtitleColor(int color) {
-        if (sharedPreferences != null) {
-            sharedPreferences.edit()
-                    .putInt(KEY_SUBTITLE_COLOR, color)
-                    .apply();
-        }
+        settingsStore.edit().setSubtitleColor(color).apply();
     }
 
     /**
      * Get subtitle text color
      */
     public int getSubtitleColor() {
-        if (sharedPreferences != null) {
-            return sharedPreferences.getInt(KEY_SUBTITLE_COLOR, DEFAULT_COLOR);
-        }
-        return DEFAULT_COLOR;
+        return settingsStore.get().getSubtitleColor();
     }
 
     /**
      * Set subtitle background color
      */
     public void setSubtitleBackgroundColor(int color) {
-        if (sharedPreferences != null) {
-            sharedPreferences.edit()
-                    .putInt(KEY_SUBTITLE_BG_COLOR, color)
-                    .apply();
-        }
+        settingsStore.edit().setSubtitleBackgroundColor(color).apply();
     }
 
     /**
      * Get subtitle background color
      */
     public int getSubtitleBackgroundColor() {
-        if (sharedPreferences != null) {
-            return sharedPreferences.getInt(KEY_SUBTITLE_BG_COLOR, DEFAULT_BG_COLOR);
-        }
-        return DEFAULT_BG_COLOR;
+        return settingsStore.get().getSubtitleBackgroundColor();
     }
 
     /**
@@ -159,8 +113,9 @@ public class SubtitleManager {
     public void applySubtitleSettings() {
         if (trackSelector != null) {
             try {
-                boolean enabled = isSubtitlesEnabled();
-                String language = getSubtitleLanguage();
+                SettingsStore.Settings settings = settingsStore.get();
+                boolean enabled = settings.isSubtitlesEnabled();
+                String language = settings.getSubtitleLanguage();
 
                 TrackSelectionParameters.Builder builder = trackSelector.buildUponParameters();
 
@@ -235,13 +190,15 @@ public class SubtitleManager {
                     // Disable subtitles
                     builder.setPreferredTextLanguage(null)
                             .setIgnoredTextSelectionFlags(~C.SELECTION_FLAG_FORCED);
-                    setSubtitlesEnabled(false);
+                    settingsStore.edit().setSubtitlesEnabled(false).apply();
                 } else {
                     // Enable subtitles with selected language
                     builder.setPreferredTextLanguage(language)
                             .setPreferredTextRoleFlags(C.ROLE_FLAG_SUBTITLE);
-                    setSubtitlesEnabled(true);
-                    setSubtitleLanguage(language);
+                    settingsStore.edit()
+                            .setSubtitlesEnabled(true)
+                            .setSubtitleLanguage(language)
+                            .apply();
                 }
 
                 trackSelector.setParameters((DefaultTrackSelector.Parameters.Builder)builder);
@@ -269,6 +226,52 @@ public class SubtitleManager {
         return null;
     }
 
+    /**
+     * Tracks to attach when playback starts: the first track in the preferred language plus any forced tracks.
+     * Everything else is loaded on demand from the subtitle dialog.
+     */
+    public List<MediaItems.SubtitleItem> selectInitialSubtitles(List<MediaItems.SubtitleItem> subtitles) {
+        List<MediaItems.SubtitleItem> selected = new ArrayList<>();
+        if (subtitles == null) {
+            return selected;
+        }
+
+        SettingsStore.Settings settings = settingsStore.get();
+        String language = settings.getSubtitleLanguage();
+        boolean wantPreferred = settings.isSubtitlesEnabled() && !"off".equals(language);
+        boolean preferredFound = false;
+        for (MediaItems.SubtitleItem subtitle : subtitles) {
+            if (isForcedSubtitle(subtitle)) {
+                selected.add(subtitle);
+            } else if (wantPreferred && !preferredFound && matchesLanguage(subtitle.getLang(), language)) {
+                selected.add(subtitle);
+                preferredFound = true;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Providers mark forced (foreign-dialogue-only) tracks in the label
+     */
+    public static boolean isForcedSubtitle(MediaItems.SubtitleItem subtitle) {
+        String label = subtitle.getLanguage();
+        return label != null && label.toLowerCase(Locale.US).contains("forced");
+    }
+
+    /**
+     * Match a provider language ("en", "en-US", "English") against a preference code ("en")
+     */
+    public static boolean matchesLanguage(String lang, String preferred) {
+        if (lang == null || preferred == null) {
+            return false;
+        }
+        String l = lang.toLowerCase(Locale.US);
+        String p = preferred.toLowerCase(Locale.US);
+        return l.equals(p) || l.startsWith(p + "-") || l.startsWith(p + "_")
+                || new Locale(p).getDisplayLanguage(Locale.ENGLISH).equalsIgnoreCase(lang);
+    }
+
     /**
      * Get supported subtitle formats
      */
@@ -306,9 +309,10 @@ public class SubtitleManager {
      */
     public void configureSubtitleTextView(TextView subtitleTextView) {
         if (subtitleTextView != null) {
-            subtitleTextView.setTextSize(getSubtitleSize());
-            subtitleTextView.setTextColor(getSubtitleColor());
-            subtitleTextView.setBackgroundColor(getSubtitleBackgroundColor());
+            SettingsStore.Settings settings = settingsStore.get();
+            subtitleTextView.setTextSize(settings.getSubtitleSize());
+            subtitleTextView.setTextColor(settings.getSubtitleColor());
+            subtitleTextView.setBackgroundColor(settings.getSubtitleBackgroundColor());
         }
     }
 
@@ -316,40 +320,41 @@ public class SubtitleManager {
      * Reset subtitle settings to defaults
      */
     public void resetToDefaults() {
-        if (sharedPreferences != null) {
-            sharedPreferences.edit()
-                    .putBoolean(KEY_SUBTITLE_ENABLED, DEFAULT_ENABLED)
-                    .putString(KEY_SUBTITLE_LANGUAGE, DEFAULT_LANGUAGE)
-                    .putInt(KEY_SUBTITLE_SIZE, DEFAULT_SIZE)
-                    .putInt(KEY_SUBTITLE_COLOR, DEFAULT_COLOR)
-                    .putInt(KEY_SUBTITLE_BG_COLOR, DEFAULT_BG_COLOR)
-                    .apply();
-        }
+        settingsStore.edit()
+                .setSubtitlesEnabled(SettingsStore.DEFAULT_SUBTITLE_ENABLED)
+                .setSubtitleLanguage(SettingsStore.DEFAULT_SUBTITLE_LANGUAGE)
+                .setSubtitleSize(SettingsStore.DEFAULT_SUBTITLE_SIZE)
+                .setSubtitleColor(SettingsStore.DEFAULT_SUBTITLE_COLOR)
+                .setSubtitleBackgroundColor(SettingsStore.DEFAULT_SUBTITLE_BG_COLOR)
+                .apply();
     }
 
     /**
      * Get subtitle settings as a bundle for easy transfer
      */
     public SubtitleSettings getSubtitleSettings() {
+        SettingsStore.Settings settings = settingsStore.get();
         return new SubtitleSettings(
-                isSubtitlesEnabled(),
-                getSubtitleLanguage(),
-                getSubtitleSize(),
-                getSubtitleColor(),
-                getSubtitleBackgroundColor()
+                settings.isSubtitlesEnabled(),
+                settings.getSubtitleLanguage(),
+                settings.getSubtitleSize(),
+                settings.getSubtitleColor(),
+                settings.getSubtitleBackgroundColor()
         );
     }
 
     /**
-     * Apply subtitle settings from a settings object
+     * Apply subtitle settings from a settings object, stored as a single batch
      */
     public void applySubtitleSettings(SubtitleSettings settings) {
         if (settings != null) {
-            setSubtitlesEnabled(settings.isEnabled());
-            setSubtitleLanguage(settings.getLanguage());
-            setSubtitleSize(settings.getSize());
-            setSubtitleColor(settings.getColor());
-            setSubtitleBackgroundColor(settings.getBackgroundColor());
+            settingsStore.edit()
+                    .setSubtitlesEnabled(settings.isEnabled())
+                    .setSubtitleLanguage(settings.getLanguage())
+                    .setSubtitleSize(settings.getSize())
+                    .setSubtitleColor(settings.getColor())
+                    .setSubtitleBackgroundColor(settings.getBackgroundColor())
+                    .apply();
             applySubtitleSettings();
         }
     }
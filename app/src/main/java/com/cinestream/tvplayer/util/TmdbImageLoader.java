@@ -0,0 +1,44 @@
+package com.cinestream.tvplayer.util;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.load.model.stream.BaseGlideUrlLoader;
+
+import java.io.InputStream;
+
+/**
+ * Resolves a {@link TmdbImages.Image} to the rendition URL for the size Glide is loading it at
+ */
+public class TmdbImageLoader extends BaseGlideUrlLoader<TmdbImages.Image> {
+
+    TmdbImageLoader(ModelLoader<GlideUrl, InputStream> urlLoader) {
+        super(urlLoader);
+    }
+
+    @Override
+    protected String getUrl(TmdbImages.Image image, int width, int height, Options options) {
+        return TmdbImages.urlFor(image, width, height);
+    }
+
+    @Override
+    public boolean handles(@NonNull TmdbImages.Image image) {
+        return true;
+    }
+
+    public static class Factory implements ModelLoaderFactory<TmdbImages.Image, InputStream> {
+        @NonNull
+        @Override
+        public ModelLoader<TmdbImages.Image, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new TmdbImageLoader(multiFactory.build(GlideUrl.class, InputStream.class));
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cinestream.tvplayer.util;
+
+import android.content.res.Resources;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.request.target.Target;
+
+/**
+ * Picks the TMDB image rendition for the size an image is actually displayed at.
+ * Callers load {@link #poster}, {@link #backdrop} or {@link #still} instead of the stored URL;
+ * for TMDB images that keeps only the raw path, and the Glide loader asks {@link #urlFor} for
+ * the smallest rendition covering the target view once its pixel size is known.
+ * URLs from other hosts are passed through unchanged.
+ */
+public final class TmdbImages {
+    private static final String TAG = "TmdbImages";
+
+    public static final String IMAGE_BASE_URL = "https://image.tmdb.org/t/p/";
+    // Renditions served by image.tmdb.org, smallest first. "original" is never picked by size:
+    // it is often a multi-megabyte 4K file, and w1280 already covers a 1080p screen's hero
+    private static final int[] WIDTHS = {92, 154, 185, 300, 342, 500, 780, 1280};
+
+    /**
+     * Shape of the image, so a view's height can be turned into the width needed to cover it
+     */
+    public enum Kind {
+        POSTER(2f / 3f),
+        BACKDROP(16f / 9f),
+        STILL(16f / 9f);
+
+        final float aspectRatio;
+
+        Kind(float aspectRatio) {
+            this.aspectRatio = aspectRatio;
+        }
+    }
+
+    /**
+     * A TMDB image by raw path; the model Glide resolves to a sized URL
+     */
+    public static final class Image {
+        private final String path;
+        private final Kind kind;
+
+        Image(String path, Kind kind) {
+            this.path = path;
+            this.kind = kind;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Image)) return false;
+            Image other = (Image) o;
+            return path.equals(other.path) && kind == other.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + kind.hashCode();
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "TmdbImage(" + kind + " " + path + ")";
+        }
+    }
+
+    private TmdbImages() {
+    }
+
+    @Nullable
+    public static Object poster(@Nullable String url) {
+        return model(url, Kind.POSTER);
+    }
+
+    @Nullable
+    public static Object backdrop(@Nullable String url) {
+        return model(url, Kind.BACKDROP);
+    }
+
+    @Nullable
+    public static Object still(@Nullable String url) {
+        return model(url, Kind.STILL);
+    }
+
+    /**
+     * Glide model for a stored image URL: a sized TMDB image, or the URL itself
+     */
+    @Nullable
+    public static Object model(@Nullable String url, @NonNull Kind kind) {
+        String path = rawPath(url);
+        return path != null ? new Image(path, kind) : url;
+    }
+
+    /**
+     * The "/abc.jpg" part of a TMDB image URL of any size, or null for other URLs
+     */
+    @Nullable
+    public static String rawPath(@Nullable String url) {
+        if (url == null || !url.startsWith(IMAGE_BASE_URL)) {
+            return null;
+        }
+        int slash = url.indexOf('/', IMAGE_BASE_URL.length());
+        return slash > 0 && slash < url.length() - 1 ? url.substring(slash) : null;
+    }
+
+    /**
+     * URL of the smallest rendition that covers a width x height pixel target when center-cropped,
+     * capped at the largest sized rendition. Sizes come from the measured view, so display density
+     * is already included; an unknown size is treated as the full screen width.
+     */
+    @NonNull
+    public static String urlFor(@NonNull Image image, int width, int height) {
+        if (width <= 0 || width == Target.SIZE_ORIGINAL) {
+            width = Resources.getSystem().getDisplayMetrics().widthPixels;
+        }
+        int neededWidth = width;
+        if (height > 0 && height != Target.SIZE_ORIGINAL) {
+            neededWidth = Math.max(width, (int) Math.ceil(height * image.kind.aspectRatio));
+        }
+        for (int candidate : WIDTHS) {
+            if (candidate >= neededWidth) {
+                return IMAGE_BASE_URL + "w" + candidate + image.path;
+            }
+        }
+        return IMAGE_BASE_URL + "w" + WIDTHS[WIDTHS.length - 1] + image.path;
+    }
+}